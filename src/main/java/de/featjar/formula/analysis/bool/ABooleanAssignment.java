@@ -54,6 +54,101 @@ import java.util.stream.IntStream;
 public abstract class ABooleanAssignment extends IntegerList
         implements IAssignment<Integer, Boolean>, IBooleanRepresentation {
 
+    /**
+     * Assignments with at most this many elements are searched linearly instead of building a {@link VariableIndex}.
+     */
+    protected static final int LINEAR_SEARCH_THRESHOLD = 16;
+
+    /**
+     * Maps variables to their positions in an assignment.
+     * {@code nextPositions} links each position to the next position of the same variable plus one (0 if there is
+     * none). The first position of each variable plus one is stored in {@code firstPositions}, which is indexed by
+     * variable if the variables are dense. For sparse variables (e.g., a partial configuration over a large variable
+     * map), {@code firstPositions} is an open-addressing hash table with linear probing whose keys are stored in
+     * {@code variables}. Zero entries are not indexed.
+     */
+    private static final class VariableIndex {
+        private static final VariableIndex NONE = new VariableIndex(null, null, null);
+
+        private static final int EMPTY = -1;
+
+        private final int[] variables;
+        private final int[] firstPositions;
+        private final int[] nextPositions;
+
+        private VariableIndex(int[] variables, int[] firstPositions, int[] nextPositions) {
+            this.variables = variables;
+            this.firstPositions = firstPositions;
+            this.nextPositions = nextPositions;
+        }
+
+        private static VariableIndex of(int[] elements) {
+            int maxVariable = 0;
+            for (int integer : elements) {
+                maxVariable = Math.max(maxVariable, Math.abs(integer));
+            }
+            if (maxVariable < 0) {
+                // Integer.MIN_VALUE has no variable
+                return NONE;
+            }
+            final int[] nextPositions = new int[elements.length];
+            if (maxVariable <= (elements.length << 3) + 64) {
+                final int[] firstPositions = new int[maxVariable + 1];
+                for (int i = elements.length - 1; i >= 0; i--) {
+                    final int variable = Math.abs(elements[i]);
+                    if (variable != 0) {
+                        nextPositions[i] = firstPositions[variable];
+                        firstPositions[variable] = i + 1;
+                    }
+                }
+                return new VariableIndex(null, firstPositions, nextPositions);
+            }
+            final int capacity = Integer.highestOneBit(elements.length) << 2;
+            final int[] variables = new int[capacity];
+            final int[] firstPositions = new int[capacity];
+            Arrays.fill(variables, EMPTY);
+            for (int i = elements.length - 1; i >= 0; i--) {
+                final int variable = Math.abs(elements[i]);
+                if (variable != 0) {
+                    int slot = hash(variable) & (capacity - 1);
+                    while (variables[slot] != EMPTY && variables[slot] != variable) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    variables[slot] = variable;
+                    nextPositions[i] = firstPositions[slot];
+                    firstPositions[slot] = i + 1;
+                }
+            }
+            return new VariableIndex(variables, firstPositions, nextPositions);
+        }
+
+        private static int hash(int variable) {
+            final int h = variable * 0x9E37_79B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * {@return the first position of the given variable plus one, or 0 if it does not occur}
+         */
+        private int getFirstPosition(int variable) {
+            if (variable == 0) {
+                return 0;
+            }
+            if (variables == null) {
+                return variable < firstPositions.length ? firstPositions[variable] : 0;
+            }
+            final int mask = variables.length - 1;
+            for (int slot = hash(variable) & mask; variables[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (variables[slot] == variable) {
+                    return firstPositions[slot];
+                }
+            }
+            return 0;
+        }
+    }
+
+    private VariableIndex variableIndex;
+
     public static int[] unitPropagation(BooleanClause clause, BooleanAssignment core) {
         final int[] literals = clause.get();
         final LinkedHashSet<Integer> literalSet = new LinkedHashSet<>(literals.length << 1);
@@ -141,25 +236,111 @@ public abstract class ABooleanAssignment extends IntegerList
         return adapt(elements, oldVariableMap, newVariableMap, false);
     }
 
+    /**
+     * {@return the first position of the given variable in this assignment, or -1 if it does not occur}
+     * Zero entries are not occurrences of any variable.
+     *
+     * @param variable the variable
+     */
     public int indexOfVariable(int variable) {
         if (variable < 0) {
             throw new IllegalArgumentException(String.format("%d is negative", variable));
         }
-        return IntStream.range(0, elements.length)
-                .filter(i -> Math.abs(elements[i]) == variable)
-                .findFirst()
-                .orElse(-1);
+        final VariableIndex index = getVariableIndex();
+        if (index != VariableIndex.NONE) {
+            return index.getFirstPosition(variable) - 1;
+        }
+        for (int i = 0; i < elements.length; i++) {
+            if (variable != 0 && Math.abs(elements[i]) == variable) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     public int[] indicesOfVariable(int variable) {
         if (variable < 0) {
             throw new IllegalArgumentException(String.format("%d is negative", variable));
         }
+        final VariableIndex index = getVariableIndex();
+        if (index != VariableIndex.NONE) {
+            final int firstPosition = index.getFirstPosition(variable);
+            int count = 0;
+            for (int i = firstPosition; i > 0; i = index.nextPositions[i - 1]) {
+                count++;
+            }
+            final int[] indices = new int[count];
+            int j = 0;
+            for (int i = firstPosition; i > 0; i = index.nextPositions[i - 1]) {
+                indices[j++] = i - 1;
+            }
+            return indices;
+        }
         return IntStream.range(0, elements.length)
-                .filter(i -> Math.abs(elements[i]) == variable)
+                .filter(i -> variable != 0 && Math.abs(elements[i]) == variable)
                 .toArray();
     }
 
+    /**
+     * {@return the index from variables to positions in this assignment}
+     * The index is only built for assignments with more than {@link #LINEAR_SEARCH_THRESHOLD} elements. Otherwise,
+     * {@link VariableIndex#NONE} is returned and callers should fall back to a linear scan.
+     * The index is built lazily and kept until {@link #invalidateVariableIndex()} is called.
+     */
+    private VariableIndex getVariableIndex() {
+        if (elements.length <= LINEAR_SEARCH_THRESHOLD) {
+            return VariableIndex.NONE;
+        }
+        VariableIndex index = variableIndex;
+        if (index == null) {
+            index = VariableIndex.of(elements);
+            variableIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Discards the index from variables to positions.
+     * Must be called whenever the elements of this assignment are modified.
+     */
+    protected final void invalidateVariableIndex() {
+        variableIndex = null;
+    }
+
+    private int markVariable(int variable, boolean[] marker) {
+        final VariableIndex index = getVariableIndex();
+        if (index == VariableIndex.NONE) {
+            int count = 0;
+            for (int i : indicesOfVariable(variable)) {
+                if (i >= 0 && !marker[i]) {
+                    count++;
+                    marker[i] = true;
+                }
+            }
+            return count;
+        }
+        if (variable < 0) {
+            throw new IllegalArgumentException(String.format("%d is negative", variable));
+        }
+        int count = 0;
+        for (int i = index.getFirstPosition(variable); i > 0; i = index.nextPositions[i - 1]) {
+            if (!marker[i - 1]) {
+                count++;
+                marker[i - 1] = true;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return the variables of the given literals, without zeros}
+     *
+     * @param literals the literals
+     */
+    protected static int[] getVariables(ABooleanAssignment literals) {
+        return IntStream.of(literals.get()).filter(l -> l != 0).map(Math::abs).toArray();
+    }
+
     public final boolean containsVariable(int integer) {
         return indexOfVariable(integer) >= 0;
     }
@@ -185,14 +366,7 @@ public abstract class ABooleanAssignment extends IntegerList
         boolean[] intersectionMarker = new boolean[elements.length];
         int count = 0;
         for (int integer : integers) {
-            final int[] indices = indicesOfVariable(integer);
-            for (int i = 0; i < indices.length; i++) {
-                int index = indices[i];
-                if (index >= 0 && !intersectionMarker[index]) {
-                    count++;
-                    intersectionMarker[index] = true;
-                }
-            }
+            count += markVariable(integer, intersectionMarker);
         }
 
         int[] newArray = new int[count];
@@ -203,6 +377,7 @@ public abstract class ABooleanAssignment extends IntegerList
             }
         }
         assert Arrays.stream(elements)
+                .filter(e -> e != 0)
                 .allMatch(e -> Arrays.stream(newArray).anyMatch(i -> i == e)
                         == Arrays.stream(integers).anyMatch(i -> i == Math.abs(e)));
         return newArray;
@@ -217,14 +392,7 @@ public abstract class ABooleanAssignment extends IntegerList
         boolean[] intersectionMarker = new boolean[elements.length];
         int count = 0;
         for (int integer : integers) {
-            final int[] indices = indicesOfVariable(integer);
-            for (int i = 0; i < indices.length; i++) {
-                int index = indices[i];
-                if (index >= 0 && !intersectionMarker[index]) {
-                    count++;
-                    intersectionMarker[index] = true;
-                }
-            }
+            count += markVariable(integer, intersectionMarker);
         }
 
         int[] newArray = new int[elements.length - count];
@@ -235,6 +403,7 @@ public abstract class ABooleanAssignment extends IntegerList
             }
         }
         assert Arrays.stream(elements)
+                .filter(e -> e != 0)
                 .allMatch(e -> Arrays.stream(newArray).anyMatch(i -> i == e)
                         ^ Arrays.stream(integers).anyMatch(i -> i == Math.abs(e)));
         return newArray;
@@ -249,7 +418,7 @@ public abstract class ABooleanAssignment extends IntegerList
     }
 
     public ABooleanAssignment retainAllVariables(ABooleanAssignment integers) {
-        return new BooleanAssignment(retainAllVariables(integers.get()));
+        return new BooleanAssignment(retainAllVariables(getVariables(integers)));
     }
 
     public ABooleanAssignment removeAll(ABooleanAssignment integers) {
@@ -257,7 +426,7 @@ public abstract class ABooleanAssignment extends IntegerList
     }
 
     public ABooleanAssignment removeAllVariables(ABooleanAssignment integers) {
-        return new BooleanAssignment(removeAllVariables(integers.get()));
+        return new BooleanAssignment(removeAllVariables(getVariables(integers)));
     }
 
     public BooleanAssignment toAssignment() {
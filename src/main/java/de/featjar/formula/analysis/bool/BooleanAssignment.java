@@ -76,7 +76,7 @@ public class BooleanAssignment extends ABooleanAssignment {
 
     @Override
     public BooleanAssignment retainAllVariables(ABooleanAssignment integers) {
-        return new BooleanAssignment(retainAllVariables(integers.get()));
+        return new BooleanAssignment(retainAllVariables(getVariables(integers)));
     }
 
     @Override
@@ -86,6 +86,6 @@ public class BooleanAssignment extends ABooleanAssignment {
 
     @Override
     public BooleanAssignment removeAllVariables(ABooleanAssignment integers) {
-        return new BooleanAssignment(removeAllVariables(integers.get()));
+        return new BooleanAssignment(removeAllVariables(getVariables(integers)));
     }
 }
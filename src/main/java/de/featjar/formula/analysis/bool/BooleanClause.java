@@ -20,6 +20,7 @@
  */
 package de.featjar.formula.analysis.bool;
 
+import de.featjar.base.data.Result;
 import de.featjar.formula.analysis.IClause;
 import de.featjar.formula.analysis.ISolver;
 import de.featjar.formula.analysis.VariableMap;
@@ -49,7 +50,7 @@ public class BooleanClause extends ABooleanAssignment implements IClause<Integer
         assert Arrays.stream(integers).noneMatch(a -> a == 0) : "contains zero: " + Arrays.toString(integers);
         assert sort
                         || Arrays.stream(integers)
-                                        .reduce((a, b) -> a != 0 && a < b ? b : 0)
+                                        .reduce((a, b) -> a != 0 && a <= b ? b : 0)
                                         .orElse(1)
                                 != 0
                 : "unsorted: " + Arrays.toString(integers);
@@ -68,6 +69,7 @@ public class BooleanClause extends ABooleanAssignment implements IClause<Integer
 
     protected void sort() {
         hashCodeValid = false;
+        invalidateVariableIndex();
         Arrays.sort(elements);
     }
 
@@ -138,28 +140,265 @@ public class BooleanClause extends ABooleanAssignment implements IClause<Integer
         return this;
     }
 
+    /**
+     * {@return the sorted union of the given sorted literal arrays}
+     * Like {@link #addAll(int...)}, all elements of the first array are kept and only those elements of the second
+     * array are added that are not contained in the first one.
+     * Thus, duplicates are only removed across both arrays, not within either of them.
+     *
+     * @param literals1 the first sorted literal array
+     * @param literals2 the second sorted literal array
+     */
+    public static int[] union(int[] literals1, int[] literals2) {
+        final int[] union = new int[literals1.length + literals2.length];
+        int i = 0, j = 0, k = 0;
+        while (i < literals1.length && j < literals2.length) {
+            if (literals1[i] < literals2[j]) {
+                union[k++] = literals1[i++];
+            } else if (literals1[i] > literals2[j]) {
+                union[k++] = literals2[j++];
+            } else {
+                j++;
+            }
+        }
+        System.arraycopy(literals1, i, union, k, literals1.length - i);
+        k += literals1.length - i;
+        System.arraycopy(literals2, j, union, k, literals2.length - j);
+        k += literals2.length - j;
+        return k == union.length ? union : Arrays.copyOf(union, k);
+    }
+
+    /**
+     * {@return a copy of the given sorted literal array without duplicates}
+     *
+     * @param literals the sorted literal array
+     */
+    public static int[] distinct(int[] literals) {
+        int k = 0;
+        final int[] distinct = new int[literals.length];
+        for (int literal : literals) {
+            if (k == 0 || distinct[k - 1] != literal) {
+                distinct[k++] = literal;
+            }
+        }
+        return k == distinct.length ? distinct : Arrays.copyOf(distinct, k);
+    }
+
+    /**
+     * {@return all elements of the first sorted literal array that are contained in the second one, in order}
+     *
+     * @param literals1 the first sorted literal array
+     * @param literals2 the second sorted literal array
+     */
+    public static int[] intersection(int[] literals1, int[] literals2) {
+        final int[] intersection = new int[literals1.length];
+        int i = 0, j = 0, k = 0;
+        while (i < literals1.length && j < literals2.length) {
+            if (literals1[i] < literals2[j]) {
+                i = gallop(literals1, i + 1, literals2[j]);
+            } else if (literals1[i] > literals2[j]) {
+                j = gallop(literals2, j + 1, literals1[i]);
+            } else {
+                intersection[k++] = literals1[i++];
+            }
+        }
+        return k == intersection.length ? intersection : Arrays.copyOf(intersection, k);
+    }
+
+    /**
+     * {@return all elements of the first sorted literal array that are not contained in the second one, in order}
+     *
+     * @param literals1 the first sorted literal array
+     * @param literals2 the second sorted literal array
+     */
+    public static int[] difference(int[] literals1, int[] literals2) {
+        final int[] difference = new int[literals1.length];
+        int i = 0, j = 0, k = 0;
+        while (i < literals1.length) {
+            if (j == literals2.length) {
+                System.arraycopy(literals1, i, difference, k, literals1.length - i);
+                k += literals1.length - i;
+                break;
+            }
+            if (literals1[i] < literals2[j]) {
+                final int next = gallop(literals1, i + 1, literals2[j]);
+                System.arraycopy(literals1, i, difference, k, next - i);
+                k += next - i;
+                i = next;
+            } else if (literals1[i] > literals2[j]) {
+                j = gallop(literals2, j + 1, literals1[i]);
+            } else {
+                i++;
+            }
+        }
+        return k == difference.length ? difference : Arrays.copyOf(difference, k);
+    }
+
+    /**
+     * {@return whether every element of the second sorted literal array is contained in the first one}
+     *
+     * @param literals1 the first sorted literal array
+     * @param literals2 the second sorted literal array
+     */
+    public static boolean containsAll(int[] literals1, int[] literals2) {
+        int i = 0;
+        for (int literal : literals2) {
+            i = gallop(literals1, i, literal);
+            if (i == literals1.length || literals1[i] != literal) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the given sorted literal array contains complementary literals}
+     *
+     * @param literals the sorted literal array
+     */
+    public static boolean isTautology(int[] literals) {
+        int i = 0, j = literals.length - 1;
+        while (i < j && literals[i] < 0 && literals[j] > 0) {
+            final int negative = -literals[i];
+            if (negative == literals[j]) {
+                return true;
+            } else if (negative > literals[j]) {
+                i++;
+            } else {
+                j--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the index of the first element in the given sorted array at or after the given index
+     * that is not smaller than the given key, or the length of the array if there is none}
+     * Uses exponential search, so skipping few elements takes constant time and skipping many elements
+     * takes logarithmic time.
+     */
+    private static int gallop(int[] literals, int from, int key) {
+        int low = from;
+        int bound = 1;
+        while (low < literals.length && literals[low] < key) {
+            from = low + 1;
+            low += bound;
+            bound <<= 1;
+        }
+        int high = Math.min(low, literals.length);
+        while (from < high) {
+            final int middle = (from + high) >>> 1;
+            if (literals[middle] < key) {
+                from = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * {@return the union of this clause and the given clause}
+     *
+     * @param other the other clause
+     */
+    public BooleanClause union(BooleanClause other) {
+        return new BooleanClause(union(elements, other.elements), false);
+    }
+
+    /**
+     * {@return all literals of this clause that are contained in the given clause}
+     *
+     * @param other the other clause
+     */
+    public BooleanClause intersection(BooleanClause other) {
+        return new BooleanClause(intersection(elements, other.elements), false);
+    }
+
+    /**
+     * {@return all literals of this clause that are not contained in the given clause}
+     *
+     * @param other the other clause
+     */
+    public BooleanClause difference(BooleanClause other) {
+        return new BooleanClause(difference(elements, other.elements), false);
+    }
+
+    /**
+     * {@return whether all literals of the given clause are contained in this clause}
+     *
+     * @param other the other clause
+     */
+    public boolean containsAll(BooleanClause other) {
+        return containsAll(elements, other.elements);
+    }
+
+    /**
+     * {@return whether this clause subsumes the given clause; that is, all literals of this clause are contained in
+     * the given clause}
+     *
+     * @param other the other clause
+     */
+    public boolean subsumes(BooleanClause other) {
+        return containsAll(other.elements, elements);
+    }
+
+    /**
+     * {@return whether this clause contains complementary literals}
+     */
+    public boolean isTautology() {
+        return isTautology(elements);
+    }
+
+    /**
+     * {@return the resolvent of this clause and the given clause on the given literal, or an empty result if the
+     * resolvent is a tautology}
+     *
+     * @param other the other clause, which must contain the negation of the given literal
+     * @param literal a literal contained in this clause
+     * @throws IllegalArgumentException if this clause does not contain the literal or the other clause does not
+     *         contain its negation
+     */
+    public Result<BooleanClause> resolve(BooleanClause other, int literal) {
+        if (indexOf(literal) < 0 || other.indexOf(-literal) < 0) {
+            throw new IllegalArgumentException(String.format("Cannot resolve %s and %s on %d", this, other, literal));
+        }
+        final int[] resolvent =
+                union(difference(elements, new int[] {literal}), difference(other.elements, new int[] {-literal}));
+        return isTautology(resolvent) ? Result.empty() : Result.of(new BooleanClause(resolvent, false));
+    }
+
     @Override
     public BooleanClause addAll(ABooleanAssignment integers) {
+        if (integers instanceof BooleanClause) {
+            return union((BooleanClause) integers);
+        }
         return new BooleanClause(addAll(integers.get()));
     }
 
     @Override
     public BooleanClause retainAll(ABooleanAssignment integers) {
+        if (integers instanceof BooleanClause) {
+            return intersection((BooleanClause) integers);
+        }
         return new BooleanClause(retainAll(integers.get()));
     }
 
     @Override
     public BooleanClause retainAllVariables(ABooleanAssignment integers) {
-        return new BooleanClause(retainAllVariables(integers.get()));
+        return new BooleanClause(retainAllVariables(getVariables(integers)));
     }
 
     @Override
     public BooleanClause removeAll(ABooleanAssignment integers) {
+        if (integers instanceof BooleanClause) {
+            return difference((BooleanClause) integers);
+        }
         return new BooleanClause(removeAll(integers.get()));
     }
 
     @Override
     public BooleanClause removeAllVariables(ABooleanAssignment integers) {
-        return new BooleanClause(removeAllVariables(integers.get()));
+        return new BooleanClause(removeAllVariables(getVariables(integers)));
     }
 }
@@ -0,0 +1,472 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.data.Range;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of Boolean clauses stored in one contiguous array.
+ * All literals of all clauses are stored in a single array, and a second array
+ * holds the offset of each clause in the first one (i.e., clause {@code i}
+ * consists of the literals from {@code getStart(i)} inclusive to
+ * {@code getEnd(i)} exclusive). As for {@link BooleanClause}, the literals of
+ * each clause are sorted in ascending order and no literal is 0.
+ * Compared to a {@link BooleanClauseList}, this avoids one object and one array
+ * per clause, which is useful for large formulas.
+ * Clauses can be accessed without copying through {@link ClauseView views} or
+ * {@link #forEach(IClauseConsumer)}.
+ */
+public class BooleanClauseArena implements Iterable<BooleanClauseArena.ClauseView> {
+
+    /**
+     * Consumes clauses of a {@link BooleanClauseArena} without copying them.
+     */
+    @FunctionalInterface
+    public interface IClauseConsumer {
+        /**
+         * Consumes a clause.
+         *
+         * @param index the index of the clause
+         * @param literals the literals of all clauses, must not be modified
+         * @param start the index of the first literal of the clause (inclusive)
+         * @param end the index of the last literal of the clause (exclusive)
+         */
+        void accept(int index, int[] literals, int start, int end);
+    }
+
+    /**
+     * A view on a single clause of a {@link BooleanClauseArena}.
+     */
+    public static class ClauseView {
+        private final BooleanClauseArena arena;
+        private final int index;
+
+        private ClauseView(BooleanClauseArena arena, int index) {
+            this.arena = arena;
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int size() {
+            return arena.offsets[index + 1] - arena.offsets[index];
+        }
+
+        /**
+         * {@return the literal at the given position in this clause}
+         *
+         * @param position the position
+         */
+        public int get(int position) {
+            if (position < 0 || position >= size()) {
+                throw new IndexOutOfBoundsException(position);
+            }
+            return arena.literals[arena.offsets[index] + position];
+        }
+
+        public boolean contains(int literal) {
+            return Arrays.binarySearch(arena.literals, arena.offsets[index], arena.offsets[index + 1], literal) >= 0;
+        }
+
+        public int[] copy() {
+            return Arrays.copyOfRange(arena.literals, arena.offsets[index], arena.offsets[index + 1]);
+        }
+
+        public BooleanClause toClause() {
+            return new BooleanClause(copy(), false);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ClauseView[%s]", Arrays.toString(copy()));
+        }
+    }
+
+    private int variableCount;
+    private int[] literals;
+    private int[] offsets;
+    private int clauseCount;
+    private int literalCount;
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param variableCount the number of variables
+     */
+    public BooleanClauseArena(int variableCount) {
+        this(variableCount, 16, 64);
+    }
+
+    /**
+     * Creates an empty arena.
+     *
+     * @param variableCount the number of variables
+     * @param clauseCapacity the number of clauses to reserve memory for
+     * @param literalCapacity the number of literals to reserve memory for
+     */
+    public BooleanClauseArena(int variableCount, int clauseCapacity, int literalCapacity) {
+        this.variableCount = variableCount;
+        literals = new int[Math.max(literalCapacity, 1)];
+        offsets = new int[Math.max(clauseCapacity, 1) + 1];
+    }
+
+    /**
+     * Creates an arena with the same clauses as the given clause list.
+     *
+     * @param clauseList the clause list
+     */
+    public BooleanClauseArena(BooleanClauseList clauseList) {
+        this(clauseList.getVariableCount(), clauseList.size(), countLiterals(clauseList));
+        for (BooleanClause clause : clauseList.getAll()) {
+            add(clause);
+        }
+    }
+
+    public BooleanClauseArena(BooleanClauseArena other) {
+        variableCount = other.variableCount;
+        clauseCount = other.clauseCount;
+        literalCount = other.literalCount;
+        literals = Arrays.copyOf(other.literals, Math.max(other.literalCount, 1));
+        offsets = Arrays.copyOf(other.offsets, other.clauseCount + 1);
+    }
+
+    private static int countLiterals(BooleanClauseList clauseList) {
+        int count = 0;
+        for (BooleanClause clause : clauseList.getAll()) {
+            count += clause.size();
+        }
+        return count;
+    }
+
+    public void setVariableCount(int variableCount) {
+        this.variableCount = variableCount;
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public Range getVariableRange() {
+        return Range.of(1, getVariableCount());
+    }
+
+    /**
+     * {@return the number of clauses in this arena}
+     */
+    public int size() {
+        return clauseCount;
+    }
+
+    public boolean isEmpty() {
+        return clauseCount == 0;
+    }
+
+    /**
+     * {@return the number of literals of all clauses in this arena}
+     */
+    public int getLiteralCount() {
+        return literalCount;
+    }
+
+    /**
+     * {@return the backing literal array of this arena}
+     * Only the first {@link #getLiteralCount()} elements are valid. The returned
+     * array must not be modified and is replaced when the arena grows.
+     */
+    public int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * {@return the index of the first literal of the given clause in {@link #getLiterals()}}
+     *
+     * @param index the index of the clause
+     */
+    public int getStart(int index) {
+        return offsets[checkedIndex(index)];
+    }
+
+    /**
+     * {@return the index after the last literal of the given clause in {@link #getLiterals()}}
+     *
+     * @param index the index of the clause
+     */
+    public int getEnd(int index) {
+        return offsets[checkedIndex(index) + 1];
+    }
+
+    /**
+     * {@return the number of literals of the given clause}
+     *
+     * @param index the index of the clause
+     */
+    public int getClauseSize(int index) {
+        return offsets[checkedIndex(index) + 1] - offsets[index];
+    }
+
+    private int checkedIndex(int index) {
+        if (index < 0 || index >= clauseCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("%d is out of range for %d clauses", index, clauseCount));
+        }
+        return index;
+    }
+
+    /**
+     * {@return a view on the given clause}
+     *
+     * @param index the index of the clause
+     */
+    public ClauseView getClause(int index) {
+        return new ClauseView(this, checkedIndex(index));
+    }
+
+    /**
+     * Passes all clauses to the given consumer in order, without creating any objects.
+     *
+     * @param consumer the consumer
+     */
+    public void forEach(IClauseConsumer consumer) {
+        for (int i = 0; i < clauseCount; i++) {
+            consumer.accept(i, literals, offsets[i], offsets[i + 1]);
+        }
+    }
+
+    @Override
+    public Iterator<ClauseView> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < clauseCount;
+            }
+
+            @Override
+            public ClauseView next() {
+                if (index >= clauseCount) {
+                    throw new NoSuchElementException();
+                }
+                return new ClauseView(BooleanClauseArena.this, index++);
+            }
+        };
+    }
+
+    /**
+     * Adds a clause with the given literals.
+     * The given array is copied and not modified.
+     *
+     * @param clause the literals of the clause
+     */
+    public void add(int... clause) {
+        add(clause, 0, clause.length);
+    }
+
+    /**
+     * Adds a clause with the given literals.
+     * The given array is copied and not modified.
+     *
+     * @param clause an array containing the literals of the clause
+     * @param start the index of the first literal (inclusive)
+     * @param end the index of the last literal (exclusive)
+     */
+    public void add(int[] clause, int start, int end) {
+        checkNoOpenClause();
+        for (int i = start; i < end; i++) {
+            if (clause[i] == 0) {
+                throw new IllegalArgumentException("Literal must not be 0");
+            }
+        }
+        ensureLiteralCapacity(literalCount + (end - start));
+        System.arraycopy(clause, start, literals, literalCount, end - start);
+        Arrays.sort(literals, literalCount, literalCount + (end - start));
+        literalCount += end - start;
+        closeClause();
+    }
+
+    /**
+     * Adds the given clause, which is already sorted.
+     *
+     * @param clause the clause
+     */
+    public void add(BooleanClause clause) {
+        checkNoOpenClause();
+        final int[] clauseLiterals = clause.get();
+        ensureLiteralCapacity(literalCount + clauseLiterals.length);
+        System.arraycopy(clauseLiterals, 0, literals, literalCount, clauseLiterals.length);
+        literalCount += clauseLiterals.length;
+        closeClause();
+    }
+
+    /**
+     * Appends all clauses of the given arena to this arena, followed by the literals of the clause currently being
+     * built in the given arena, if any.
+     * If a clause is currently being built in this arena, it is continued by the first clause of the given arena.
+     * Allows to concatenate arenas that were filled independently from consecutive parts of an input.
+     *
+     * @param other the other arena
+     */
+    public void addAll(BooleanClauseArena other) {
+        final int openClauseStart = offsets[clauseCount];
+        final int literalOffset = literalCount;
+        ensureLiteralCapacity(literalCount + other.literalCount);
+        System.arraycopy(other.literals, 0, literals, literalCount, other.literalCount);
+        literalCount += other.literalCount;
+        if (other.clauseCount > 0) {
+            if (clauseCount + other.clauseCount + 1 > offsets.length) {
+                offsets = Arrays.copyOf(
+                        offsets, Math.max(clauseCount + other.clauseCount + 1, offsets.length + (offsets.length >> 1)));
+            }
+            for (int i = 1; i <= other.clauseCount; i++) {
+                offsets[clauseCount + i] = literalOffset + other.offsets[i];
+            }
+            if (literalOffset > openClauseStart) {
+                Arrays.sort(literals, openClauseStart, offsets[clauseCount + 1]);
+            }
+            clauseCount += other.clauseCount;
+        }
+    }
+
+    /**
+     * Appends a literal to the clause currently being built.
+     * The clause is added to this arena by {@link #endClause()}.
+     * Allows to fill the arena directly from a tokenizer without intermediate arrays.
+     *
+     * @param literal the literal
+     */
+    public void addLiteral(int literal) {
+        if (literal == 0) {
+            throw new IllegalArgumentException("Literal must not be 0");
+        }
+        ensureLiteralCapacity(literalCount + 1);
+        literals[literalCount++] = literal;
+    }
+
+    /**
+     * Adds the clause consisting of all literals passed to {@link #addLiteral(int)}
+     * since the last clause was added. The clause may be empty.
+     */
+    public void endClause() {
+        final int start = offsets[clauseCount];
+        for (int i = start; i < literalCount; i++) {
+            if (literals[i] == 0) {
+                throw new IllegalArgumentException("Literal must not be 0");
+            }
+        }
+        Arrays.sort(literals, start, literalCount);
+        closeClause();
+    }
+
+    /**
+     * {@return the number of literals passed to {@link #addLiteral(int)} that do not belong to a clause yet}
+     */
+    public int getOpenClauseSize() {
+        return literalCount - offsets[clauseCount];
+    }
+
+    private void checkNoOpenClause() {
+        if (literalCount != offsets[clauseCount]) {
+            throw new IllegalStateException("A clause is currently being built");
+        }
+    }
+
+    private void closeClause() {
+        if (clauseCount + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(clauseCount + 2, offsets.length + (offsets.length >> 1)));
+        }
+        offsets[++clauseCount] = literalCount;
+    }
+
+    private void ensureLiteralCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new OutOfMemoryError();
+        }
+        if (capacity > literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(capacity, literals.length + (literals.length >> 1)));
+        }
+    }
+
+    /**
+     * Reduces the backing arrays of this arena to the actually used size.
+     */
+    public void trimToSize() {
+        checkNoOpenClause();
+        literals = Arrays.copyOf(literals, Math.max(literalCount, 1));
+        offsets = Arrays.copyOf(offsets, clauseCount + 1);
+    }
+
+    /**
+     * Removes all clauses from this arena.
+     */
+    public void clear() {
+        clauseCount = 0;
+        literalCount = 0;
+    }
+
+    /**
+     * {@return a clause list with the same clauses as this arena}
+     */
+    public BooleanClauseList toBooleanClauseList() {
+        final BooleanClauseList clauseList = new BooleanClauseList(clauseCount, variableCount);
+        for (int i = 0; i < clauseCount; i++) {
+            clauseList.add(new BooleanClause(Arrays.copyOfRange(literals, offsets[i], offsets[i + 1]), false));
+        }
+        return clauseList;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BooleanClauseArena that = (BooleanClauseArena) o;
+        return variableCount == that.variableCount
+                && clauseCount == that.clauseCount
+                && Arrays.equals(offsets, 0, clauseCount + 1, that.offsets, 0, clauseCount + 1)
+                && Arrays.equals(literals, 0, literalCount, that.literals, 0, literalCount);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 31 * variableCount + clauseCount;
+        for (int i = 0; i <= clauseCount; i++) {
+            hashCode = 31 * hashCode + offsets[i];
+        }
+        for (int i = 0; i < literalCount; i++) {
+            hashCode = 31 * hashCode + literals[i];
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BooleanClauseArena[");
+        for (int i = 0; i < clauseCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(Arrays.toString(Arrays.copyOfRange(literals, offsets[i], offsets[i + 1])));
+        }
+        return sb.append(']').toString();
+    }
+}
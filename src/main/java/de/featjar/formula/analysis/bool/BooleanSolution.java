@@ -84,6 +84,7 @@ public class BooleanSolution extends ABooleanAssignment implements ISolution<Int
 
     protected void sort() {
         hashCodeValid = false;
+        invalidateVariableIndex();
         final int[] sortedIntegers = new int[elements.length];
         Arrays.stream(elements)
                 .filter(integer -> integer != 0)
@@ -28,8 +28,9 @@ import de.featjar.formula.structure.IExpression;
 import de.featjar.formula.structure.formula.IFormula;
 import de.featjar.formula.structure.formula.connective.Reference;
 import de.featjar.formula.structure.formula.predicate.Literal;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * Transforms a formula, which is assumed to be in strict conjunctive normal form, into a {@link BooleanClauseList}.
@@ -38,6 +39,8 @@ import java.util.Objects;
  */
 public class ComputeBooleanClauseList extends ComputeBooleanRepresentation<IFormula> {
 
+    private static final int CHUNK_SIZE = 4096;
+
     /**
      * {@return a formula, which is assumed to be in strict conjunctive normal form, into an indexed CNF representation}
      * @param formula the formula in strict CNF
@@ -51,38 +54,133 @@ public class ComputeBooleanClauseList extends ComputeBooleanRepresentation<IForm
         return toBooleanClauseList(formula, variableMap);
     }
 
+    /**
+     * {@return a formula, which is assumed to be in strict conjunctive normal form, into an indexed CNF representation}
+     * Clauses are converted sequentially; use {@link #toBooleanClauseList(IFormula, VariableMap, boolean)} to convert
+     * large formulas in parallel.
+     * @param formula the formula in strict CNF
+     * @param variableMap the variable map corresponding to that formula
+     */
     public static Result<BooleanClauseList> toBooleanClauseList(IFormula formula, VariableMap variableMap) {
-        final BooleanClauseList clauseList = new BooleanClauseList(variableMap.getVariableCount());
-        formula.getChildren().stream()
-                .map(expression -> getClause((IFormula) expression, variableMap))
-                .filter(Objects::nonNull)
-                .forEach(clauseList::add);
+        return toBooleanClauseList(formula, variableMap, false);
+    }
+
+    /**
+     * {@return a formula, which is assumed to be in strict conjunctive normal form, into an indexed CNF representation}
+     * Clauses are converted in chunks, optionally in parallel, and keep their order.
+     * Each variable is looked up in the variable map only once per chunk.
+     * Converting in parallel uses the common fork-join pool and only pays off for formulas with many clauses.
+     * @param formula the formula in strict CNF
+     * @param variableMap the variable map corresponding to that formula
+     * @param parallel whether to convert chunks in parallel
+     */
+    public static Result<BooleanClauseList> toBooleanClauseList(
+            IFormula formula, VariableMap variableMap, boolean parallel) {
+        final List<? extends IExpression> clauses = formula.getChildren();
+        final int clauseCount = clauses.size();
+        final BooleanClause[] convertedClauses = new BooleanClause[clauseCount];
+        IntStream chunks = IntStream.range(0, (clauseCount + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (parallel) {
+            chunks = chunks.parallel();
+        }
+        chunks.forEach(chunk -> {
+            final IdentityHashMap<IExpression, Integer> variables = new IdentityHashMap<>();
+            final int end = Math.min(clauseCount, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                final int[] literals = getLiterals((IFormula) clauses.get(i), variableMap, variables);
+                if (literals != null) {
+                    convertedClauses[i] = new BooleanClause(literals);
+                }
+            }
+        });
+        final BooleanClauseList clauseList = new BooleanClauseList(clauseCount, variableMap.getVariableCount());
+        for (BooleanClause clause : convertedClauses) {
+            if (clause != null) {
+                clauseList.add(clause);
+            }
+        }
         return Result.of(clauseList); // TODO: better error handling when index cannot be found
     }
 
+    /**
+     * {@return a formula, which is assumed to be in strict conjunctive normal form, as a clause arena}
+     * @param formula the formula in strict CNF
+     */
+    public static Result<BooleanClauseArena> toBooleanClauseArena(IFormula formula) {
+        VariableMap variableMap = VariableMap.of(formula);
+        if (formula instanceof Reference) {
+            formula = ((Reference) formula).getExpression();
+        }
+        return toBooleanClauseArena(formula, variableMap);
+    }
+
+    /**
+     * {@return a formula, which is assumed to be in strict conjunctive normal form, as a clause arena}
+     * In contrast to {@link #toBooleanClauseList(IFormula, VariableMap)}, no object is created per clause.
+     * @param formula the formula in strict CNF
+     * @param variableMap the variable map corresponding to that formula
+     */
+    public static Result<BooleanClauseArena> toBooleanClauseArena(IFormula formula, VariableMap variableMap) {
+        final List<? extends IExpression> clauses = formula.getChildren();
+        final BooleanClauseArena clauseArena =
+                new BooleanClauseArena(variableMap.getVariableCount(), clauses.size(), clauses.size() * 4);
+        final IdentityHashMap<IExpression, Integer> variables = new IdentityHashMap<>();
+        for (IExpression clause : clauses) {
+            final int[] literals = getLiterals((IFormula) clause, variableMap, variables);
+            if (literals != null) {
+                clauseArena.add(literals);
+            }
+        }
+        return Result.of(clauseArena);
+    }
+
+    /**
+     * {@return the given clause as a Boolean clause, or null if the clause is satisfied}
+     * @param formula the clause, a literal or a disjunction of literals
+     * @param variableMap the variable map corresponding to that clause
+     */
     protected static BooleanClause getClause(IFormula formula, VariableMap variableMap) {
+        final int[] literals = getLiterals(formula, variableMap, new IdentityHashMap<>());
+        return literals == null ? null : new BooleanClause(literals);
+    }
+
+    private static int getLiteral(
+            Literal literal, VariableMap variableMap, IdentityHashMap<IExpression, Integer> variables) {
+        final IExpression variable = literal.getExpression();
+        Integer index = variables.get(variable);
+        if (index == null) {
+            index = variableMap.get(variable.getName()).orElseThrow();
+            variables.put(variable, index);
+        }
+        return literal.isPositive() ? index : -index;
+    }
+
+    /**
+     * {@return the unsorted literals of the given clause, or null if the clause is satisfied}
+     */
+    private static int[] getLiterals(
+            IFormula formula, VariableMap variableMap, IdentityHashMap<IExpression, Integer> variables) {
         if (formula instanceof Literal) {
-            final Literal literal = (Literal) formula;
-            final int index = variableMap.get(literal.getExpression().getName()).orElseThrow();
-            return new BooleanClause(literal.isPositive() ? index : -index);
-        } else {
-            final List<? extends IExpression> children = formula.getChildren();
-            if (children.stream().anyMatch(literal -> literal == Expressions.True)) {
+            return new int[] {getLiteral((Literal) formula, variableMap, variables)};
+        }
+        final List<? extends IExpression> children = formula.getChildren();
+        int literalCount = 0;
+        for (IExpression literal : children) {
+            if (literal == Expressions.True) {
                 return null;
-            } else {
-                final int[] literals = children.stream()
-                        .filter(literal -> literal != Expressions.False)
-                        .filter(literal -> literal instanceof Literal)
-                        .mapToInt(literal -> {
-                            final int variable = variableMap
-                                    .get(((Literal) literal).getExpression().getName())
-                                    .orElseThrow();
-                            return ((Literal) literal).isPositive() ? variable : -variable;
-                        })
-                        .toArray();
-                return new BooleanClause(literals);
+            }
+            if (literal instanceof Literal) {
+                literalCount++;
+            }
+        }
+        final int[] literals = new int[literalCount];
+        int i = 0;
+        for (IExpression literal : children) {
+            if (literal instanceof Literal) {
+                literals[i++] = getLiteral((Literal) literal, variableMap, variables);
             }
         }
+        return literals;
     }
 
     public ComputeBooleanClauseList(IComputation<IFormula> cnfFormula) {
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Removes subsumed clauses from a {@link BooleanClauseList} and, optionally,
+ * strengthens clauses by self-subsuming resolution. A clause subsumes another
+ * clause if all of its literals are contained in the other clause, which makes
+ * the other clause redundant. If a clause {@code C ∨ l} and a clause
+ * {@code D ∨ ¬l} with {@code C ⊆ D} exist, the literal {@code ¬l} can be
+ * removed from the second clause. The result is equivalent to the input.
+ * Duplicate literals and tautologies are removed as well.
+ * Candidates are found with occurrence lists and filtered with 64-bit clause
+ * signatures before the actual subset test.
+ */
+public class ComputeSubsumptionFreeClauseList extends AComputation<BooleanClauseList> {
+    public static final Dependency<BooleanClauseList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+
+    /**
+     * Determines whether this computation strengthens clauses by self-subsuming resolution.
+     */
+    public static final Dependency<Boolean> IS_SELF_SUBSUMING_RESOLUTION = Dependency.newDependency(Boolean.class);
+
+    /**
+     * Creates a new subsumption computation.
+     *
+     * @param booleanClauseList the input clause list computation
+     */
+    public ComputeSubsumptionFreeClauseList(IComputation<BooleanClauseList> booleanClauseList) {
+        super(booleanClauseList, Computations.of(Boolean.TRUE));
+    }
+
+    protected ComputeSubsumptionFreeClauseList(ComputeSubsumptionFreeClauseList other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BooleanClauseList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanClauseList clauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        boolean isSelfSubsumingResolution = IS_SELF_SUBSUMING_RESOLUTION.get(dependencyList);
+        return Result.of(reduce(clauseList, isSelfSubsumingResolution));
+    }
+
+    /**
+     * {@return a clause list without subsumed clauses that is equivalent to the given one}
+     * The remaining clauses keep their relative order.
+     *
+     * @param clauseList the clause list
+     * @param isSelfSubsumingResolution whether to strengthen clauses by self-subsuming resolution
+     */
+    public static BooleanClauseList reduce(BooleanClauseList clauseList, boolean isSelfSubsumingResolution) {
+        return new Reducer(clauseList).reduce(isSelfSubsumingResolution);
+    }
+
+    /**
+     * {@return a 64-bit signature of the given literals}
+     * If a clause is a subset of another one, its signature is a subset of the other's signature.
+     *
+     * @param literals the literals
+     */
+    public static long computeSignature(int[] literals) {
+        long signature = 0;
+        for (int literal : literals) {
+            signature |= computeSignature(literal);
+        }
+        return signature;
+    }
+
+    private static long computeSignature(int literal) {
+        return 1L << ((literal * 0x9E3779B9) >>> 26);
+    }
+
+    private static int literalIndex(int literal) {
+        return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+    }
+
+    private static final class Reducer {
+        private final int variableCount;
+        private final int[][] clauses;
+        private final long[] signatures;
+        private final boolean[] removed;
+        /** Clauses containing each literal, indexed by {@link #literalIndex(int)}. May contain stale entries. */
+        private final int[][] occurrences;
+
+        private final int[] occurrenceCounts;
+
+        private final int[] queue;
+        private int queueHead;
+        private int queueSize;
+        private final boolean[] queued;
+
+        private Reducer(BooleanClauseList clauseList) {
+            final List<BooleanClause> clauseObjects = clauseList.getAll();
+            int maxVariable = clauseList.getVariableCount();
+            for (BooleanClause clause : clauseObjects) {
+                for (int literal : clause.get()) {
+                    maxVariable = Math.max(maxVariable, Math.abs(literal));
+                }
+            }
+            variableCount = clauseList.getVariableCount();
+            clauses = new int[clauseObjects.size()][];
+            signatures = new long[clauses.length];
+            removed = new boolean[clauses.length];
+            occurrences = new int[(maxVariable + 1) << 1][];
+            occurrenceCounts = new int[occurrences.length];
+            queue = new int[Math.max(clauses.length, 1)];
+            queued = new boolean[clauses.length];
+            for (int i = 0; i < clauses.length; i++) {
+                final int[] literals = BooleanClause.distinct(clauseObjects.get(i).get());
+                clauses[i] = literals;
+                if (BooleanClause.isTautology(literals)) {
+                    removed[i] = true;
+                    continue;
+                }
+                signatures[i] = computeSignature(literals);
+                for (int literal : literals) {
+                    addOccurrence(literal, i);
+                }
+            }
+            final Integer[] order = new Integer[clauses.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(clauses[a].length, clauses[b].length));
+            for (int clause : order) {
+                if (!removed[clause]) {
+                    enqueue(clause);
+                }
+            }
+        }
+
+        private void addOccurrence(int literal, int clause) {
+            final int index = literalIndex(literal);
+            int[] list = occurrences[index];
+            final int count = occurrenceCounts[index];
+            if (list == null) {
+                list = new int[4];
+                occurrences[index] = list;
+            } else if (count == list.length) {
+                list = Arrays.copyOf(list, count << 1);
+                occurrences[index] = list;
+            }
+            list[count] = clause;
+            occurrenceCounts[index] = count + 1;
+        }
+
+        private void enqueue(int clause) {
+            if (!queued[clause]) {
+                // each clause is queued at most once, so the queue never overflows
+                queued[clause] = true;
+                queue[(queueHead + queueSize++) % queue.length] = clause;
+            }
+        }
+
+        private int dequeue() {
+            final int clause = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+            queued[clause] = false;
+            return clause;
+        }
+
+        /**
+         * Removes stale entries from the occurrence list of the given literal and returns its length.
+         */
+        private int compactOccurrences(int literal) {
+            final int index = literalIndex(literal);
+            final int[] list = occurrences[index];
+            if (list == null) {
+                return 0;
+            }
+            int kept = 0;
+            for (int i = 0; i < occurrenceCounts[index]; i++) {
+                final int clause = list[i];
+                if (!removed[clause] && Arrays.binarySearch(clauses[clause], literal) >= 0) {
+                    list[kept++] = clause;
+                }
+            }
+            occurrenceCounts[index] = kept;
+            return kept;
+        }
+
+        private BooleanClauseList reduce(boolean isSelfSubsumingResolution) {
+            while (queueSize > 0) {
+                final int clause = dequeue();
+                if (removed[clause]) {
+                    continue;
+                }
+                removeSubsumed(clause);
+                if (isSelfSubsumingResolution) {
+                    strengthen(clause);
+                }
+            }
+            final BooleanClauseList reducedClauseList = new BooleanClauseList(variableCount);
+            for (int i = 0; i < clauses.length; i++) {
+                if (!removed[i]) {
+                    reducedClauseList.add(new BooleanClause(clauses[i], false));
+                }
+            }
+            return reducedClauseList;
+        }
+
+        /**
+         * Removes all clauses that are subsumed by the given clause.
+         */
+        private void removeSubsumed(int clause) {
+            final int[] literals = clauses[clause];
+            if (literals.length == 0) {
+                // the empty clause subsumes every other clause
+                for (int other = 0; other < clauses.length; other++) {
+                    removed[other] = other != clause;
+                }
+                return;
+            }
+            int bestLiteral = literals[0];
+            int bestCount = Integer.MAX_VALUE;
+            for (int literal : literals) {
+                final int count = compactOccurrences(literal);
+                if (count < bestCount) {
+                    bestCount = count;
+                    bestLiteral = literal;
+                }
+            }
+            final long signature = signatures[clause];
+            final int[] list = occurrences[literalIndex(bestLiteral)];
+            for (int i = 0; i < bestCount; i++) {
+                final int other = list[i];
+                if (other != clause
+                        && !removed[other]
+                        && clauses[other].length >= literals.length
+                        && (signature & ~signatures[other]) == 0
+                        && BooleanClause.containsAll(clauses[other], literals)) {
+                    removed[other] = true;
+                }
+            }
+        }
+
+        /**
+         * Removes the negation of a literal of the given clause from all clauses that contain the rest of the
+         * given clause.
+         */
+        private void strengthen(int clause) {
+            final int[] literals = clauses[clause];
+            for (int literal : literals) {
+                final long signature =
+                        (signatures[clause] & ~computeSignature(literal)) | computeSignature(-literal);
+                final int[] resolvent = literals.clone();
+                final int position = Arrays.binarySearch(resolvent, literal);
+                resolvent[position] = -literal;
+                Arrays.sort(resolvent);
+                final int count = compactOccurrences(-literal);
+                final int[] list = occurrences[literalIndex(-literal)];
+                for (int i = 0; i < count; i++) {
+                    final int other = list[i];
+                    if (!removed[other]
+                            && clauses[other].length >= literals.length
+                            && (signature & ~signatures[other]) == 0
+                            && BooleanClause.containsAll(clauses[other], resolvent)) {
+                        final int[] strengthened = BooleanClause.difference(clauses[other], new int[] {-literal});
+                        clauses[other] = strengthened;
+                        signatures[other] = computeSignature(strengthened);
+                        enqueue(other);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.transformer.TseitinTransformer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Eliminates variables from a {@link BooleanClauseList} by resolution (i.e.,
+ * the Davis-Putnam procedure). All clauses containing a variable are replaced
+ * by all non-tautological resolvents on this variable, which yields a clause
+ * list over the remaining variables that has exactly the projections of the
+ * original solutions as solutions (e.g., for slicing a feature model).
+ * Variables with fewer occurrences are eliminated first. Duplicate resolvents
+ * and resolvents that are subsumed by another clause are dropped, and clauses
+ * subsumed by a new resolvent are removed. A variable is not eliminated if it
+ * occurs more often than {@link #MAXIMUM_OCCURRENCES} in either polarity or if
+ * eliminating it would add more than {@link #MAXIMUM_CLAUSE_GROWTH} clauses.
+ * By default, as in bounded variable elimination, a variable is only eliminated
+ * if this does not increase the number of clauses. To eliminate all given
+ * variables regardless, pass {@link Integer#MAX_VALUE} for both limits.
+ * The variable map is adapted by removing the eliminated variables and
+ * renumbering the remaining ones consecutively. Variables without a name in
+ * the variable map cannot be renumbered, so they must be eliminated.
+ */
+public class ComputeVariableElimination extends AComputation<Pair<BooleanClauseList, VariableMap>> {
+    protected static final Dependency<Object> BOOLEAN_REPRESENTATION = Dependency.newDependency();
+
+    /**
+     * The indices of the variables to eliminate.
+     */
+    public static final Dependency<BooleanAssignment> VARIABLES = Dependency.newDependency(BooleanAssignment.class);
+
+    /**
+     * Determines the maximum number of positive or negative occurrences of a variable to eliminate.
+     */
+    public static final Dependency<Integer> MAXIMUM_OCCURRENCES = Dependency.newDependency(Integer.class);
+
+    /**
+     * Determines by how many clauses the clause list may grow when eliminating a single variable.
+     */
+    public static final Dependency<Integer> MAXIMUM_CLAUSE_GROWTH = Dependency.newDependency(Integer.class);
+
+    /**
+     * The default maximum number of positive or negative occurrences of a variable to eliminate.
+     * Bounds the number of resolution steps per variable.
+     */
+    public static final int DEFAULT_MAXIMUM_OCCURRENCES = 100;
+
+    /**
+     * The default maximum clause growth when eliminating a single variable.
+     */
+    public static final int DEFAULT_MAXIMUM_CLAUSE_GROWTH = 0;
+
+    /**
+     * Creates a new variable elimination computation.
+     *
+     * @param booleanRepresentation the input clause list and variable map computation
+     * @param variables the indices of the variables to eliminate
+     */
+    public ComputeVariableElimination(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            IComputation<BooleanAssignment> variables) {
+        super(
+                booleanRepresentation, //
+                variables, //
+                Computations.of(DEFAULT_MAXIMUM_OCCURRENCES), //
+                Computations.of(DEFAULT_MAXIMUM_CLAUSE_GROWTH));
+    }
+
+    protected ComputeVariableElimination(ComputeVariableElimination other) {
+        super(other);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<Pair<BooleanClauseList, VariableMap>> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation =
+                (Pair<BooleanClauseList, VariableMap>) BOOLEAN_REPRESENTATION.get(dependencyList);
+        BooleanAssignment variables = VARIABLES.get(dependencyList);
+        int maximumOccurrences = MAXIMUM_OCCURRENCES.get(dependencyList);
+        int maximumClauseGrowth = MAXIMUM_CLAUSE_GROWTH.get(dependencyList);
+        try {
+            return Result.of(eliminate(
+                    booleanRepresentation.getKey(),
+                    booleanRepresentation.getValue(),
+                    variables.get(),
+                    maximumOccurrences,
+                    maximumClauseGrowth));
+        } catch (IllegalArgumentException e) {
+            return Result.empty(e);
+        }
+    }
+
+    /**
+     * {@return the indices of all auxiliary variables introduced by the {@link TseitinTransformer}}
+     *
+     * @param variableMap the variable map
+     */
+    public static BooleanAssignment getAuxiliaryVariables(VariableMap variableMap) {
+        return new BooleanAssignment(variableMap.stream()
+                .filter(pair -> pair.getValue() != null
+                        && pair.getValue().startsWith(TseitinTransformer.AUXILIARY_VARIABLE_NAME_PREFIX))
+                .mapToInt(Pair::getKey)
+                .toArray());
+    }
+
+    /**
+     * Eliminates the given variables from the given clause list.
+     *
+     * @param clauseList the clause list
+     * @param variableMap the variable map of the clause list
+     * @param variables the indices of the variables to eliminate
+     * @param maximumOccurrences the maximum number of positive or negative occurrences of a variable to eliminate
+     * @param maximumClauseGrowth by how many clauses the clause list may grow when eliminating a single variable
+     * @return the reduced clause list and the adapted variable map
+     * @throws IllegalArgumentException if a variable without a name in the variable map remains in the clause list
+     */
+    public static Pair<BooleanClauseList, VariableMap> eliminate(
+            BooleanClauseList clauseList,
+            VariableMap variableMap,
+            int[] variables,
+            int maximumOccurrences,
+            int maximumClauseGrowth) {
+        final Eliminator eliminator = new Eliminator(clauseList, variableMap);
+        final boolean[] eliminated = eliminator.eliminate(variables, maximumOccurrences, maximumClauseGrowth);
+
+        final VariableMap adaptedVariableMap = VariableMap.empty();
+        final int[] newIndices = new int[eliminated.length];
+        variableMap.stream().forEach(pair -> {
+            final int index = pair.getKey();
+            if (pair.getValue() != null && (index >= eliminated.length || !eliminated[index])) {
+                final int newIndex = adaptedVariableMap.add(pair.getValue());
+                if (index < newIndices.length) {
+                    newIndices[index] = newIndex;
+                }
+            }
+        });
+        final BooleanClauseList reducedClauseList = new BooleanClauseList(adaptedVariableMap.getVariableCount());
+        for (int[] clause : eliminator.getClauses()) {
+            final int[] adaptedClause = new int[clause.length];
+            for (int i = 0; i < clause.length; i++) {
+                final int literal = clause[i];
+                final int newIndex = newIndices[Math.abs(literal)];
+                if (newIndex == 0) {
+                    throw new IllegalArgumentException(
+                            String.format("Variable %d has no name and was not eliminated", Math.abs(literal)));
+                }
+                adaptedClause[i] = literal > 0 ? newIndex : -newIndex;
+            }
+            reducedClauseList.add(new BooleanClause(adaptedClause));
+        }
+        return new Pair<>(
+                ComputeSubsumptionFreeClauseList.reduce(reducedClauseList, false), adaptedVariableMap);
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    private static int literalIndex(int literal) {
+        return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+    }
+
+    private static final class Eliminator {
+        private final List<int[]> clauses = new ArrayList<>();
+        private boolean[] removed = new boolean[16];
+        private final int maxVariable;
+        /** Clauses containing each literal, indexed by {@link #literalIndex(int)}. May contain stale entries. */
+        private final int[][] occurrences;
+
+        private final int[] occurrenceCounts;
+
+        private Eliminator(BooleanClauseList clauseList, VariableMap variableMap) {
+            int maxVariable = Math.max(clauseList.getVariableCount(), variableMap.maxIndex());
+            for (BooleanClause clause : clauseList.getAll()) {
+                for (int literal : clause.get()) {
+                    maxVariable = Math.max(maxVariable, Math.abs(literal));
+                }
+            }
+            this.maxVariable = maxVariable;
+            occurrences = new int[(maxVariable + 1) << 1][];
+            occurrenceCounts = new int[occurrences.length];
+            Arrays.fill(occurrences, EMPTY);
+            for (BooleanClause clause : clauseList.getAll()) {
+                final int[] literals = BooleanClause.distinct(clause.get());
+                if (!BooleanClause.isTautology(literals)) {
+                    addClause(literals);
+                }
+            }
+        }
+
+        private void addClause(int[] literals) {
+            final int clause = clauses.size();
+            clauses.add(literals);
+            if (clause == removed.length) {
+                removed = Arrays.copyOf(removed, clause << 1);
+            }
+            for (int literal : literals) {
+                final int index = literalIndex(literal);
+                int[] list = occurrences[index];
+                final int count = occurrenceCounts[index];
+                if (count == list.length) {
+                    list = Arrays.copyOf(list, Math.max(4, count << 1));
+                    occurrences[index] = list;
+                }
+                list[count] = clause;
+                occurrenceCounts[index] = count + 1;
+            }
+        }
+
+        /**
+         * Removes eliminated clauses from the occurrence list of the given literal and returns its length.
+         */
+        private int compactOccurrences(int literal) {
+            final int index = literalIndex(literal);
+            final int[] list = occurrences[index];
+            int kept = 0;
+            for (int i = 0; i < occurrenceCounts[index]; i++) {
+                if (!removed[list[i]]) {
+                    list[kept++] = list[i];
+                }
+            }
+            occurrenceCounts[index] = kept;
+            return kept;
+        }
+
+        private long getCost(int variable) {
+            return (long) compactOccurrences(variable) * compactOccurrences(-variable);
+        }
+
+        private boolean[] eliminate(int[] variables, int maximumOccurrences, int maximumClauseGrowth) {
+            final boolean[] eliminated = new boolean[maxVariable + 1];
+            final PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            for (int variable : variables) {
+                variable = Math.abs(variable);
+                if (variable != 0 && variable <= maxVariable) {
+                    queue.add(new long[] {getCost(variable), variable});
+                }
+            }
+            while (!queue.isEmpty()) {
+                final long[] entry = queue.poll();
+                final int variable = (int) entry[1];
+                if (eliminated[variable]) {
+                    continue;
+                }
+                final long cost = getCost(variable);
+                if (cost > entry[0] && !queue.isEmpty() && cost > queue.peek()[0]) {
+                    // occurrences changed since the variable was queued
+                    entry[0] = cost;
+                    queue.add(entry);
+                    continue;
+                }
+                if (eliminate(variable, maximumOccurrences, maximumClauseGrowth)) {
+                    eliminated[variable] = true;
+                }
+            }
+            return eliminated;
+        }
+
+        private boolean eliminate(int variable, int maximumOccurrences, int maximumClauseGrowth) {
+            final int positiveCount = compactOccurrences(variable);
+            final int negativeCount = compactOccurrences(-variable);
+            if (positiveCount > maximumOccurrences || negativeCount > maximumOccurrences) {
+                return false;
+            }
+            final int[] positiveClauses = Arrays.copyOf(occurrences[literalIndex(variable)], positiveCount);
+            final int[] negativeClauses = Arrays.copyOf(occurrences[literalIndex(-variable)], negativeCount);
+            final long maximumResolventCount = (long) positiveCount + negativeCount + maximumClauseGrowth;
+            final List<int[]> resolvents = new ArrayList<>();
+            final HashSet<BooleanClause> distinctResolvents = new HashSet<>();
+            final int[] positiveLiteral = {variable};
+            final int[] negativeLiteral = {-variable};
+            for (int positiveClause : positiveClauses) {
+                final int[] positiveRest = BooleanClause.difference(clauses.get(positiveClause), positiveLiteral);
+                for (int negativeClause : negativeClauses) {
+                    final int[] resolvent = BooleanClause.union(
+                            positiveRest, BooleanClause.difference(clauses.get(negativeClause), negativeLiteral));
+                    if (!BooleanClause.isTautology(resolvent)
+                            && !isSubsumed(resolvent)
+                            && distinctResolvents.add(new BooleanClause(resolvent, false))) {
+                        if (resolvents.size() >= maximumResolventCount) {
+                            return false;
+                        }
+                        resolvents.add(resolvent);
+                    }
+                }
+            }
+            for (int clause : positiveClauses) {
+                removed[clause] = true;
+            }
+            for (int clause : negativeClauses) {
+                removed[clause] = true;
+            }
+            // shorter resolvents first, so that they can subsume longer ones
+            resolvents.sort(Comparator.comparingInt(resolvent -> resolvent.length));
+            for (int[] resolvent : resolvents) {
+                if (!isSubsumed(resolvent)) {
+                    removeSubsumed(resolvent);
+                    addClause(resolvent);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@return whether a remaining clause is a subset of the given clause}
+         */
+        private boolean isSubsumed(int[] literals) {
+            for (int literal : literals) {
+                final int index = literalIndex(literal);
+                final int[] list = occurrences[index];
+                for (int i = 0; i < occurrenceCounts[index]; i++) {
+                    if (!removed[list[i]] && BooleanClause.containsAll(literals, clauses.get(list[i]))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Removes all remaining clauses that are supersets of the given clause.
+         */
+        private void removeSubsumed(int[] literals) {
+            if (literals.length == 0) {
+                return;
+            }
+            int rarestLiteral = literals[0];
+            int rarestCount = compactOccurrences(rarestLiteral);
+            for (int literal : literals) {
+                final int count = compactOccurrences(literal);
+                if (count < rarestCount) {
+                    rarestLiteral = literal;
+                    rarestCount = count;
+                }
+            }
+            final int[] list = occurrences[literalIndex(rarestLiteral)];
+            for (int i = 0; i < rarestCount; i++) {
+                if (BooleanClause.containsAll(clauses.get(list[i]), literals)) {
+                    removed[list[i]] = true;
+                }
+            }
+        }
+
+        private List<int[]> getClauses() {
+            final List<int[]> remainingClauses = new ArrayList<>();
+            for (int i = 0; i < clauses.size(); i++) {
+                if (!removed[i]) {
+                    remainingClauses.add(clauses.get(i));
+                }
+            }
+            return remainingClauses;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.IAssignmentList;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.value.ValueSolutionList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A list of Boolean solutions that all have the same number of variables.
+ * In contrast to {@link BooleanSolutionList}, all solutions are stored row by
+ * row in one contiguous array, using the layout of {@link BooleanSolution}
+ * (i.e., the value of variable {@code v} in row {@code r} is stored at
+ * {@code r * variableCount + v - 1}). This avoids one object per solution and
+ * allows to scan rows and columns of large samples without allocation.
+ * {@link #getAll()} returns a read-only view that creates a new
+ * {@link BooleanSolution} for each accessed row.
+ */
+public class ContiguousBooleanSolutionList implements IAssignmentList<BooleanSolution>, IBooleanRepresentation {
+
+    /**
+     * A view on a single row of a {@link ContiguousBooleanSolutionList}.
+     * The view reflects later changes to the row and becomes invalid when rows
+     * before it are removed.
+     */
+    public static class Row {
+        private final ContiguousBooleanSolutionList list;
+        private final int offset;
+
+        private Row(ContiguousBooleanSolutionList list, int offset) {
+            this.list = list;
+            this.offset = offset;
+        }
+
+        /**
+         * {@return the literal of the given variable in this row, or 0 if it is not assigned}
+         *
+         * @param variable the variable
+         */
+        public int get(int variable) {
+            return list.values[offset + list.checkedVariable(variable) - 1];
+        }
+
+        public int size() {
+            return list.variableCount;
+        }
+
+        public int countPositives() {
+            int count = 0;
+            for (int i = offset, end = offset + list.variableCount; i < end; i++) {
+                if (list.values[i] > 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        public int countNegatives() {
+            int count = 0;
+            for (int i = offset, end = offset + list.variableCount; i < end; i++) {
+                if (list.values[i] < 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Copies this row into the given array.
+         *
+         * @param target the array, must have at least {@link #size()} elements
+         * @return the given array
+         */
+        public int[] copyTo(int[] target) {
+            System.arraycopy(list.values, offset, target, 0, list.variableCount);
+            return target;
+        }
+
+        public int[] copy() {
+            return copyTo(new int[list.variableCount]);
+        }
+
+        public BooleanSolution toSolution() {
+            return new BooleanSolution(copy(), false);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Row[%s]", Arrays.toString(copy()));
+        }
+    }
+
+    private final int variableCount;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty list for solutions with the given number of variables.
+     *
+     * @param variableCount the number of variables
+     */
+    public ContiguousBooleanSolutionList(int variableCount) {
+        this(variableCount, 16);
+    }
+
+    /**
+     * Creates an empty list for solutions with the given number of variables.
+     *
+     * @param variableCount the number of variables
+     * @param capacity the number of solutions to reserve memory for
+     */
+    public ContiguousBooleanSolutionList(int variableCount, int capacity) {
+        if (variableCount < 0) {
+            throw new IllegalArgumentException(String.format("%d is negative", variableCount));
+        }
+        this.variableCount = variableCount;
+        values = new int[Math.multiplyExact(variableCount, Math.max(capacity, 1))];
+    }
+
+    /**
+     * Creates a list with the same solutions as the given list.
+     *
+     * @param variableCount the number of variables
+     * @param solutions the solutions
+     */
+    public ContiguousBooleanSolutionList(int variableCount, Collection<? extends BooleanSolution> solutions) {
+        this(variableCount, solutions.size());
+        for (BooleanSolution solution : solutions) {
+            add(solution);
+        }
+    }
+
+    /**
+     * Creates a list with the same solutions as the given list.
+     * The number of variables is taken from the first solution.
+     *
+     * @param solutionList the solution list
+     */
+    public ContiguousBooleanSolutionList(BooleanSolutionList solutionList) {
+        this(
+                solutionList.isEmpty() ? 0 : solutionList.getAll().get(0).size(),
+                solutionList.getAll());
+    }
+
+    public ContiguousBooleanSolutionList(ContiguousBooleanSolutionList other) {
+        variableCount = other.variableCount;
+        size = other.size;
+        values = Arrays.copyOf(other.values, Math.max(other.size * other.variableCount, variableCount));
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * {@return the backing array of this list}
+     * Row {@code r} starts at {@link #getOffset(int) getOffset(r)}. Only the first
+     * {@code size() * getVariableCount()} elements are valid. The returned array
+     * must not be modified and is replaced when the list grows.
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    /**
+     * {@return the index of the first value of the given row in {@link #getValues()}}
+     *
+     * @param row the row
+     */
+    public int getOffset(int row) {
+        return checkedRow(row) * variableCount;
+    }
+
+    private int checkedRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(String.format("%d is out of range for %d rows", row, size));
+        }
+        return row;
+    }
+
+    private int checkedVariable(int variable) {
+        if (variable <= 0 || variable > variableCount) {
+            throw new IllegalArgumentException(
+                    String.format("%d is out of range for %d variables", variable, variableCount));
+        }
+        return variable;
+    }
+
+    /**
+     * {@return the literal of the given variable in the given row, or 0 if it is not assigned}
+     *
+     * @param row the row
+     * @param variable the variable
+     */
+    public int get(int row, int variable) {
+        return values[getOffset(row) + checkedVariable(variable) - 1];
+    }
+
+    /**
+     * {@return a view on the given row}
+     *
+     * @param row the row
+     */
+    public Row getRow(int row) {
+        return new Row(this, getOffset(row));
+    }
+
+    /**
+     * Copies all values of the given variable into the given array, one element per row.
+     *
+     * @param variable the variable
+     * @param target the array, must have at least {@link #size()} elements
+     * @return the given array
+     */
+    public int[] getColumn(int variable, int[] target) {
+        checkedVariable(variable);
+        for (int row = 0, i = variable - 1; row < size; row++, i += variableCount) {
+            target[row] = values[i];
+        }
+        return target;
+    }
+
+    /**
+     * {@return all values of the given variable, one element per row}
+     *
+     * @param variable the variable
+     */
+    public int[] getColumn(int variable) {
+        return getColumn(variable, new int[size]);
+    }
+
+    /**
+     * {@return the number of rows in which the given literal is contained}
+     *
+     * @param literal the literal
+     */
+    public int countOccurrences(int literal) {
+        final int variable = Math.abs(literal);
+        if (literal == 0 || variable > variableCount) {
+            return 0;
+        }
+        int count = 0;
+        for (int row = 0, i = variable - 1; row < size; row++, i += variableCount) {
+            if (values[i] == literal) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a solution given in the layout of {@link BooleanSolution}.
+     *
+     * @param index the index of the new row
+     * @param literals the literals
+     */
+    public void add(int index, int... literals) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException(
+                    String.format("%d is out of range for inserting into %d rows", index, size));
+        }
+        if (literals.length != variableCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Solution has %d variables, but list has %d variables", literals.length, variableCount));
+        }
+        ensureCapacity(size + 1);
+        final int offset = index * variableCount;
+        if (index < size) {
+            System.arraycopy(values, offset, values, offset + variableCount, (size - index) * variableCount);
+        }
+        System.arraycopy(literals, 0, values, offset, variableCount);
+        size++;
+    }
+
+    private void ensureCapacity(int rows) {
+        final int length = Math.multiplyExact(rows, variableCount);
+        if (length > values.length) {
+            values = Arrays.copyOf(values, Math.max(length, values.length + (values.length >> 1)));
+        }
+    }
+
+    @Override
+    public void add(int index, BooleanSolution solution) {
+        add(index, solution.get());
+    }
+
+    @Override
+    public void addAll(Collection<? extends BooleanSolution> solutions) {
+        ensureCapacity(size + solutions.size());
+        for (BooleanSolution solution : solutions) {
+            add(size, solution.get());
+        }
+    }
+
+    @Override
+    public Result<BooleanSolution> get(int index) {
+        if (index < 0 || index >= size) return Result.empty();
+        return Result.of(getRow(index).toSolution());
+    }
+
+    @Override
+    public Result<BooleanSolution> remove(int index) {
+        if (index < 0 || index >= size) return Result.empty();
+        final BooleanSolution solution = getRow(index).toSolution();
+        final int offset = index * variableCount;
+        System.arraycopy(values, offset + variableCount, values, offset, (size - index - 1) * variableCount);
+        size--;
+        return Result.of(solution);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public List<BooleanSolution> getAll() {
+        return new AbstractList<>() {
+            @Override
+            public BooleanSolution get(int index) {
+                return getRow(index).toSolution();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public BooleanAssignmentList toAssignmentList() {
+        return toSolutionList().toAssignmentList();
+    }
+
+    @Override
+    public BooleanClauseList toClauseList(int variableCount) {
+        return toSolutionList().toClauseList(variableCount);
+    }
+
+    @Override
+    public BooleanSolutionList toSolutionList() {
+        final BooleanSolutionList solutionList = new BooleanSolutionList(size);
+        for (int row = 0; row < size; row++) {
+            solutionList.add(getRow(row).toSolution());
+        }
+        return solutionList;
+    }
+
+    @Override
+    public ValueSolutionList toValue() {
+        return VariableMap.toValue(toSolutionList());
+    }
+
+    @Override
+    public String print() {
+        return toValue().print();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContiguousBooleanSolutionList that = (ContiguousBooleanSolutionList) o;
+        return variableCount == that.variableCount
+                && size == that.size
+                && Arrays.equals(values, 0, size * variableCount, that.values, 0, size * variableCount);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = Objects.hash(variableCount, size);
+        for (int i = 0, end = size * variableCount; i < end; i++) {
+            hashCode = 31 * hashCode + values[i];
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContiguousBooleanSolutionList[%s]", print());
+    }
+}
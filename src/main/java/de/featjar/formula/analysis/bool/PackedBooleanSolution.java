@@ -0,0 +1,437 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.data.Maps;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.ISolution;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.value.ValueSolution;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * A (partial) Boolean solution stored as two bit sets. For each variable
+ * {@code i}, bit {@code i - 1} of {@code assigned} states whether the variable
+ * has a value and bit {@code i - 1} of {@code positive} states whether this
+ * value is {@code true}. A positive bit is only set when the corresponding
+ * assigned bit is set. Compared to {@link BooleanSolution}, which stores one
+ * integer per variable, this representation needs two bits per variable and
+ * allows comparing whole solutions one word (64 variables) at a time.
+ * Indices and return values of all methods follow the conventions of
+ * {@link BooleanSolution}.
+ */
+public class PackedBooleanSolution implements ISolution<Integer, Boolean>, IBooleanRepresentation {
+
+    private final int variableCount;
+    private final long[] assigned;
+    private final long[] positive;
+
+    /**
+     * Creates an empty solution for the given number of variables.
+     *
+     * @param variableCount the number of variables
+     */
+    public PackedBooleanSolution(int variableCount) {
+        if (variableCount < 0) {
+            throw new IllegalArgumentException(String.format("%d is negative", variableCount));
+        }
+        this.variableCount = variableCount;
+        final int wordCount = getWordCount(variableCount);
+        assigned = new long[wordCount];
+        positive = new long[wordCount];
+    }
+
+    /**
+     * Creates a solution for the given number of variables that contains the given
+     * literals. Zeros are ignored.
+     *
+     * @param variableCount the number of variables
+     * @param literals the literals
+     */
+    public PackedBooleanSolution(int variableCount, int... literals) {
+        this(variableCount);
+        for (final int literal : literals) {
+            if (literal != 0) {
+                set(literal);
+            }
+        }
+    }
+
+    /**
+     * Creates a solution with the same contents as the given solution.
+     *
+     * @param booleanSolution the solution
+     */
+    public PackedBooleanSolution(BooleanSolution booleanSolution) {
+        this(booleanSolution.size(), booleanSolution.get());
+    }
+
+    public PackedBooleanSolution(PackedBooleanSolution other) {
+        variableCount = other.variableCount;
+        assigned = Arrays.copyOf(other.assigned, other.assigned.length);
+        positive = Arrays.copyOf(other.positive, other.positive.length);
+    }
+
+    private PackedBooleanSolution(int variableCount, long[] assigned, long[] positive) {
+        this.variableCount = variableCount;
+        this.assigned = assigned;
+        this.positive = positive;
+    }
+
+    static int getWordCount(int variableCount) {
+        return (variableCount + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * {@return the number of variables this solution can hold}
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Assigns the variable of the given literal according to the sign of the
+     * literal, overriding any previous value.
+     *
+     * @param literal the literal
+     */
+    public void set(int literal) {
+        final int index = checkedIndex(literal);
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        assigned[word] |= mask;
+        if (literal > 0) {
+            positive[word] |= mask;
+        } else {
+            positive[word] &= ~mask;
+        }
+    }
+
+    /**
+     * Removes the value of the given variable.
+     *
+     * @param variable the variable
+     */
+    public void unset(int variable) {
+        final int index = checkedIndex(variable);
+        final long mask = ~(1L << index);
+        assigned[index >>> 6] &= mask;
+        positive[index >>> 6] &= mask;
+    }
+
+    private int checkedIndex(int literal) {
+        final int index = Math.abs(literal) - 1;
+        if (index < 0 || index >= variableCount) {
+            throw new IllegalArgumentException(
+                    String.format("%d is out of range for %d variables", literal, variableCount));
+        }
+        return index;
+    }
+
+    /**
+     * {@return the literal of the given variable, or 0 if it is not assigned}
+     *
+     * @param variable the variable
+     */
+    public int get(int variable) {
+        final int index = variable - 1;
+        if (variable <= 0 || index >= variableCount) {
+            return 0;
+        }
+        final long mask = 1L << index;
+        final int word = index >>> 6;
+        return (assigned[word] & mask) == 0 ? 0 : (positive[word] & mask) == 0 ? -variable : variable;
+    }
+
+    public int indexOf(int literal) {
+        return literal != 0 && get(Math.abs(literal)) == literal ? Math.abs(literal) - 1 : -1;
+    }
+
+    public int indexOfVariable(int variable) {
+        return get(variable) != 0 ? variable - 1 : -1;
+    }
+
+    public boolean contains(int literal) {
+        return indexOf(literal) >= 0;
+    }
+
+    public boolean containsVariable(int variable) {
+        return indexOfVariable(variable) >= 0;
+    }
+
+    public boolean containsAll(int... literals) {
+        for (final int literal : literals) {
+            if (indexOf(literal) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsAny(int... literals) {
+        for (final int literal : literals) {
+            if (indexOf(literal) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return whether every literal of the given solution is also contained in this solution}
+     *
+     * @param other the other solution
+     */
+    public boolean containsAll(PackedBooleanSolution other) {
+        final int commonWords = Math.min(assigned.length, other.assigned.length);
+        for (int i = 0; i < commonWords; i++) {
+            final long otherAssigned = other.assigned[i];
+            if ((otherAssigned & ~assigned[i]) != 0 || ((positive[i] ^ other.positive[i]) & otherAssigned) != 0) {
+                return false;
+            }
+        }
+        for (int i = commonWords; i < other.assigned.length; i++) {
+            if (other.assigned[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int countConflicts(int... literals) {
+        int count = 0;
+        for (final int literal : literals) {
+            if (indexOf(-literal) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return the number of variables that are assigned different values in this and the given solution}
+     *
+     * @param other the other solution
+     */
+    public int countConflicts(PackedBooleanSolution other) {
+        final int commonWords = Math.min(assigned.length, other.assigned.length);
+        int count = 0;
+        for (int i = 0; i < commonWords; i++) {
+            count += Long.bitCount(assigned[i] & other.assigned[i] & (positive[i] ^ other.positive[i]));
+        }
+        return count;
+    }
+
+    public boolean conflictsWith(int... literals) {
+        for (final int literal : literals) {
+            if (indexOf(-literal) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean conflictsWith(PackedBooleanSolution other) {
+        final int commonWords = Math.min(assigned.length, other.assigned.length);
+        for (int i = 0; i < commonWords; i++) {
+            if ((assigned[i] & other.assigned[i] & (positive[i] ^ other.positive[i])) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return a new solution that only contains the literals on which this and the given solution agree}
+     * Analogous to {@link BooleanSolution#removeConflicts(int[], int[])}, a variable is unassigned in the result
+     * if it is assigned differently or assigned in only one of both solutions.
+     *
+     * @param other the other solution
+     */
+    public PackedBooleanSolution removeConflicts(PackedBooleanSolution other) {
+        checkVariableCount(other);
+        final PackedBooleanSolution result = new PackedBooleanSolution(this);
+        result.removeConflictsInplace(other);
+        return result;
+    }
+
+    /**
+     * Removes all literals on which this and the given solution do not agree from this solution.
+     *
+     * @param other the other solution
+     * @see #removeConflicts(PackedBooleanSolution)
+     */
+    public void removeConflictsInplace(PackedBooleanSolution other) {
+        checkVariableCount(other);
+        for (int i = 0; i < assigned.length; i++) {
+            final long agreed = assigned[i] & other.assigned[i] & ~(positive[i] ^ other.positive[i]);
+            assigned[i] = agreed;
+            positive[i] &= agreed;
+        }
+    }
+
+    private void checkVariableCount(PackedBooleanSolution other) {
+        if (variableCount != other.variableCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Arguments have different lengths (%d != %d)", variableCount, other.variableCount));
+        }
+    }
+
+    /**
+     * {@return a new solution in which every assigned variable has the opposite value}
+     */
+    public PackedBooleanSolution inverse() {
+        final long[] inversePositive = new long[positive.length];
+        for (int i = 0; i < positive.length; i++) {
+            inversePositive[i] = assigned[i] & ~positive[i];
+        }
+        return new PackedBooleanSolution(variableCount, Arrays.copyOf(assigned, assigned.length), inversePositive);
+    }
+
+    public int countNonZero() {
+        int count = 0;
+        for (final long word : assigned) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int countPositives() {
+        int count = 0;
+        for (final long word : positive) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int countNegatives() {
+        return countNonZero() - countPositives();
+    }
+
+    /**
+     * {@return the number of variables this solution can hold}
+     * As for {@link BooleanSolution}, this includes unassigned variables.
+     */
+    @Override
+    public int size() {
+        return variableCount;
+    }
+
+    /**
+     * {@return a new array holding this solution in the layout of {@link BooleanSolution}}
+     */
+    public int[] copy() {
+        final int[] literals = new int[variableCount];
+        for (int i = 0; i < assigned.length; i++) {
+            long word = assigned[i];
+            while (word != 0) {
+                final int bit = Long.numberOfTrailingZeros(word);
+                final int index = (i << 6) + bit;
+                literals[index] = (positive[i] & (1L << bit)) != 0 ? index + 1 : -(index + 1);
+                word &= word - 1;
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * {@return a new array holding all assigned literals in ascending order of their variables}
+     */
+    public int[] getNonZeroValues() {
+        final int[] literals = new int[countNonZero()];
+        int j = 0;
+        for (int i = 0; i < assigned.length; i++) {
+            long word = assigned[i];
+            while (word != 0) {
+                final int bit = Long.numberOfTrailingZeros(word);
+                final int variable = (i << 6) + bit + 1;
+                literals[j++] = (positive[i] & (1L << bit)) != 0 ? variable : -variable;
+                word &= word - 1;
+            }
+        }
+        return literals;
+    }
+
+    @Override
+    public LinkedHashMap<Integer, Boolean> getAll() {
+        LinkedHashMap<Integer, Boolean> map = Maps.empty();
+        for (int literal : getNonZeroValues()) {
+            map.put(literal, literal > 0);
+        }
+        return map;
+    }
+
+    @Override
+    public Result<Boolean> getValue(Integer variable) {
+        final int literal = get(variable);
+        return literal == 0 ? Result.empty() : Result.of(literal > 0);
+    }
+
+    @Override
+    public BooleanAssignment toAssignment() {
+        return new BooleanAssignment(getNonZeroValues());
+    }
+
+    @Override
+    public BooleanClause toClause() {
+        return new BooleanClause(getNonZeroValues(), false);
+    }
+
+    @Override
+    public BooleanSolution toSolution() {
+        return new BooleanSolution(copy(), false);
+    }
+
+    @Override
+    public ValueSolution toValue() {
+        return VariableMap.toValue(toSolution());
+    }
+
+    @Override
+    public String print() {
+        return toValue().print();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * variableCount + Arrays.hashCode(assigned)) + Arrays.hashCode(positive);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final PackedBooleanSolution other = (PackedBooleanSolution) obj;
+        return variableCount == other.variableCount
+                && Arrays.equals(assigned, other.assigned)
+                && Arrays.equals(positive, other.positive);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PackedBooleanSolution[%s]", print());
+    }
+}
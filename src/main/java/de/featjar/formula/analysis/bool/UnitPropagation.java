@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.RuntimeContradictionException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Propagates a core assignment over a {@link BooleanClauseList}.
+ * Works on primitive arrays only and reuses its scratch buffers between calls,
+ * so a single instance can simplify many clause lists without boxing.
+ * Newly assigned literals are queued, and only the clauses containing their
+ * negation are checked again, which are found with per-literal occurrence lists.
+ * Literals are marked with stamps, which avoids clearing the buffers for every clause.
+ * An instance is not thread-safe.
+ *
+ * @see ABooleanAssignment#unitPropagation(BooleanClause, BooleanAssignment)
+ * @see ABooleanAssignment#simplify(int[])
+ */
+public class UnitPropagation {
+
+    /** Value of each variable under the current assignment (-1, 0, or 1). */
+    private int[] values = new int[0];
+    /** Stamp of the last clause each literal was seen in, indexed by {@link #literalIndex(int)}. */
+    private int[] literalStamps = new int[0];
+    /** Variables in order of assignment, used as propagation queue and to reset {@link #values}. */
+    private int[] trail = new int[0];
+    /** Start of the occurrence list of each literal in {@link #occurrences}, indexed by {@link #literalIndex(int)}. */
+    private int[] occurrenceStarts = new int[0];
+    /** Indices of the clauses containing each literal. */
+    private int[] occurrences = new int[0];
+    /** Literals of the clause that is currently simplified. */
+    private int[] clauseBuffer = new int[0];
+
+    private int stamp;
+    private int trailSize;
+    /** The only unassigned literal of the clause last checked by {@link #countUnassigned(int[])}. */
+    private int unitLiteral;
+
+    private static int literalIndex(int literal) {
+        return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+    }
+
+    private void ensureVariableCount(int variableCount) {
+        if (values.length <= variableCount) {
+            values = new int[variableCount + 1];
+            literalStamps = new int[(variableCount + 1) << 1];
+            trail = new int[variableCount + 1];
+            occurrenceStarts = new int[((variableCount + 1) << 1) + 1];
+            stamp = 0;
+        }
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(literalStamps, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private void assign(int literal) {
+        final int variable = Math.abs(literal);
+        values[variable] = literal > 0 ? 1 : -1;
+        trail[trailSize++] = variable;
+    }
+
+    private void reset() {
+        for (int i = 0; i < trailSize; i++) {
+            values[trail[i]] = 0;
+        }
+        trailSize = 0;
+    }
+
+    /**
+     * Propagates the given core assignment over the given clauses until no further
+     * literals are implied. The given objects are not modified.
+     *
+     * @param clauseList the clauses
+     * @param core the core assignment, must not contain 0
+     * @return the clauses that are neither satisfied nor unit under the core and implied literals, with all
+     *         literals removed that are false, and the literals implied by the clauses (not including the core)
+     * @throws RuntimeContradictionException if the core contradicts itself or the clauses
+     */
+    public Pair<BooleanClauseList, BooleanAssignment> propagate(BooleanClauseList clauseList, BooleanAssignment core) {
+        int maxVariable = clauseList.getVariableCount();
+        for (int literal : core.get()) {
+            maxVariable = Math.max(maxVariable, Math.abs(literal));
+        }
+        final List<BooleanClause> clauses = clauseList.getAll();
+        for (BooleanClause clause : clauses) {
+            for (int literal : clause.get()) {
+                maxVariable = Math.max(maxVariable, Math.abs(literal));
+            }
+        }
+        ensureVariableCount(maxVariable);
+        try {
+            for (int literal : core.get()) {
+                final int value = values[Math.abs(literal)];
+                if (value == 0) {
+                    assign(literal);
+                } else if ((value > 0) != (literal > 0)) {
+                    throw new RuntimeContradictionException("Core contains complementary literals");
+                }
+            }
+            final int coreSize = trailSize;
+
+            buildOccurrences(clauses, maxVariable);
+            for (BooleanClause clause : clauses) {
+                checkClause(clause.get());
+            }
+            for (int head = coreSize; head < trailSize; head++) {
+                final int variable = trail[head];
+                final int falseLiteral = values[variable] > 0 ? -variable : variable;
+                final int index = literalIndex(falseLiteral);
+                for (int i = occurrenceStarts[index]; i < occurrenceStarts[index + 1]; i++) {
+                    checkClause(clauses.get(occurrences[i]).get());
+                }
+            }
+
+            final BooleanClauseList reducedClauses =
+                    new BooleanClauseList(clauses.size(), clauseList.getVariableCount());
+            for (BooleanClause clause : clauses) {
+                final int[] literals = clause.get();
+                if (countUnassigned(literals) > 1) {
+                    final int[] simplified = simplify(literals, true);
+                    if (simplified != null) {
+                        reducedClauses.add(new BooleanClause(simplified, false));
+                    }
+                }
+            }
+            final int[] impliedLiterals = new int[trailSize - coreSize];
+            for (int i = coreSize; i < trailSize; i++) {
+                final int variable = trail[i];
+                impliedLiterals[i - coreSize] = values[variable] > 0 ? variable : -variable;
+            }
+            return new Pair<>(reducedClauses, new BooleanAssignment(impliedLiterals));
+        } finally {
+            reset();
+        }
+    }
+
+    private void buildOccurrences(List<BooleanClause> clauses, int maxVariable) {
+        final int literalCount = (maxVariable + 1) << 1;
+        Arrays.fill(occurrenceStarts, 0, literalCount + 1, 0);
+        int total = 0;
+        for (BooleanClause clause : clauses) {
+            for (int literal : clause.get()) {
+                occurrenceStarts[literalIndex(literal) + 1]++;
+                total++;
+            }
+        }
+        for (int i = 0; i < literalCount; i++) {
+            occurrenceStarts[i + 1] += occurrenceStarts[i];
+        }
+        if (occurrences.length < total) {
+            occurrences = new int[total];
+        }
+        for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+            for (int literal : clauses.get(clauseIndex).get()) {
+                occurrences[occurrenceStarts[literalIndex(literal)]++] = clauseIndex;
+            }
+        }
+        // each start now points to the end of its list, which is the start of the next one
+        for (int i = literalCount; i > 0; i--) {
+            occurrenceStarts[i] = occurrenceStarts[i - 1];
+        }
+        occurrenceStarts[0] = 0;
+    }
+
+    /**
+     * {@return the number of distinct unassigned literals of the given clause, or -1 if it is satisfied}
+     * If there is exactly one unassigned literal, it is stored in {@link #unitLiteral}.
+     */
+    private int countUnassigned(int[] literals) {
+        int unassignedCount = 0;
+        int unassignedLiteral = 0;
+        // clauses are sorted, so duplicate literals are adjacent
+        for (int literal : literals) {
+            final int value = values[Math.abs(literal)];
+            if (value == 0) {
+                if (unassignedCount == 0 || literal != unassignedLiteral) {
+                    unassignedCount++;
+                    unassignedLiteral = literal;
+                }
+            } else if ((value > 0) == (literal > 0)) {
+                return -1;
+            }
+        }
+        unitLiteral = unassignedLiteral;
+        return unassignedCount;
+    }
+
+    /**
+     * Assigns the literal of the given clause if it is unit.
+     *
+     * @throws RuntimeContradictionException if the clause is falsified
+     */
+    private void checkClause(int[] literals) {
+        final int unassignedCount = countUnassigned(literals);
+        if (unassignedCount == 0) {
+            throw new RuntimeContradictionException(
+                    String.format("Clause %s is falsified", Arrays.toString(literals)));
+        } else if (unassignedCount == 1) {
+            assign(unitLiteral);
+        }
+    }
+
+    /**
+     * {@return the given literals without duplicates, in order of their first occurrence,
+     * or an empty array if they contain complementary literals}
+     * Like {@link ABooleanAssignment#simplify(int[])}, 0 is kept once, but literals are not boxed.
+     *
+     * @param literals the literals
+     */
+    public int[] simplify(int... literals) {
+        int maxVariable = 0;
+        for (int literal : literals) {
+            maxVariable = Math.max(maxVariable, Math.abs(literal));
+        }
+        ensureVariableCount(maxVariable);
+        final int[] simplified = simplify(literals, false);
+        return simplified == null ? new int[0] : simplified;
+    }
+
+    /**
+     * Removes duplicates from the given literals. If {@code removeFalse} is set,
+     * literals that are false under the current assignment and 0 are removed as well.
+     *
+     * @return a new array, or {@code null} if the literals contain complementary literals
+     */
+    private int[] simplify(int[] literals, boolean removeFalse) {
+        final int currentStamp = nextStamp();
+        if (clauseBuffer.length < literals.length) {
+            clauseBuffer = new int[literals.length];
+        }
+        int size = 0;
+        boolean containsZero = false;
+        for (int literal : literals) {
+            if (literal == 0) {
+                if (!removeFalse && !containsZero) {
+                    containsZero = true;
+                    clauseBuffer[size++] = literal;
+                }
+                continue;
+            }
+            if (removeFalse && values[Math.abs(literal)] != 0) {
+                continue;
+            }
+            if (literalStamps[literalIndex(-literal)] == currentStamp) {
+                return null;
+            }
+            final int index = literalIndex(literal);
+            if (literalStamps[index] != currentStamp) {
+                literalStamps[index] = currentStamp;
+                clauseBuffer[size++] = literal;
+            }
+        }
+        return Arrays.copyOf(clauseBuffer, size);
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import java.util.Arrays;
+
+/**
+ * Incremental Boolean constraint propagation over a {@link BooleanClauseList}
+ * using two watched literals per clause.
+ * Literals are assigned on decision levels, which can be opened with
+ * {@link #push()} and undone with {@link #pop()}. After each assignment, all
+ * implied literals are propagated until either no further literals are implied
+ * or a clause is falsified (i.e., a conflict occurs).
+ * Propagation is incomplete; that is, an assignment without conflict may still
+ * not be extendable to a solution.
+ * An instance is not thread-safe.
+ */
+public class WatchedLiteralPropagator {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int variableCount;
+
+    /** Literals of all clauses with at least two literals; the first two literals of each clause are watched. */
+    private final int[] clauseLiterals;
+    /** Start of each clause in {@link #clauseLiterals}, with one additional element for the end of the last one. */
+    private final int[] clauseStarts;
+    /** Clauses watching each literal, indexed by {@link #literalIndex(int)}. */
+    private final int[][] watches;
+
+    private final int[] watchCounts;
+
+    /** Value of each variable (-1, 0, or 1). */
+    private final int[] values;
+    /** Assigned literals in order of assignment. */
+    private final int[] trail;
+
+    private int trailSize;
+    /** Position in {@link #trail} of the next literal to propagate. */
+    private int propagationHead;
+
+    /** Trail size at the start of each decision level. */
+    private int[] levelStarts = new int[8];
+
+    private int level;
+
+    /** Falsified clause, if any. */
+    private int[] conflict;
+
+    /** Whether the clauses are unsatisfiable regardless of decisions. */
+    private boolean rootConflict;
+
+    /**
+     * Creates a propagator for the given clauses and propagates all unit clauses.
+     *
+     * @param clauseList the clauses
+     */
+    public WatchedLiteralPropagator(BooleanClauseList clauseList) {
+        int maxVariable = clauseList.getVariableCount();
+        int literalCount = 0;
+        for (BooleanClause clause : clauseList.getAll()) {
+            for (int literal : clause.get()) {
+                maxVariable = Math.max(maxVariable, Math.abs(literal));
+            }
+            literalCount += clause.size();
+        }
+        variableCount = maxVariable;
+        values = new int[variableCount + 1];
+        trail = new int[variableCount];
+        watches = new int[(variableCount + 1) << 1][];
+        watchCounts = new int[(variableCount + 1) << 1];
+        Arrays.fill(watches, EMPTY);
+
+        final int[] literals = new int[literalCount];
+        final int[] starts = new int[clauseList.size() + 1];
+        final int[] stamps = new int[(variableCount + 1) << 1];
+        int clauseCount = 0;
+        int position = 0;
+        int stamp = 0;
+        clauses:
+        for (BooleanClause clause : clauseList.getAll()) {
+            final int start = position;
+            stamp++;
+            for (int literal : clause.get()) {
+                if (stamps[literalIndex(-literal)] == stamp) {
+                    // tautologies are always satisfied
+                    position = start;
+                    continue clauses;
+                }
+                if (stamps[literalIndex(literal)] != stamp) {
+                    stamps[literalIndex(literal)] = stamp;
+                    literals[position++] = literal;
+                }
+            }
+            final int size = position - start;
+            if (size == 0) {
+                rootConflict = true;
+                conflict = EMPTY;
+                position = start;
+            } else if (size == 1) {
+                if (!enqueue(literals[start])) {
+                    setRootConflict(new int[] {literals[start]});
+                }
+                position = start;
+            } else {
+                starts[clauseCount] = start;
+                addWatch(literals[start], clauseCount);
+                addWatch(literals[start + 1], clauseCount);
+                clauseCount++;
+                starts[clauseCount] = position;
+            }
+        }
+        clauseLiterals = literals;
+        clauseStarts = Arrays.copyOf(starts, clauseCount + 1);
+        if (!rootConflict && !propagate()) {
+            rootConflict = true;
+        }
+    }
+
+    private static int literalIndex(int literal) {
+        return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+    }
+
+    private void setRootConflict(int[] clause) {
+        rootConflict = true;
+        conflict = clause;
+    }
+
+    private void addWatch(int literal, int clause) {
+        final int index = literalIndex(literal);
+        int[] list = watches[index];
+        final int count = watchCounts[index];
+        if (count == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, count << 1));
+            watches[index] = list;
+        }
+        list[count] = clause;
+        watchCounts[index] = count + 1;
+    }
+
+    /**
+     * Assigns the given literal without propagation.
+     *
+     * @return {@code false} iff the literal is already assigned false
+     */
+    private boolean enqueue(int literal) {
+        final int variable = Math.abs(literal);
+        final int value = values[variable];
+        if (value != 0) {
+            return (value > 0) == (literal > 0);
+        }
+        values[variable] = literal > 0 ? 1 : -1;
+        trail[trailSize++] = literal;
+        return true;
+    }
+
+    private boolean isFalse(int literal) {
+        final int value = values[Math.abs(literal)];
+        return value != 0 && (value > 0) != (literal > 0);
+    }
+
+    private boolean isTrue(int literal) {
+        final int value = values[Math.abs(literal)];
+        return value != 0 && (value > 0) == (literal > 0);
+    }
+
+    private boolean propagate() {
+        while (propagationHead < trailSize) {
+            final int falseLiteral = -trail[propagationHead++];
+            final int watchIndex = literalIndex(falseLiteral);
+            final int[] list = watches[watchIndex];
+            final int count = watchCounts[watchIndex];
+            int kept = 0;
+            int i = 0;
+            for (; i < count; i++) {
+                final int clause = list[i];
+                final int start = clauseStarts[clause];
+                final int end = clauseStarts[clause + 1];
+                if (clauseLiterals[start] == falseLiteral) {
+                    clauseLiterals[start] = clauseLiterals[start + 1];
+                    clauseLiterals[start + 1] = falseLiteral;
+                }
+                final int otherWatch = clauseLiterals[start];
+                if (isTrue(otherWatch)) {
+                    list[kept++] = clause;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = start + 2; k < end; k++) {
+                    final int literal = clauseLiterals[k];
+                    if (!isFalse(literal)) {
+                        clauseLiterals[start + 1] = literal;
+                        clauseLiterals[k] = falseLiteral;
+                        addWatch(literal, clause);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                list[kept++] = clause;
+                if (!enqueue(otherWatch)) {
+                    conflict = Arrays.copyOfRange(clauseLiterals, start, end);
+                    i++;
+                    break;
+                }
+            }
+            for (; i < count; i++) {
+                list[kept++] = list[i];
+            }
+            watchCounts[watchIndex] = kept;
+            if (conflict != null) {
+                propagationHead = trailSize;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * {@return the current decision level, starting at 0}
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Opens a new decision level.
+     */
+    public void push() {
+        if (level + 1 >= levelStarts.length) {
+            levelStarts = Arrays.copyOf(levelStarts, levelStarts.length << 1);
+        }
+        levelStarts[++level] = trailSize;
+    }
+
+    /**
+     * Undoes all assignments on the current decision level, including any conflict, and returns to the previous one.
+     *
+     * @throws IllegalStateException if the current level is 0
+     */
+    public void pop() {
+        if (level == 0) {
+            throw new IllegalStateException("Cannot pop level 0");
+        }
+        final int start = levelStarts[level--];
+        for (int i = start; i < trailSize; i++) {
+            values[Math.abs(trail[i])] = 0;
+        }
+        trailSize = start;
+        propagationHead = start;
+        if (!rootConflict) {
+            conflict = null;
+        }
+    }
+
+    /**
+     * Assigns the given literal on the current decision level and propagates all implied literals.
+     * Does nothing if there is already a conflict.
+     * A conflict on level 0 cannot be undone and makes the clauses {@link #isUnsatisfiable() unsatisfiable}.
+     *
+     * @param literal the literal
+     * @return {@code false} iff a conflict occurred
+     */
+    public boolean assign(int literal) {
+        if (literal == 0 || Math.abs(literal) > variableCount) {
+            throw new IllegalArgumentException(
+                    String.format("%d is out of range for %d variables", literal, variableCount));
+        }
+        if (conflict != null) {
+            return false;
+        }
+        if (!enqueue(literal)) {
+            conflict = new int[] {literal};
+        } else if (propagate()) {
+            return true;
+        }
+        if (level == 0) {
+            rootConflict = true;
+        }
+        return false;
+    }
+
+    /**
+     * Assigns all given literals on the current decision level and propagates all implied literals.
+     * Zeros are ignored.
+     *
+     * @param literals the literals
+     * @return {@code false} iff a conflict occurred
+     */
+    public boolean assignAll(int... literals) {
+        for (int literal : literals) {
+            if (literal != 0 && !assign(literal)) {
+                return false;
+            }
+        }
+        return conflict == null;
+    }
+
+    /**
+     * Opens a new decision level and assigns all literals of the given assignment on it.
+     * The assignment can be undone with {@link #pop()}.
+     *
+     * @param assignment the assignment
+     * @return {@code false} iff a conflict occurred
+     */
+    public boolean propagate(ABooleanAssignment assignment) {
+        push();
+        return assignAll(assignment.get());
+    }
+
+    public boolean isConflict() {
+        return conflict != null;
+    }
+
+    /**
+     * {@return whether the clauses have a conflict without any decision}
+     * Includes conflicts caused by literals assigned on level 0.
+     */
+    public boolean isUnsatisfiable() {
+        return rootConflict;
+    }
+
+    /**
+     * {@return the literals of a falsified clause, or {@code null} if there is no conflict}
+     * If the conflict is caused by assigning a literal that is already false, this literal is returned.
+     */
+    public int[] getConflict() {
+        return conflict == null ? null : Arrays.copyOf(conflict, conflict.length);
+    }
+
+    /**
+     * {@return the literal of the given variable, or 0 if it is not assigned}
+     *
+     * @param variable the variable
+     */
+    public int get(int variable) {
+        if (variable <= 0 || variable > variableCount) {
+            throw new IllegalArgumentException(
+                    String.format("%d is out of range for %d variables", variable, variableCount));
+        }
+        final int value = values[variable];
+        return value == 0 ? 0 : value > 0 ? variable : -variable;
+    }
+
+    /**
+     * {@return all assigned literals in order of assignment}
+     */
+    public int[] getAssignedLiterals() {
+        return Arrays.copyOf(trail, trailSize);
+    }
+
+    /**
+     * {@return all literals assigned on the current decision level in order of assignment}
+     * Contains both the assigned and the implied literals.
+     */
+    public int[] getLevelLiterals() {
+        return Arrays.copyOfRange(trail, level == 0 ? 0 : levelStarts[level], trailSize);
+    }
+
+    /**
+     * {@return the current assignment as a solution}
+     */
+    public BooleanSolution toSolution() {
+        final int[] literals = new int[variableCount];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            literals[variable - 1] = get(variable);
+        }
+        return new BooleanSolution(literals, false);
+    }
+}
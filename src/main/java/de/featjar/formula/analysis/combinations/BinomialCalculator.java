@@ -20,14 +20,25 @@
  */
 package de.featjar.formula.analysis.combinations;
 
+import java.math.BigInteger;
+
 /**
  * Computes binomial coefficients and factorial.
+ * Combinations of k out of n elements are numbered in the combinatorial number
+ * system, i.e., a combination {@code c_1 < ... < c_k} has the index
+ * {@code binomial(c_1, 1) + ... + binomial(c_k, k)}.
+ * All coefficients up to the maximum n and k are precomputed as a Pascal
+ * triangle, so an instance is immutable and can be shared between threads
+ * without locking. Coefficients that do not fit into a {@code long} are stored
+ * as {@link Long#MAX_VALUE}.
  *
  * @author Sebastian Krieter
  */
 public class BinomialCalculator {
 
+    /** binomial[n][k] is n choose k, or {@link Long#MAX_VALUE} if it overflows. */
     private final long[][] binomial;
+
     private final long[] factorial;
 
     private final int maxK, maxN;
@@ -36,55 +47,152 @@ public class BinomialCalculator {
         this.maxK = maxK;
         this.maxN = maxN;
         binomial = new long[maxN + 1][maxK + 1];
+        for (int n = 0; n <= maxN; n++) {
+            final long[] row = binomial[n];
+            row[0] = 1;
+            if (n > 0) {
+                final long[] previousRow = binomial[n - 1];
+                for (int k = 1; k <= maxK && k <= n; k++) {
+                    row[k] = saturatedAdd(previousRow[k - 1], previousRow[k]);
+                }
+            }
+        }
         factorial = new long[maxK + 1];
+        factorial[0] = 1;
+        for (int k = 1; k <= maxK; k++) {
+            final long f = factorial[k - 1];
+            factorial[k] = f > Long.MAX_VALUE / k ? Long.MAX_VALUE : f * k;
+        }
     }
 
+    private static long saturatedAdd(long a, long b) {
+        final long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * {@return k factorial, or {@link Long#MAX_VALUE} if it does not fit into a long}
+     *
+     * @param k the number, at most the maximum k of this calculator
+     */
     public long factorial(int k) {
-        synchronized (factorial) {
-            long f = factorial[k];
-            if (f == 0) {
-                f = 1;
-                for (int i = 2; i <= k; i++) {
-                    f *= i;
-                }
-                factorial[k] = f;
-            }
-            return f;
-        }
+        return factorial[k];
     }
 
     public long binomial() {
         return binomial(maxN, maxK);
     }
 
+    /**
+     * {@return the binomial coefficient n choose k}
+     *
+     * @param n the number of elements, at most the maximum n of this calculator
+     * @param k the number of chosen elements, at most the maximum k of this calculator
+     * @throws ArithmeticException if the result does not fit into a {@code long}
+     */
     public long binomial(int n, int k) {
-        synchronized (binomial) {
-            long b = binomial[n][k];
-            if (b == 0) {
-                b = computeBinomial(n, k);
-                binomial[n][k] = b;
-            }
-            return b;
+        final long b = saturatedBinomial(n, k);
+        if (b == Long.MAX_VALUE) {
+            throw new ArithmeticException(String.format("binomial(%d, %d) overflows long", n, k));
         }
+        return b;
     }
 
+    /**
+     * {@return the binomial coefficient n choose k, or {@link Long#MAX_VALUE} if it does not fit into a long}
+     */
+    private long saturatedBinomial(int n, int k) {
+        return binomial[n][k];
+    }
+
+    /**
+     * {@return the combination with the given index}
+     *
+     * @param index the index, between 0 (inclusive) and {@link #binomial()} (exclusive)
+     */
     public int[] combination(long index) {
-        final int[] combination = new int[maxK];
+        return combination(index, new int[maxK]);
+    }
+
+    /**
+     * Computes the combination with the given index.
+     * Each element is determined exactly by a binary search over the binomial coefficients, so this takes
+     * O(k log n) time.
+     *
+     * @param index the index, between 0 (inclusive) and {@link #binomial()} (exclusive)
+     * @param combination the array to store the element indices in, in ascending order, of length at least k
+     * @return the given array
+     */
+    public int[] combination(long index, int[] combination) {
+        checkIndex(index);
+        int upper = maxN;
         for (int i = maxK; i > 0; i--) {
-            if (index <= 0) {
-                combination[i - 1] = i - 1;
+            final int c = search(upper, i, index);
+            combination[i - 1] = c;
+            index -= saturatedBinomial(c, i);
+            upper = c;
+        }
+        return combination;
+    }
+
+    /**
+     * Computes the combination with the given index in revolving door order.
+     * In this order, two consecutive combinations differ in exactly one element.
+     *
+     * @param index the index, between 0 (inclusive) and {@link #binomial()} (exclusive)
+     * @param combination the array to store the element indices in, in ascending order, of length at least k
+     * @return the given array
+     * @throws ArithmeticException if an intermediate binomial coefficient does not fit into a {@code long}
+     */
+    public int[] revolvingDoorCombination(long index, int[] combination) {
+        checkIndex(index);
+        int upper = maxN;
+        for (int i = maxK; i > 0; i--) {
+            final int c = search(upper, i, index);
+            combination[i - 1] = c;
+            // binomial(c + 1, i) - 1 - index, without computing binomial(c + 1, i)
+            index = binomial(c, i - 1) - 1 - (index - saturatedBinomial(c, i));
+            upper = c;
+        }
+        return combination;
+    }
+
+    /**
+     * {@return the index of the given combination in revolving door order}
+     *
+     * @param c the element indices in ascending order
+     */
+    public long revolvingDoorIndex(int[] c) {
+        long index = -(maxK & 1);
+        for (int i = maxK; i > 0; i--) {
+            final long b = binomial(c[i - 1] + 1, i);
+            index += ((maxK - i) & 1) == 0 ? b : -b;
+        }
+        return index;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || saturatedBinomial(maxN, maxK) <= index) {
+            throw new IllegalArgumentException(String.format("Index %d is out of range", index));
+        }
+    }
+
+    /**
+     * {@return the largest c < upper with binomial(c, i) <= index}
+     * Binomial(i - 1, i) = 0 is a lower bound.
+     */
+    private int search(int upper, int i, long index) {
+        int low = i - 1;
+        int high = upper - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (saturatedBinomial(middle, i) <= index) {
+                low = middle;
             } else {
-                final int p = (int) Math.ceil(Math.pow(index * factorial(i), (1.0 / i)));
-                for (int j = p; j <= maxN; j++) {
-                    if (binomial(j, i) > index) {
-                        combination[i - 1] = j - 1;
-                        index -= binomial(j - 1, i);
-                        break;
-                    }
-                }
+                high = middle - 1;
             }
         }
-        return combination;
+        return low;
     }
 
     public long index(int[] c) {
@@ -95,6 +203,14 @@ public class BinomialCalculator {
         return index;
     }
 
+    /**
+     * {@return the binomial coefficient n choose k}
+     * Intermediate results that do not fit into a {@code long} are computed with {@link BigInteger}.
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @throws ArithmeticException if the result does not fit into a {@code long}
+     */
     public static long computeBinomial(int n, int k) {
         if (n < k) {
             return 0;
@@ -103,9 +219,24 @@ public class BinomialCalculator {
             k = n - k;
         }
 
-        long b = k == 0 ? 1 : n;
-        for (int i = 1; i < k; i++) {
-            b = Math.multiplyExact(b, n - i) / (i + 1);
+        long b = 1;
+        for (int i = 0; i < k; i++) {
+            // b is binomial(n, i), so the division is exact
+            final long product;
+            try {
+                product = Math.multiplyExact(b, n - i);
+            } catch (ArithmeticException e) {
+                return computeBigBinomial(n, k).longValueExact();
+            }
+            b = product / (i + 1);
+        }
+        return b;
+    }
+
+    private static BigInteger computeBigBinomial(int n, int k) {
+        BigInteger b = BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            b = b.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
         }
         return b;
     }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.combinations;
+
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Index for counting the solutions of a sample that cover an interaction.
+ * For each literal, the index stores a bitset of the solutions that contain
+ * it. Thus, the solutions that contain all literals of an interaction are the
+ * intersection of their bitsets, which can be computed with one AND operation
+ * per 64 solutions and literal.
+ * Solutions can be added at any time, but not concurrently to other
+ * operations. Concurrent queries are safe.
+ */
+public class CoverageIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    /** Solutions containing each literal, indexed by {@link #literalIndex(int)}. */
+    private long[][] bitsets = new long[0][];
+
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    public CoverageIndex() {}
+
+    /**
+     * Creates an index for the given solutions.
+     *
+     * @param solutions the solutions
+     */
+    public CoverageIndex(Collection<? extends ABooleanAssignment> solutions) {
+        for (ABooleanAssignment solution : solutions) {
+            add(solution);
+        }
+    }
+
+    private static int literalIndex(int literal) {
+        return literal > 0 ? literal << 1 : ((-literal) << 1) | 1;
+    }
+
+    /**
+     * Adds a solution to this index.
+     *
+     * @param solution the solution
+     * @return the index of the solution in this index
+     */
+    public int add(ABooleanAssignment solution) {
+        return add(solution.get());
+    }
+
+    /**
+     * Adds a solution given by its literals to this index. Zeros are ignored.
+     *
+     * @param literals the literals
+     * @return the index of the solution in this index
+     */
+    public int add(int... literals) {
+        final int solution = size++;
+        final int word = solution >>> 6;
+        final long bit = 1L << solution;
+        for (int literal : literals) {
+            if (literal != 0) {
+                final int index = literalIndex(literal);
+                if (index >= bitsets.length) {
+                    final int length = bitsets.length;
+                    bitsets = Arrays.copyOf(bitsets, Math.max(index + 1, length + (length >> 1)));
+                    Arrays.fill(bitsets, length, bitsets.length, EMPTY);
+                }
+                long[] bitset = bitsets[index];
+                if (word >= bitset.length) {
+                    bitset = Arrays.copyOf(bitset, Math.max(word + 1, bitset.length << 1));
+                    bitsets[index] = bitset;
+                }
+                bitset[word] |= bit;
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * {@return the number of solutions in this index}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether any solution contains all given literals}
+     *
+     * @param literals the literals
+     */
+    public boolean isCovered(int... literals) {
+        if (literals.length == 0) {
+            return size > 0;
+        }
+        final long[][] operands = getBitsets(literals);
+        if (operands == null) {
+            return false;
+        }
+        final int wordCount = getWordCount(operands);
+        for (int word = 0; word < wordCount; word++) {
+            if (intersect(operands, word) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return the number of solutions that contain all given literals}
+     *
+     * @param literals the literals
+     */
+    public int countCovering(int... literals) {
+        if (literals.length == 0) {
+            return size;
+        }
+        final long[][] operands = getBitsets(literals);
+        if (operands == null) {
+            return 0;
+        }
+        final int wordCount = getWordCount(operands);
+        int count = 0;
+        for (int word = 0; word < wordCount; word++) {
+            count += Long.bitCount(intersect(operands, word));
+        }
+        return count;
+    }
+
+    /**
+     * {@return the index of the first solution that contains all given literals, or -1 if there is none}
+     *
+     * @param literals the literals
+     */
+    public int getFirstCovering(int... literals) {
+        if (literals.length == 0) {
+            return size > 0 ? 0 : -1;
+        }
+        final long[][] operands = getBitsets(literals);
+        if (operands == null) {
+            return -1;
+        }
+        final int wordCount = getWordCount(operands);
+        for (int word = 0; word < wordCount; word++) {
+            final long bits = intersect(operands, word);
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@return the bitsets of the given literals, or {@code null} if a literal is not contained in any solution}
+     */
+    private long[][] getBitsets(int[] literals) {
+        final long[][] bitsets = this.bitsets;
+        final long[][] operands = new long[literals.length][];
+        for (int i = 0; i < literals.length; i++) {
+            final int literal = literals[i];
+            if (literal == 0) {
+                return null;
+            }
+            final int index = literalIndex(literal);
+            if (index >= bitsets.length || bitsets[index].length == 0) {
+                return null;
+            }
+            operands[i] = bitsets[index];
+        }
+        return operands;
+    }
+
+    /**
+     * {@return the number of words that can be non-zero in the intersection of the given bitsets}
+     */
+    private static int getWordCount(long[][] operands) {
+        int wordCount = Integer.MAX_VALUE;
+        for (long[] operand : operands) {
+            wordCount = Math.min(wordCount, operand.length);
+        }
+        return wordCount;
+    }
+
+    private static long intersect(long[][] operands, int word) {
+        long bits = operands[0][word];
+        for (int i = 1; i < operands.length && bits != 0; i++) {
+            bits &= operands[i][word];
+        }
+        return bits;
+    }
+}
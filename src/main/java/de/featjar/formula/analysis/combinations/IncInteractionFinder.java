@@ -48,6 +48,7 @@ public class IncInteractionFinder {
 
     protected List<BooleanSolution> succeedingConfs;
     protected List<BooleanSolution> failingConfs;
+    protected CoverageIndex succeedingCoverage;
 
     protected int verifyCounter;
     protected int[] lastMerge;
@@ -55,6 +56,7 @@ public class IncInteractionFinder {
     public void reset() {
         succeedingConfs = new ArrayList<>();
         failingConfs = new ArrayList<>();
+        succeedingCoverage = new CoverageIndex();
     }
 
     public void setUpdater(ConfigurationUpdater updater) {
@@ -270,12 +272,7 @@ public class IncInteractionFinder {
     }
 
     private boolean isCovered(int[] combo) {
-        for (BooleanSolution configuration : succeedingConfs) {
-            if (configuration.containsAll(combo)) {
-                return true;
-            }
-        }
-        return false;
+        return succeedingCoverage.isCovered(combo);
     }
 
     protected Map<Boolean, List<int[]>> group(List<int[]> list, final BooleanSolution newConfig) {
@@ -288,6 +285,7 @@ public class IncInteractionFinder {
         verifyCounter++;
         if (verifier.test(solution) == 0) {
             succeedingConfs.add(solution);
+            succeedingCoverage.add(solution);
             return true;
         } else {
             failingConfs.add(solution);
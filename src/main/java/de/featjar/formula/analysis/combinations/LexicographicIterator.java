@@ -144,22 +144,7 @@ public final class LexicographicIterator<T>
 
     private void setC(long start) {
         combination.combinationIndex = start;
-        long tempIndex = start;
-        for (int i = t; i > 0; i--) {
-            if (tempIndex <= 0) {
-                combination.elementIndices[i - 1] = i - 1;
-            } else {
-                final double root = 1.0 / i;
-                final int p = (int) Math.ceil(Math.pow(tempIndex * binomialCalculator.factorial(i), root));
-                for (int j = p; j <= n; j++) {
-                    if (binomialCalculator.binomial(j, i) > tempIndex) {
-                        combination.elementIndices[i - 1] = j - 1;
-                        tempIndex -= binomialCalculator.binomial(j - 1, i);
-                        break;
-                    }
-                }
-            }
-        }
+        binomialCalculator.combination(start, combination.elementIndices);
     }
 
     @Override
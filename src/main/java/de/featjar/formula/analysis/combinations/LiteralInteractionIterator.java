@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.combinations;
+
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Interaction iterator that enumerates all t-wise literal interactions over a
+ * set of variables, i.e., each combination of t variables with each of its
+ * 2^t polarities, and splits them by their index to process them in parallel.
+ * Interactions are ordered by their variable combination (as in
+ * {@link LexicographicIterator}) and then by their polarity. The literals of
+ * the current interaction are stored in a buffer that is reused for the next
+ * interaction of the same spliterator, so enumerating interactions does not
+ * allocate memory.
+ * Optionally, interactions that contradict fixed literals (e.g., core and dead
+ * features) are skipped.
+ */
+public final class LiteralInteractionIterator<T>
+        implements Spliterator<de.featjar.formula.analysis.combinations.LiteralInteractionIterator.Interaction<T>> {
+
+    public static final class Interaction<U> {
+
+        public final int spliteratorId;
+        public final U environment;
+
+        /** The indices of the chosen variables in the given variable array, in ascending order. */
+        public final int[] elementIndices;
+
+        /**
+         * The literals of this interaction.
+         * This array is overwritten by the next interaction and must be copied to be stored.
+         */
+        public final int[] literals;
+
+        /** The index of this interaction, which determines its variable combination and its polarity. */
+        public long interactionIndex;
+
+        private Interaction(
+                int t, int spliteratorId, long interactionIndex, Function<Interaction<U>, U> environmentCreator) {
+            this.spliteratorId = spliteratorId;
+            this.interactionIndex = interactionIndex;
+            elementIndices = new int[t];
+            literals = new int[t];
+            environment = environmentCreator.apply(this);
+        }
+
+        @Override
+        public String toString() {
+            return "Interaction [literals=" + Arrays.toString(literals) + ", interactionIndex=" + interactionIndex
+                    + "]";
+        }
+    }
+
+    public static Stream<Interaction<Void>> stream(int t, int[] variables) {
+        return StreamSupport.stream(new LiteralInteractionIterator<>(t, variables, null, c -> null), false);
+    }
+
+    public static Stream<Interaction<Void>> parallelStream(int t, int[] variables) {
+        return StreamSupport.stream(new LiteralInteractionIterator<>(t, variables, null, c -> null), true);
+    }
+
+    public static <V> Stream<Interaction<V>> stream(
+            int t, int[] variables, ABooleanAssignment fixedLiterals, Function<Interaction<V>, V> environmentCreator) {
+        return StreamSupport.stream(
+                new LiteralInteractionIterator<>(t, variables, fixedLiterals, environmentCreator), false);
+    }
+
+    public static <V> Stream<Interaction<V>> parallelStream(
+            int t, int[] variables, ABooleanAssignment fixedLiterals, Function<Interaction<V>, V> environmentCreator) {
+        return StreamSupport.stream(
+                new LiteralInteractionIterator<>(t, variables, fixedLiterals, environmentCreator), true);
+    }
+
+    private static final int MINIMUM_SPLIT_SIZE = 10;
+
+    private final int t;
+    private final int[] variables;
+    /** For each variable, 1 or -1 if it is fixed to true or false, respectively, and 0 otherwise. */
+    private final byte[] fixedValues;
+
+    /** The index of the last interaction to process. */
+    private final long end;
+
+    private final BinomialCalculator binomialCalculator;
+    private final Interaction<T> interaction;
+    /** Whether the variable combination must be computed from the interaction index on the next advance. */
+    private boolean isRestart = true;
+
+    private final int[] nextSpliteratorId;
+    private final Function<Interaction<T>, T> environmentCreator;
+
+    /**
+     * Creates a new interaction iterator.
+     *
+     * @param t the number of literals per interaction, at most 30
+     * @param variables the indices of the variables to combine
+     * @param fixedLiterals literals whose negations must not occur in any interaction, may be {@code null}
+     * @param environmentCreator creates an environment for each spliterator
+     */
+    public LiteralInteractionIterator(
+            int t, int[] variables, ABooleanAssignment fixedLiterals, Function<Interaction<T>, T> environmentCreator) {
+        if (t < 0 || t > 30) {
+            throw new IllegalArgumentException(String.format("t must be between 0 and 30, but is %d", t));
+        }
+        this.t = t;
+        this.variables = variables;
+        this.environmentCreator = environmentCreator;
+        nextSpliteratorId = new int[] {1};
+        interaction = new Interaction<>(t, 0, -1, environmentCreator);
+        if (fixedLiterals != null && !fixedLiterals.isEmpty()) {
+            int maxVariable = 0;
+            for (int variable : variables) {
+                maxVariable = Math.max(maxVariable, variable);
+            }
+            fixedValues = new byte[maxVariable + 1];
+            for (int literal : fixedLiterals.get()) {
+                final int variable = Math.abs(literal);
+                if (variable <= maxVariable) {
+                    fixedValues[variable] = (byte) (literal > 0 ? 1 : -1);
+                }
+            }
+        } else {
+            fixedValues = null;
+        }
+        if (t > 0 && t <= variables.length) {
+            binomialCalculator = new BinomialCalculator(t, variables.length);
+            end = Math.multiplyExact(binomialCalculator.binomial(), 1L << t) - 1;
+        } else {
+            binomialCalculator = null;
+            end = -1;
+        }
+    }
+
+    private LiteralInteractionIterator(LiteralInteractionIterator<T> it) {
+        t = it.t;
+        variables = it.variables;
+        fixedValues = it.fixedValues;
+        environmentCreator = it.environmentCreator;
+        nextSpliteratorId = it.nextSpliteratorId;
+        binomialCalculator = it.binomialCalculator;
+
+        final long start = it.interaction.interactionIndex;
+        end = start + (it.end - start) / 2;
+        int spliteratorId;
+        synchronized (nextSpliteratorId) {
+            spliteratorId = nextSpliteratorId[0]++;
+        }
+        interaction = new Interaction<>(t, spliteratorId, start, environmentCreator);
+        it.interaction.interactionIndex = end;
+        it.isRestart = true;
+    }
+
+    @Override
+    public int characteristics() {
+        return fixedValues == null
+                ? ORDERED | DISTINCT | SIZED | NONNULL | IMMUTABLE | SUBSIZED
+                : ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If interactions are skipped because of fixed literals, this is an upper bound.
+     */
+    @Override
+    public long estimateSize() {
+        return end - interaction.interactionIndex;
+    }
+
+    @Override
+    public Spliterator<Interaction<T>> trySplit() {
+        return (end - interaction.interactionIndex < MINIMUM_SPLIT_SIZE)
+                ? null
+                : new LiteralInteractionIterator<>(this);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Interaction<T>> action) {
+        final int polarityMask = (1 << t) - 1;
+        final int[] elementIndices = interaction.elementIndices;
+        final int[] literals = interaction.literals;
+        while (interaction.interactionIndex < end) {
+            final long index = ++interaction.interactionIndex;
+            final int polarity = (int) (index & polarityMask);
+            if (isRestart) {
+                binomialCalculator.combination(index >>> t, elementIndices);
+                isRestart = false;
+            } else if (polarity == 0) {
+                nextCombination(elementIndices);
+            }
+            if (setLiterals(elementIndices, polarity, literals)) {
+                action.accept(interaction);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the given combination by its successor in the order of {@link LexicographicIterator}.
+     */
+    private static void nextCombination(int[] elementIndices) {
+        final int last = elementIndices.length - 1;
+        int i = 0;
+        while (i < last && elementIndices[i] + 1 >= elementIndices[i + 1]) {
+            i++;
+        }
+        elementIndices[i]++;
+        for (int j = i - 1; j >= 0; j--) {
+            elementIndices[j] = j;
+        }
+    }
+
+    /**
+     * Computes the literals of the given variable combination and polarity.
+     * Bit k of the polarity is 0 iff the k-th literal is positive.
+     *
+     * @return {@code false} iff a literal contradicts a fixed literal
+     */
+    private boolean setLiterals(int[] elementIndices, int polarity, int[] literals) {
+        for (int k = 0; k < t; k++) {
+            final int variable = variables[elementIndices[k]];
+            final boolean isPositive = (polarity >>> k & 1) == 0;
+            if (fixedValues != null && fixedValues[variable] == (isPositive ? -1 : 1)) {
+                return false;
+            }
+            literals[k] = isPositive ? variable : -variable;
+        }
+        return true;
+    }
+}
@@ -45,12 +45,16 @@ public class PropInteractionFinder {
 
     private List<BooleanSolution> succeedingConfs;
     private List<BooleanSolution> failingConfs;
+    private CoverageIndex succeedingCoverage;
+    private CoverageIndex failingCoverage;
 
     private int verifyCounter;
 
     public void reset() {
         succeedingConfs = new ArrayList<>();
         failingConfs = new ArrayList<>();
+        succeedingCoverage = new CoverageIndex();
+        failingCoverage = new CoverageIndex();
     }
 
     public void setUpdater(ConfigurationUpdater updater) {
@@ -108,18 +112,8 @@ public class PropInteractionFinder {
                             literals[k] = mask[k] ? l : -l;
                         }
 
-                        int succ = 0;
-                        int fail = 0;
-                        for (BooleanSolution config : failingConfs) {
-                            if (config.containsAll(literals)) {
-                                fail++;
-                            }
-                        }
-                        for (BooleanSolution config : succeedingConfs) {
-                            if (config.containsAll(literals)) {
-                                succ++;
-                            }
-                        }
+                        int succ = succeedingCoverage.countCovering(literals);
+                        int fail = failingCoverage.countCovering(literals);
                         if (fail == 0 && succ == 0) {
                             BooleanSolution config = updater.complete(List.of(literals), null, null)
                                     .orElse(null);
@@ -273,18 +267,8 @@ public class PropInteractionFinder {
         ArrayList<int[]> merge2 = new ArrayList<>();
         for (BooleanClause literals : collect) {
             if (literals != null) {
-                int succ = 0;
-                int fail = 0;
-                for (BooleanSolution config : failingConfs) {
-                    if (config.containsAll(literals)) {
-                        fail++;
-                    }
-                }
-                for (BooleanSolution config : succeedingConfs) {
-                    if (config.containsAll(literals)) {
-                        succ++;
-                    }
-                }
+                int succ = succeedingCoverage.countCovering(literals.get());
+                int fail = failingCoverage.countCovering(literals.get());
                 int[] interaction = Arrays.copyOf(literals.get(), literals.size() + 1);
                 interaction[literals.size()] = support(fail, succ);
                 merge2.add(interaction);
@@ -318,9 +302,11 @@ public class PropInteractionFinder {
         BooleanSolution nonCore = new BooleanSolution(solution.removeAll(core.get()));
         if (verifier.test(solution) == 0) {
             succeedingConfs.add(nonCore);
+            succeedingCoverage.add(nonCore);
             return true;
         } else {
             failingConfs.add(nonCore);
+            failingCoverage.add(nonCore);
             return false;
         }
     }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.combinations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combination iterator that processes combinations in revolving door order,
+ * i.e., consecutive combinations differ in exactly one element, and splits
+ * them by their rank to process them in parallel.
+ * Consumers can therefore maintain state for the current combination
+ * incrementally by using {@link Combination#removedElementIndex} and
+ * {@link Combination#addedElementIndex}. When a combination is not the
+ * successor of the previous one of the same spliterator (i.e., for the first
+ * combination and after a split), both are -1 and the state must be computed
+ * from scratch.
+ */
+public final class RevolvingDoorIterator<T>
+        implements Spliterator<de.featjar.formula.analysis.combinations.RevolvingDoorIterator.Combination<T>> {
+
+    public static final class Combination<U> {
+
+        public final int spliteratorId;
+        public final U environment;
+
+        /** The element indices in ascending order. */
+        public final int[] elementIndices;
+
+        public long combinationIndex;
+
+        /** The element that was removed from the previous combination, or -1. */
+        public int removedElementIndex = -1;
+
+        /** The element that was added to the previous combination, or -1. */
+        public int addedElementIndex = -1;
+
+        private Combination(
+                int t, int spliteratorId, long combinationIndex, Function<Combination<U>, U> environmentCreator) {
+            this.spliteratorId = spliteratorId;
+            this.combinationIndex = combinationIndex;
+            elementIndices = new int[t];
+            environment = environmentCreator.apply(this);
+        }
+
+        public <T> T[] select(List<T> items, T[] selection) {
+            for (int i = 0; i < elementIndices.length; i++) {
+                selection[i] = items.get(elementIndices[i]);
+            }
+            return selection;
+        }
+
+        public int[] select(int[] items) {
+            int[] selection = new int[elementIndices.length];
+            for (int i = 0; i < elementIndices.length; i++) {
+                selection[i] = items[elementIndices[i]];
+            }
+            return selection;
+        }
+
+        /**
+         * {@return whether this combination is the successor of the previous one of the same spliterator}
+         */
+        public boolean isIncremental() {
+            return removedElementIndex >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Combination [elementIndices=" + Arrays.toString(elementIndices) + ", combinationIndex="
+                    + combinationIndex + ", removedElementIndex=" + removedElementIndex + ", addedElementIndex="
+                    + addedElementIndex + "]";
+        }
+    }
+
+    public static Stream<Combination<Void>> stream(int t, int size) {
+        return StreamSupport.stream(new RevolvingDoorIterator<>(t, size, c -> null), false);
+    }
+
+    public static Stream<Combination<Void>> parallelStream(int t, int size) {
+        return StreamSupport.stream(new RevolvingDoorIterator<>(t, size, c -> null), true);
+    }
+
+    public static <V> Stream<Combination<V>> stream(int t, int size, Function<Combination<V>, V> environmentCreator) {
+        return StreamSupport.stream(new RevolvingDoorIterator<>(t, size, environmentCreator), false);
+    }
+
+    public static <V> Stream<Combination<V>> parallelStream(
+            int t, int size, Function<Combination<V>, V> environmentCreator) {
+        return StreamSupport.stream(new RevolvingDoorIterator<>(t, size, environmentCreator), true);
+    }
+
+    private static final int MINIMUM_SPLIT_SIZE = 10;
+
+    private final int t, n;
+    /** The index of the last combination to process. */
+    private final long end;
+
+    private final BinomialCalculator binomialCalculator;
+    private final Combination<T> combination;
+    /** Whether the element indices must be computed from the combination index on the next advance. */
+    private boolean isRestart = true;
+
+    private final int[] nextSpliteratorId;
+    private final Function<Combination<T>, T> environmentCreator;
+
+    public RevolvingDoorIterator(int t, int n, Function<Combination<T>, T> environmentCreator) {
+        this.t = t;
+        this.n = n;
+        this.environmentCreator = environmentCreator;
+        nextSpliteratorId = new int[] {1};
+        combination = new Combination<>(t, 0, -1, environmentCreator);
+        if (t > 0) {
+            binomialCalculator = new BinomialCalculator(t, n);
+            end = binomialCalculator.binomial() - 1;
+        } else {
+            binomialCalculator = null;
+            end = -1;
+        }
+    }
+
+    private RevolvingDoorIterator(RevolvingDoorIterator<T> it) {
+        t = it.t;
+        n = it.n;
+        environmentCreator = it.environmentCreator;
+        nextSpliteratorId = it.nextSpliteratorId;
+        binomialCalculator = it.binomialCalculator;
+
+        final long start = it.combination.combinationIndex;
+        end = start + (it.end - start) / 2;
+        int spliteratorId;
+        synchronized (nextSpliteratorId) {
+            spliteratorId = nextSpliteratorId[0]++;
+        }
+        combination = new Combination<>(t, spliteratorId, start, environmentCreator);
+        it.combination.combinationIndex = end;
+        it.isRestart = true;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SIZED | NONNULL | IMMUTABLE | SUBSIZED;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - combination.combinationIndex;
+    }
+
+    @Override
+    public Spliterator<Combination<T>> trySplit() {
+        return (end - combination.combinationIndex < MINIMUM_SPLIT_SIZE) ? null : new RevolvingDoorIterator<>(this);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Combination<T>> action) {
+        if (combination.combinationIndex >= end) {
+            return false;
+        }
+        combination.combinationIndex++;
+        if (isRestart) {
+            binomialCalculator.revolvingDoorCombination(combination.combinationIndex, combination.elementIndices);
+            combination.removedElementIndex = -1;
+            combination.addedElementIndex = -1;
+            isRestart = false;
+        } else {
+            next();
+        }
+        action.accept(combination);
+        return true;
+    }
+
+    /**
+     * Replaces the current combination by its successor in revolving door order.
+     */
+    private void next() {
+        final int[] c = combination.elementIndices;
+        int j = 0;
+        while (j < t && c[j] == j) {
+            j++;
+        }
+        if (((t - j) & 1) == 0) {
+            if (j == 0) {
+                combination.removedElementIndex = c[0];
+                combination.addedElementIndex = --c[0];
+            } else {
+                // {..., j - 2, j - 1} becomes {..., j - 1, j}
+                combination.removedElementIndex = j > 1 ? j - 2 : j - 1;
+                combination.addedElementIndex = j;
+                c[j - 1] = j;
+                if (j > 1) {
+                    c[j - 2] = j - 1;
+                }
+            }
+        } else {
+            final int successor = j + 1 < t ? c[j + 1] : n;
+            if (successor != c[j] + 1) {
+                combination.removedElementIndex = j == 0 ? c[0] : j - 1;
+                combination.addedElementIndex = c[j] + 1;
+                if (j > 0) {
+                    c[j - 1] = c[j];
+                }
+                c[j]++;
+            } else {
+                combination.removedElementIndex = successor;
+                combination.addedElementIndex = j;
+                c[j + 1] = c[j];
+                c[j] = j;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes text directly to an {@link OutputStream}.
+ * Bytes are collected in a reusable buffer and integers are formatted as ASCII digits without creating strings, so
+ * that arbitrarily large outputs can be written with constant memory.
+ * The given stream is not closed by this writer.
+ */
+public abstract class ABufferedAsciiWriter implements Flushable {
+
+    /** The maximum number of bytes of a formatted integer, including its sign. */
+    private static final int MAXIMUM_INTEGER_LENGTH = 11;
+
+    private final OutputStream outputStream;
+    private final byte[] buffer;
+    private int position;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param outputStream the output stream
+     * @param bufferSize the size of the buffer in bytes
+     */
+    protected ABufferedAsciiWriter(OutputStream outputStream, int bufferSize) {
+        this.outputStream = outputStream;
+        buffer = new byte[Math.max(bufferSize, MAXIMUM_INTEGER_LENGTH)];
+    }
+
+    /**
+     * Writes all buffered bytes to the stream and flushes it.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b the byte
+     * @throws IOException if the stream cannot be written
+     */
+    protected void writeByte(byte b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = b;
+    }
+
+    /**
+     * Writes the given bytes. Arrays larger than the buffer are written to the stream directly.
+     *
+     * @param bytes the bytes
+     * @throws IOException if the stream cannot be written
+     */
+    protected void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                outputStream.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Writes the given integer in decimal notation.
+     *
+     * @param value the integer
+     * @throws IOException if the stream cannot be written
+     */
+    protected void writeInteger(int value) throws IOException {
+        if (buffer.length - position < MAXIMUM_INTEGER_LENGTH) {
+            flushBuffer();
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+        int end = position;
+        do {
+            end++;
+            remaining /= 10;
+        } while (remaining > 0);
+        remaining = Math.abs((long) value);
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        position = end;
+    }
+}
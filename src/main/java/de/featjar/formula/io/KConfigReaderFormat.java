@@ -24,7 +24,7 @@ import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.input.AInputMapper;
-import de.featjar.formula.io.textual.ExpressionParser;
+import de.featjar.formula.io.textual.InfixExpressionParser;
 import de.featjar.formula.io.textual.PropositionalModelSymbols;
 import de.featjar.formula.structure.IExpression;
 import de.featjar.formula.structure.formula.IFormula;
@@ -43,8 +43,7 @@ public class KConfigReaderFormat implements IFormat<IExpression> {
     @Override
     public Result<IExpression> parse(AInputMapper inputMapper) {
         final ArrayList<Problem> problems = new ArrayList<>();
-        final ExpressionParser expressionParser = new ExpressionParser();
-        expressionParser.setSymbols(PropositionalModelSymbols.INSTANCE);
+        final InfixExpressionParser expressionParser = new InfixExpressionParser(PropositionalModelSymbols.INSTANCE);
         return Result.of(
                 new And(inputMapper
                         .get()
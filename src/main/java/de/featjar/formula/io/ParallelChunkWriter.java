@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.stream.IntStream;
+
+/**
+ * Writes output that consists of independently encodable chunks (e.g., ranges of rows).
+ * Chunks are encoded concurrently on the common fork-join pool and written to a channel in order, using a single
+ * gathering write per batch of chunks if the channel is a {@link GatheringByteChannel} (e.g., a
+ * {@link java.nio.channels.FileChannel}). Other channels, such as those created by
+ * {@link java.nio.channels.Channels#newChannel(java.io.OutputStream)}, are written chunk by chunk. Encoded chunks are
+ * written directly from the buffers they were encoded into. To bound memory, only a few chunks per processor are kept
+ * in memory at a time.
+ */
+public final class ParallelChunkWriter {
+
+    /**
+     * Encodes a single chunk.
+     */
+    @FunctionalInterface
+    public interface IChunkEncoder {
+        /**
+         * Writes the given chunk to the given stream.
+         *
+         * @param chunkIndex the index of the chunk
+         * @param outputStream the output stream
+         * @throws IOException if the stream cannot be written
+         */
+        void encode(int chunkIndex, ByteArrayOutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * A stream whose content can be wrapped without copying it.
+     */
+    private static final class ChunkOutputStream extends ByteArrayOutputStream {
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private ParallelChunkWriter() {}
+
+    /**
+     * Encodes the given number of chunks in parallel and writes them to the given channel in order.
+     *
+     * @param channel the channel, which is not closed
+     * @param chunkCount the number of chunks
+     * @param encoder the encoder
+     * @throws IOException if a chunk cannot be encoded or the channel cannot be written
+     */
+    public static void write(WritableByteChannel channel, int chunkCount, IChunkEncoder encoder) throws IOException {
+        final int batchSize = Math.max(1, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+        for (int batchStart = 0; batchStart < chunkCount; batchStart += batchSize) {
+            final int batchEnd = Math.min(chunkCount, batchStart + batchSize);
+            final ByteBuffer[] buffers;
+            try {
+                buffers = IntStream.range(batchStart, batchEnd)
+                        .parallel()
+                        .mapToObj(chunkIndex -> encode(chunkIndex, encoder))
+                        .toArray(ByteBuffer[]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writeFully(channel, buffers);
+        }
+    }
+
+    private static ByteBuffer encode(int chunkIndex, IChunkEncoder encoder) {
+        final ChunkOutputStream outputStream = new ChunkOutputStream();
+        try {
+            encoder.encode(chunkIndex, outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteBuffer();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer[] buffers) throws IOException {
+        if (channel instanceof GatheringByteChannel) {
+            final GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+            int offset = 0;
+            while (offset < buffers.length) {
+                gatheringChannel.write(buffers, offset, buffers.length - offset);
+                while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                    offset++;
+                }
+            }
+        } else {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import java.text.ParseException;
+
+/**
+ * Wraps a {@link ParseException} where checked exceptions cannot be thrown, such as in streams.<br>
+ * Doesn't need to be caught explicitly.
+ */
+public class RuntimeParseException extends RuntimeException {
+
+    private static final long serialVersionUID = 2815208151374375627L;
+
+    public RuntimeParseException(ParseException cause) {
+        super(cause);
+    }
+
+    public RuntimeParseException(String message, ParseException cause) {
+        super(message, cause);
+    }
+
+    /**
+     * {@return the wrapped parse exception}
+     */
+    @Override
+    public ParseException getCause() {
+        return (ParseException) super.getCause();
+    }
+}
@@ -32,11 +32,13 @@ import de.featjar.formula.analysis.bool.BooleanAssignment;
 import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
 import de.featjar.formula.analysis.bool.BooleanClause;
 import de.featjar.formula.analysis.bool.BooleanSolution;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -50,103 +52,91 @@ public class BooleanAssignmentGroupsBinaryFormat extends ABinaryFormat<BooleanAs
     private static final byte BooleanClauseType = 0b0000_0010;
     private static final byte BooleanAssignmentType = 0b0000_0100;
 
+    /** Size of the buffers used for encoding and decoding. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     @Override
     public void write(BooleanAssignmentGroups assignmentSpace, AOutputMapper outputMapper) throws IOException {
-        final OutputStream outputStream = outputMapper.get().getOutputStream();
+        final Encoder encoder = new Encoder(outputMapper.get().getOutputStream());
         final VariableMap variableMap = assignmentSpace.getVariableMap();
         final int maxIndex = variableMap.maxIndex();
-        writeInt(outputStream, maxIndex);
+        final boolean[] hasVariable = new boolean[maxIndex + 1];
+        encoder.putInt(maxIndex);
         for (int i = 1; i <= maxIndex; i++) {
-            writeString(outputStream, variableMap.get(i).orElse(""));
+            hasVariable[i] = variableMap.has(i);
+            encoder.putByteArray(variableMap.get(i).orElse("").getBytes(StandardCharsets.UTF_8));
         }
+        ByteBuffer row = ByteBuffer.allocate(BooleanSolutionRowCodec.getRowSize(maxIndex));
         final List<? extends List<? extends ABooleanAssignment>> groups = assignmentSpace.getGroups();
-        writeInt(outputStream, groups.size());
+        encoder.putInt(groups.size());
         for (List<? extends ABooleanAssignment> group : groups) {
-            writeInt(outputStream, group.size());
+            encoder.putInt(group.size());
             for (ABooleanAssignment assignment : group) {
                 final int[] literals = assignment.get();
                 if (assignment instanceof BooleanSolution) {
-                    writeByte(outputStream, BooleanSolutionType);
-                    final BitSet bs = new BitSet(2 * maxIndex);
-                    for (int i = 0, bsIndex = 0; i < literals.length; i++) {
-                        final int l = literals[i];
-                        if (l == 0) {
-                            bs.set(bsIndex++, false);
-                            bs.set(bsIndex++, variableMap.has(i + 1));
-                        } else {
-                            bs.set(bsIndex++, true);
-                            bs.set(bsIndex++, l > 0);
-                        }
+                    encoder.putByte(BooleanSolutionType);
+                    if (row.capacity() < BooleanSolutionRowCodec.getRowSize(literals.length)) {
+                        row = ByteBuffer.allocate(BooleanSolutionRowCodec.getRowSize(literals.length));
                     }
-                    writeByteArray(outputStream, bs.toByteArray());
+                    final int rowLength = BooleanSolutionRowCodec.encode(literals, hasVariable, row, 0);
+                    encoder.putInt(rowLength);
+                    encoder.putBytes(row.array(), rowLength);
                 } else if (assignment instanceof BooleanClause || assignment instanceof BooleanAssignment) {
-                    writeByte(outputStream, BooleanClauseType);
-                    writeInt(outputStream, literals.length);
-                    for (int l : literals) {
-                        writeInt(outputStream, l);
-                    }
+                    encoder.putByte(BooleanClauseType);
+                    encoder.putInt(literals.length);
+                    encoder.putInts(literals, literals.length);
                 } else {
                     throw new IllegalArgumentException(assignment.getClass().toString());
                 }
             }
         }
-        outputStream.flush();
+        encoder.flush();
     }
 
     @Override
     public Result<BooleanAssignmentGroups> parse(AInputMapper inputMapper) {
-        final InputStream inputStream = inputMapper.get().getInputStream();
+        final Decoder decoder = new Decoder(inputMapper.get().getInputStream());
         try {
             final VariableMap variableMap = new VariableMap();
-            final int maxIndex = readInt(inputStream);
+            final int maxIndex = decoder.getInt();
             for (int i = 1; i <= maxIndex; i++) {
-                final String name = readString(inputStream);
+                final String name = new String(decoder.getByteArray(), StandardCharsets.UTF_8);
                 if (!name.isEmpty()) {
                     variableMap.add(i, name);
                 }
             }
-            final int numberOfGroups = readInt(inputStream);
+            ByteBuffer row = ByteBuffer.allocate(BooleanSolutionRowCodec.getRowSize(maxIndex));
+            final int numberOfGroups = decoder.getInt();
             final ArrayList<List<ABooleanAssignment>> groups = new ArrayList<>(numberOfGroups);
             for (int i = 0; i < numberOfGroups; i++) {
-                final int numberOfAssignment = readInt(inputStream);
+                final int numberOfAssignment = decoder.getInt();
                 final ArrayList<ABooleanAssignment> group = new ArrayList<>(numberOfAssignment);
                 for (int j = 0; j < numberOfAssignment; j++) {
-                    final byte type = readByte(inputStream);
+                    final byte type = decoder.getByte();
                     final int[] literals;
                     switch (type) {
                         case BooleanSolutionType:
                             {
-                                final BitSet bs = BitSet.valueOf(readByteArray(inputStream));
-                                literals = new int[maxIndex];
-                                int bsIndex = 0;
-                                for (int k = 0; k < maxIndex; k++) {
-                                    if (bs.get(bsIndex)) {
-                                        literals[k] = bs.get(bsIndex + 1) ? (k + 1) : -(k + 1);
-                                    } else {
-                                        literals[k] = 0;
-                                    }
-                                    bsIndex += 2;
+                                final int rowLength = decoder.getLength();
+                                if (row.capacity() < rowLength) {
+                                    row = ByteBuffer.allocate(rowLength);
                                 }
+                                decoder.getBytes(row.array(), rowLength);
+                                literals = BooleanSolutionRowCodec.decode(row, 0, rowLength, new int[maxIndex]);
                                 group.add(new BooleanSolution(literals, false));
                             }
                             break;
                         case BooleanClauseType:
                             {
-                                final int numLiterals = readInt(inputStream);
-                                literals = new int[numLiterals];
-                                for (int k = 0; k < numLiterals; k++) {
-                                    literals[k] = readInt(inputStream);
-                                }
+                                literals = new int[decoder.getLength()];
+                                decoder.getInts(literals, literals.length);
                                 group.add(new BooleanClause(literals, false));
                             }
                             break;
                         case BooleanAssignmentType:
                             {
-                                final int numLiterals = readInt(inputStream);
-                                literals = new int[numLiterals];
-                                for (int k = 0; k < numLiterals; k++) {
-                                    literals[k] = readInt(inputStream);
-                                }
+                                literals = new int[decoder.getLength()];
+                                decoder.getInts(literals, literals.length);
                                 group.add(new BooleanAssignment(literals));
                             }
                             break;
@@ -162,6 +152,143 @@ public class BooleanAssignmentGroupsBinaryFormat extends ABinaryFormat<BooleanAs
         }
     }
 
+    /**
+     * Writes big-endian values to an output stream through a buffer, such that arrays are copied in bulk.
+     */
+    private static final class Encoder {
+        private final OutputStream outputStream;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Encoder(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        private void ensureRemaining(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            outputStream.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        private void putByte(byte value) throws IOException {
+            ensureRemaining(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        private void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putInts(int[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRemaining(Integer.BYTES);
+                final int count = Math.min(buffer.remaining() / Integer.BYTES, length - offset);
+                buffer.asIntBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+            }
+        }
+
+        private void putBytes(byte[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRemaining(Byte.BYTES);
+                final int count = Math.min(buffer.remaining(), length - offset);
+                buffer.put(values, offset, count);
+                offset += count;
+            }
+        }
+
+        private void putByteArray(byte[] values) throws IOException {
+            putInt(values.length);
+            putBytes(values, values.length);
+        }
+
+        private void flush() throws IOException {
+            drain();
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * Reads big-endian values from an input stream through a buffer, such that arrays are copied in bulk.
+     */
+    private static final class Decoder {
+        private final InputStream inputStream;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+
+        private Decoder(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        private void ensureRemaining(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                buffer.compact();
+                while (buffer.position() < size) {
+                    final int count =
+                            inputStream.read(buffer.array(), buffer.position(), buffer.capacity() - buffer.position());
+                    if (count < 0) {
+                        throw new EOFException();
+                    }
+                    buffer.position(buffer.position() + count);
+                }
+                buffer.flip();
+            }
+        }
+
+        private byte getByte() throws IOException {
+            ensureRemaining(Byte.BYTES);
+            return buffer.get();
+        }
+
+        private int getInt() throws IOException {
+            ensureRemaining(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        private void getInts(int[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRemaining(Integer.BYTES);
+                final int count = Math.min(buffer.remaining() / Integer.BYTES, length - offset);
+                buffer.asIntBuffer().get(values, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+            }
+        }
+
+        private void getBytes(byte[] values, int length) throws IOException {
+            int offset = 0;
+            while (offset < length) {
+                ensureRemaining(Byte.BYTES);
+                final int count = Math.min(buffer.remaining(), length - offset);
+                buffer.get(values, offset, count);
+                offset += count;
+            }
+        }
+
+        private int getLength() throws IOException {
+            final int length = getInt();
+            if (length < 0) {
+                throw new IOException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        private byte[] getByteArray() throws IOException {
+            final int length = getLength();
+            final byte[] values = new byte[length];
+            getBytes(values, length);
+            return values;
+        }
+    }
+
     @Override
     public boolean supportsSerialize() {
         return true;
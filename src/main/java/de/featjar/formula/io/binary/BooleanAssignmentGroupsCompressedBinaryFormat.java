@@ -0,0 +1,515 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.binary;
+
+import de.featjar.base.data.Problem.Severity;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.binary.ABinaryFormat;
+import de.featjar.base.io.format.ParseProblem;
+import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.output.AOutputMapper;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads / Writes a list of assignments in a compact binary format (version 2).
+ * In contrast to {@link BooleanAssignmentGroupsBinaryFormat}, literals of
+ * clauses and assignments are stored as zigzag-encoded varints of the
+ * differences between consecutive literals, which is small for sorted clauses,
+ * and solutions are stored as rows of two bits per variable.
+ * Each group is stored in a separate block, which is optionally compressed with
+ * Deflate. The header contains the offset of each block, which allows to read
+ * a single group from a file with {@link #parseGroup(Path, int)}.
+ *
+ * <p>
+ * Layout: magic bytes, version, flags, variable names, group count, block
+ * offsets relative to the end of the header, blocks. A block contains the
+ * number of assignments followed by a type byte, the number of literals, and
+ * the encoded literals for each assignment. Compressed blocks are prefixed by
+ * their uncompressed size.
+ * </p>
+ */
+public class BooleanAssignmentGroupsCompressedBinaryFormat extends ABinaryFormat<BooleanAssignmentGroups> {
+
+    private static final byte[] MAGIC = {'F', 'J', 'B', 'A'};
+    private static final byte VERSION = 2;
+    private static final byte COMPRESSED_FLAG = 0b0000_0001;
+
+    private static final byte BooleanSolutionType = 0b0000_0001;
+    private static final byte BooleanClauseType = 0b0000_0010;
+    private static final byte BooleanAssignmentType = 0b0000_0100;
+
+    private final boolean isCompressing;
+
+    /**
+     * Creates a new format that compresses blocks.
+     */
+    public BooleanAssignmentGroupsCompressedBinaryFormat() {
+        this(true);
+    }
+
+    /**
+     * Creates a new format.
+     *
+     * @param isCompressing whether to compress blocks when writing
+     */
+    public BooleanAssignmentGroupsCompressedBinaryFormat(boolean isCompressing) {
+        this.isCompressing = isCompressing;
+    }
+
+    @Override
+    public void write(BooleanAssignmentGroups assignmentSpace, AOutputMapper outputMapper) throws IOException {
+        final OutputStream outputStream = outputMapper.get().getOutputStream();
+        final VariableMap variableMap = assignmentSpace.getVariableMap();
+        final int maxIndex = variableMap.maxIndex();
+        final List<? extends List<? extends ABooleanAssignment>> groups = assignmentSpace.getGroups();
+
+        final List<byte[]> blocks = new ArrayList<>(groups.size());
+        final BlockWriter blockWriter = new BlockWriter();
+        for (List<? extends ABooleanAssignment> group : groups) {
+            blockWriter.clear();
+            writeGroup(blockWriter, group, maxIndex);
+            blocks.add(isCompressing ? compress(blockWriter) : blockWriter.toByteArray());
+        }
+
+        outputStream.write(MAGIC);
+        writeByte(outputStream, VERSION);
+        writeByte(outputStream, isCompressing ? COMPRESSED_FLAG : 0);
+        writeInt(outputStream, maxIndex);
+        for (int i = 1; i <= maxIndex; i++) {
+            writeString(outputStream, variableMap.get(i).orElse(""));
+        }
+        writeInt(outputStream, blocks.size());
+        long offset = 0;
+        for (byte[] block : blocks) {
+            writeLong(outputStream, offset);
+            offset += block.length;
+        }
+        writeLong(outputStream, offset);
+        for (byte[] block : blocks) {
+            outputStream.write(block);
+        }
+        outputStream.flush();
+    }
+
+    private static byte[] readFully(InputStream inputStream, int length) throws IOException {
+        final byte[] bytes = inputStream.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    private void writeLong(OutputStream outputStream, long value) throws IOException {
+        writeInt(outputStream, (int) (value >>> 32));
+        writeInt(outputStream, (int) value);
+    }
+
+    private long readLong(InputStream inputStream) throws IOException {
+        final long high = readInt(inputStream);
+        return (high << 32) | (readInt(inputStream) & 0xFFFF_FFFFL);
+    }
+
+    private static void writeGroup(BlockWriter blockWriter, List<? extends ABooleanAssignment> group, int maxIndex) {
+        blockWriter.writeVarint(group.size());
+        final ByteBuffer row = ByteBuffer.allocate(BooleanSolutionRowCodec.getRowSize(maxIndex));
+        for (ABooleanAssignment assignment : group) {
+            final int[] literals = assignment.get();
+            if (assignment instanceof BooleanSolution) {
+                if (literals.length > maxIndex) {
+                    throw new IllegalArgumentException(String.format(
+                            "Solution with %d variables exceeds %d variables", literals.length, maxIndex));
+                }
+                blockWriter.writeByte(BooleanSolutionType);
+                blockWriter.writeVarint(literals.length);
+                BooleanSolutionRowCodec.encode(literals, null, row, 0);
+                blockWriter.writeBytes(row.array(), BooleanSolutionRowCodec.getRowSize(literals.length));
+            } else if (assignment instanceof BooleanClause || assignment instanceof BooleanAssignment) {
+                blockWriter.writeByte(
+                        assignment instanceof BooleanClause ? BooleanClauseType : BooleanAssignmentType);
+                blockWriter.writeVarint(literals.length);
+                int previous = 0;
+                for (int l : literals) {
+                    blockWriter.writeVarint(zigzag(l - previous));
+                    previous = l;
+                }
+            } else {
+                throw new IllegalArgumentException(assignment.getClass().toString());
+            }
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] compress(BlockWriter blockWriter) {
+        final BlockWriter compressed = new BlockWriter();
+        compressed.writeVarint(blockWriter.size);
+        final Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(blockWriter.bytes, 0, blockWriter.size);
+            deflater.finish();
+            final byte[] buffer = new byte[1 << 16];
+            while (!deflater.finished()) {
+                final int length = deflater.deflate(buffer);
+                compressed.writeBytes(buffer, length);
+            }
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] block) throws DataFormatException {
+        final BlockReader reader = new BlockReader(block);
+        final int size = reader.readVarint();
+        final byte[] bytes = new byte[size];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(block, reader.position, block.length - reader.position);
+            int length = 0;
+            while (length < size) {
+                final int inflated = inflater.inflate(bytes, length, size - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated block");
+                }
+                length += inflated;
+            }
+        } finally {
+            inflater.end();
+        }
+        return bytes;
+    }
+
+    @Override
+    public Result<BooleanAssignmentGroups> parse(AInputMapper inputMapper) {
+        final InputStream inputStream = inputMapper.get().getInputStream();
+        try {
+            final Header header = readHeader(inputStream);
+            if (header.problem != null) {
+                return Result.empty(header.problem);
+            }
+            final ArrayList<List<ABooleanAssignment>> groups = new ArrayList<>(header.offsets.length - 1);
+            for (int i = 0; i < header.offsets.length - 1; i++) {
+                final long blockSize = header.offsets[i + 1] - header.offsets[i];
+                if (blockSize < 0 || blockSize > Integer.MAX_VALUE) {
+                    return Result.empty(new ParseProblem("Invalid block offsets", Severity.ERROR, 0));
+                }
+                groups.add(readGroup(header, readFully(inputStream, (int) blockSize)));
+            }
+            return Result.of(new BooleanAssignmentGroups(header.variableMap, groups));
+        } catch (final DataFormatException | RuntimeException e) {
+            return Result.empty(new ParseProblem(e.getMessage(), Severity.ERROR, 0));
+        } catch (final IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    /**
+     * Reads a single group from the given file in this format.
+     * Only the header and the block of the group are read; all other blocks are skipped.
+     *
+     * @param path the file in this format
+     * @param groupIndex the index of the group
+     * @return the variable map and the given group
+     */
+    public Result<BooleanAssignmentGroups> parseGroup(Path path, int groupIndex) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final CountingInputStream inputStream =
+                    new CountingInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            final Header header = readHeader(inputStream);
+            if (header.problem != null) {
+                return Result.empty(header.problem);
+            }
+            if (groupIndex < 0 || groupIndex >= header.offsets.length - 1) {
+                return Result.empty(new IndexOutOfBoundsException(String.format(
+                        "%d is out of range for %d groups", groupIndex, header.offsets.length - 1)));
+            }
+            final long start = inputStream.count + header.offsets[groupIndex];
+            final long end = inputStream.count + header.offsets[groupIndex + 1];
+            if (start > end || end > channel.size() || end - start > Integer.MAX_VALUE) {
+                return Result.empty(new ParseProblem("Invalid block offsets", Severity.ERROR, 0));
+            }
+            final ByteBuffer block = ByteBuffer.allocate((int) (end - start));
+            while (block.hasRemaining()) {
+                if (channel.read(block, start + block.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            return Result.of(
+                    new BooleanAssignmentGroups(header.variableMap, List.of(readGroup(header, block.array()))));
+        } catch (final DataFormatException | RuntimeException e) {
+            return Result.empty(new ParseProblem(e.getMessage(), Severity.ERROR, 0));
+        } catch (final IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    private static final class Header {
+        private ParseProblem problem;
+        private boolean isCompressed;
+        private int maxIndex;
+        private VariableMap variableMap;
+        private long[] offsets;
+    }
+
+    private Header readHeader(InputStream inputStream) throws IOException {
+        final Header header = new Header();
+        if (!Arrays.equals(MAGIC, readFully(inputStream, MAGIC.length))) {
+            header.problem = new ParseProblem("Unknown format", Severity.ERROR, 0);
+            return header;
+        }
+        final byte version = readByte(inputStream);
+        if (version != VERSION) {
+            header.problem = new ParseProblem("Unsupported version " + version, Severity.ERROR, 0);
+            return header;
+        }
+        header.isCompressed = (readByte(inputStream) & COMPRESSED_FLAG) != 0;
+        header.variableMap = new VariableMap();
+        header.maxIndex = readInt(inputStream);
+        for (int i = 1; i <= header.maxIndex; i++) {
+            final String name = readString(inputStream);
+            if (!name.isEmpty()) {
+                header.variableMap.add(i, name);
+            }
+        }
+        final int numberOfGroups = readInt(inputStream);
+        header.offsets = new long[numberOfGroups + 1];
+        for (int i = 0; i <= numberOfGroups; i++) {
+            header.offsets[i] = readLong(inputStream);
+        }
+        return header;
+    }
+
+    private List<ABooleanAssignment> readGroup(Header header, byte[] block) throws DataFormatException {
+        final BlockReader reader = new BlockReader(header.isCompressed ? decompress(block) : block);
+        final ByteBuffer rows = ByteBuffer.wrap(reader.bytes);
+        final int numberOfAssignments = reader.readVarint();
+        final ArrayList<ABooleanAssignment> group = new ArrayList<>(Math.min(numberOfAssignments, 1 << 16));
+        for (int j = 0; j < numberOfAssignments; j++) {
+            final byte type = reader.readByte();
+            switch (type) {
+                case BooleanSolutionType:
+                    {
+                        final int variableCount = reader.readVarint();
+                        if (variableCount > header.maxIndex) {
+                            throw new IllegalArgumentException(String.format(
+                                    "Solution with %d variables exceeds %d variables",
+                                    variableCount, header.maxIndex));
+                        }
+                        final int rowSize = BooleanSolutionRowCodec.getRowSize(variableCount);
+                        final int start = reader.skip(rowSize);
+                        final int[] literals =
+                                BooleanSolutionRowCodec.decode(rows, start, rowSize, new int[variableCount]);
+                        group.add(new BooleanSolution(literals, false));
+                    }
+                    break;
+                case BooleanClauseType:
+                    group.add(new BooleanClause(readLiterals(reader), false));
+                    break;
+                case BooleanAssignmentType:
+                    group.add(new BooleanAssignment(readLiterals(reader)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unkown type " + type);
+            }
+        }
+        return group;
+    }
+
+    private static int[] readLiterals(BlockReader reader) {
+        final int[] literals = new int[reader.readVarint()];
+        int previous = 0;
+        for (int k = 0; k < literals.length; k++) {
+            previous += unzigzag(reader.readVarint());
+            literals[k] = previous;
+        }
+        return literals;
+    }
+
+    /**
+     * Counts the bytes read, so that the end of the header is known despite buffering.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int length = super.read(b, off, len);
+            if (length > 0) {
+                count += length;
+            }
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long length = super.skip(n);
+            count += length;
+            return length;
+        }
+    }
+
+    private static final class BlockWriter {
+        private byte[] bytes = new byte[1 << 12];
+        private int size;
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length + (bytes.length >> 1)));
+            }
+        }
+
+        private void writeByte(byte b) {
+            ensureCapacity(size + 1);
+            bytes[size++] = b;
+        }
+
+        private void writeBytes(byte[] b) {
+            writeBytes(b, b.length);
+        }
+
+        private void writeBytes(byte[] b, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+
+        /**
+         * Writes an unsigned integer in 7-bit groups, least significant group first.
+         */
+        private void writeVarint(int value) {
+            ensureCapacity(size + 5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class BlockReader {
+        private final byte[] bytes;
+        private int position;
+
+        private BlockReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private byte readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Unexpected end of block");
+            }
+            return bytes[position++];
+        }
+
+        /**
+         * Skips the given number of bytes and returns the position of the first one.
+         */
+        private int skip(int length) {
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Unexpected end of block");
+            }
+            final int start = position;
+            position += length;
+            return start;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid varint");
+        }
+    }
+
+    @Override
+    public boolean supportsSerialize() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsParse() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "BooleanAssignmentCompressedBinary";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "bin2";
+    }
+}
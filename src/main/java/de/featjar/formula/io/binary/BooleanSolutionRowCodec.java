@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.binary;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Encodes solutions as rows of two bits per variable, as used by {@link BooleanAssignmentGroupsBinaryFormat},
+ * {@link BooleanAssignmentGroupsCompressedBinaryFormat}, and {@link MappedBooleanSolutionStore}.
+ * Bit 0 of a variable is set if it is assigned. Bit 1 is set if it is positive or, if it is not assigned, if it is
+ * contained in the variable map. Variables are stored in the same byte order as {@link BitSet#toByteArray()},
+ * such that the bits of variable {@code i} are at position {@code 2 * (i - 1)}.
+ */
+final class BooleanSolutionRowCodec {
+
+    private BooleanSolutionRowCodec() {}
+
+    /**
+     * {@return the number of bytes of a row with the given number of variables}
+     *
+     * @param variableCount the number of variables
+     */
+    static int getRowSize(int variableCount) {
+        return (2 * variableCount + 7) / 8;
+    }
+
+    /**
+     * Encodes the given literals into a row.
+     * Overwrites exactly {@link #getRowSize(int) getRowSize(literals.length)} bytes of the buffer.
+     *
+     * @param literals the literals, such that index {@code i - 1} contains the literal of variable {@code i} or 0
+     * @param hasVariable whether a variable is contained in the variable map, indexed by variable, or {@code null} if
+     *     no unassigned variable should be marked
+     * @param row the buffer to write to
+     * @param offset the position of the row in the buffer
+     * @return the number of bytes of the row without trailing zeros
+     */
+    static int encode(int[] literals, boolean[] hasVariable, ByteBuffer row, int offset) {
+        int length = 0;
+        int bits = 0;
+        for (int i = 0; i < literals.length; i++) {
+            final int l = literals[i];
+            final int variableBits = l == 0
+                    ? (hasVariable != null && i + 1 < hasVariable.length && hasVariable[i + 1] ? 0b10 : 0b00)
+                    : l > 0 ? 0b11 : 0b01;
+            bits |= variableBits << ((i & 3) << 1);
+            if ((i & 3) == 3 || i == literals.length - 1) {
+                row.put(offset + (i >>> 2), (byte) bits);
+                if (bits != 0) {
+                    length = (i >>> 2) + 1;
+                }
+                bits = 0;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes a row into the given literals.
+     * Variables that are not contained in the row are not assigned.
+     *
+     * @param row the buffer to read from
+     * @param offset the position of the row in the buffer
+     * @param rowLength the number of bytes of the row
+     * @param literals the array to write the literals to, such that index {@code i - 1} contains the literal of
+     *     variable {@code i} or 0
+     * @return the given array
+     */
+    static int[] decode(ByteBuffer row, int offset, int rowLength, int[] literals) {
+        final int variableCount = Math.min(literals.length, rowLength << 2);
+        for (int i = 0; i < variableCount; i++) {
+            literals[i] = toLiteral(row.get(offset + (i >>> 2)) >>> ((i & 3) << 1), i + 1);
+        }
+        for (int i = variableCount; i < literals.length; i++) {
+            literals[i] = 0;
+        }
+        return literals;
+    }
+
+    /**
+     * {@return the literal of the given variable in a row, or 0 if it is not assigned}
+     *
+     * @param row the buffer to read from
+     * @param offset the position of the row in the buffer
+     * @param variable the variable
+     */
+    static int decode(ByteBuffer row, int offset, int variable) {
+        return toLiteral(row.get(offset + ((variable - 1) >>> 2)) >>> (((variable - 1) & 3) << 1), variable);
+    }
+
+    private static int toLiteral(int bits, int variable) {
+        return (bits & 0b01) == 0 ? 0 : (bits & 0b10) != 0 ? variable : -variable;
+    }
+}
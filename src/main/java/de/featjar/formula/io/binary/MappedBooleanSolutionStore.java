@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.binary;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores solutions in a memory-mapped file with a fixed number of bytes per
+ * row, such that single solutions can be accessed by their index without
+ * reading the entire file.
+ * Each variable is stored with two bits as in
+ * {@link BooleanAssignmentGroupsBinaryFormat} (i.e., whether it is assigned and
+ * whether it is positive or, if it is not assigned, whether it is contained in
+ * the variable map). The file is mapped in segments that are only paged in
+ * when accessed, so that several processes can share a sample on disk.
+ * New rows are appended at the end; the number of rows is stored in the header
+ * and may be smaller than the number of rows that fit into the file.
+ * The file grows in steps of at most 1 MiB, so it is never
+ * much larger than the rows it contains.
+ * An instance is not thread-safe.
+ *
+ * <p>
+ * Layout: magic bytes, version, number of rows (8 bytes), number of variables,
+ * offset of the first row, variable names, rows.
+ * </p>
+ */
+public class MappedBooleanSolutionStore implements AutoCloseable {
+
+    private static final byte[] MAGIC = {'F', 'J', 'S', 'S'};
+    private static final byte VERSION = 1;
+
+    private static final int ROW_COUNT_POSITION = 8;
+    private static final int VARIABLE_COUNT_POSITION = 16;
+    private static final int DATA_OFFSET_POSITION = 20;
+    private static final int NAMES_POSITION = 24;
+
+    /** Default maximum number of bytes per mapped segment. */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    /** Maximum number of bytes by which a writable segment is extended at once. */
+    private static final int GROWTH_SIZE = 1 << 20;
+
+    /**
+     * A view on a row of a store.
+     * The view reads directly from the mapped file and remains valid as long as the store is open.
+     */
+    public static final class Row {
+        private final ByteBuffer segment;
+        private final int offset;
+        private final int variableCount;
+        private final long index;
+
+        private Row(ByteBuffer segment, int offset, int variableCount, long index) {
+            this.segment = segment;
+            this.offset = offset;
+            this.variableCount = variableCount;
+            this.index = index;
+        }
+
+        /**
+         * {@return the index of this row in the store}
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * {@return the number of variables of this row}
+         */
+        public int size() {
+            return variableCount;
+        }
+
+        /**
+         * {@return the literal of the given variable, or 0 if it is not assigned}
+         *
+         * @param variable the variable
+         */
+        public int get(int variable) {
+            if (variable < 1 || variable > variableCount) {
+                throw new IndexOutOfBoundsException(
+                        String.format("%d is out of range for %d variables", variable, variableCount));
+            }
+            return BooleanSolutionRowCodec.decode(segment, offset, variable);
+        }
+
+        /**
+         * Copies the literals of this row to the given array, such that index {@code i - 1} contains the literal of
+         * variable {@code i}.
+         *
+         * @param literals the array
+         * @return the given array
+         */
+        public int[] copyTo(int[] literals) {
+            return BooleanSolutionRowCodec.decode(
+                    segment, offset, BooleanSolutionRowCodec.getRowSize(variableCount), literals);
+        }
+
+        /**
+         * {@return a copy of this row as a solution}
+         */
+        public BooleanSolution toSolution() {
+            return new BooleanSolution(copyTo(new int[variableCount]), false);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(copyTo(new int[variableCount]));
+        }
+    }
+
+    private final FileChannel channel;
+    private final boolean isWritable;
+    private final MappedByteBuffer header;
+    private final VariableMap variableMap;
+    private final boolean[] hasVariable;
+    private final int variableCount;
+    private final int rowSize;
+    private final long dataOffset;
+    private final int segmentRowCount;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * Creates a new store in the given file, replacing any existing file.
+     *
+     * @param path the file
+     * @param variableMap the variables of all solutions
+     * @return the store, which can be written to
+     * @throws IOException if the file cannot be written
+     */
+    public static MappedBooleanSolutionStore create(Path path, VariableMap variableMap) throws IOException {
+        return create(path, variableMap, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new store in the given file, replacing any existing file.
+     *
+     * @param path the file
+     * @param variableMap the variables of all solutions
+     * @param segmentSize the maximum number of bytes per mapped segment
+     * @return the store, which can be written to
+     * @throws IOException if the file cannot be written
+     */
+    public static MappedBooleanSolutionStore create(Path path, VariableMap variableMap, int segmentSize)
+            throws IOException {
+        final int variableCount = variableMap.maxIndex();
+        final List<byte[]> names = new ArrayList<>(variableCount);
+        int headerSize = NAMES_POSITION;
+        for (int i = 1; i <= variableCount; i++) {
+            final byte[] name = variableMap.get(i).orElse("").getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            headerSize += Integer.BYTES + name.length;
+        }
+        final int dataOffset = (headerSize + 7) & ~7;
+        final ByteBuffer header = ByteBuffer.allocate(dataOffset);
+        header.put(MAGIC);
+        header.put(VERSION);
+        header.putLong(ROW_COUNT_POSITION, 0);
+        header.putInt(VARIABLE_COUNT_POSITION, variableCount);
+        header.putInt(DATA_OFFSET_POSITION, dataOffset);
+        header.position(NAMES_POSITION);
+        for (byte[] name : names) {
+            header.putInt(name.length);
+            header.put(name);
+        }
+        header.rewind();
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+        return open(path, true, segmentSize);
+    }
+
+    /**
+     * Opens an existing store.
+     *
+     * @param path the file
+     * @param isWritable whether rows can be appended
+     * @return the store
+     * @throws IOException if the file cannot be read or is not a store
+     */
+    public static MappedBooleanSolutionStore open(Path path, boolean isWritable) throws IOException {
+        return open(path, isWritable, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens an existing store.
+     *
+     * @param path the file
+     * @param isWritable whether rows can be appended
+     * @param segmentSize the maximum number of bytes per mapped segment
+     * @return the store
+     * @throws IOException if the file cannot be read or is not a store
+     */
+    public static MappedBooleanSolutionStore open(Path path, boolean isWritable, int segmentSize)
+            throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        final FileChannel channel = isWritable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedBooleanSolutionStore(channel, isWritable, segmentSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private MappedBooleanSolutionStore(FileChannel channel, boolean isWritable, int segmentSize)
+            throws IOException {
+        this.channel = channel;
+        this.isWritable = isWritable;
+        if (channel.size() < NAMES_POSITION) {
+            throw new IOException("Not a solution store");
+        }
+        header = channel.map(isWritable ? MapMode.READ_WRITE : MapMode.READ_ONLY, 0, NAMES_POSITION);
+        final byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a solution store");
+        }
+        final byte version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version);
+        }
+        variableCount = header.getInt(VARIABLE_COUNT_POSITION);
+        dataOffset = header.getInt(DATA_OFFSET_POSITION);
+        if (variableCount < 0 || dataOffset < NAMES_POSITION || dataOffset > channel.size()) {
+            throw new IOException("Invalid header");
+        }
+        rowSize = Math.max(1, BooleanSolutionRowCodec.getRowSize(variableCount));
+        segmentRowCount = Math.max(1, segmentSize / rowSize);
+
+        final ByteBuffer names = channel.map(MapMode.READ_ONLY, NAMES_POSITION, dataOffset - NAMES_POSITION);
+        variableMap = new VariableMap();
+        hasVariable = new boolean[variableCount + 1];
+        for (int i = 1; i <= variableCount; i++) {
+            final byte[] name = new byte[names.getInt()];
+            names.get(name);
+            if (name.length > 0) {
+                variableMap.add(i, new String(name, StandardCharsets.UTF_8));
+                hasVariable[i] = true;
+            }
+        }
+    }
+
+    /**
+     * {@return the variables of all rows}
+     */
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * {@return the number of variables of each row}
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * {@return the number of rows}
+     * Includes rows appended by other processes to the same file.
+     */
+    public long size() {
+        return header.getLong(ROW_COUNT_POSITION);
+    }
+
+    /**
+     * {@return a view on the given row}
+     *
+     * @param index the index of the row
+     * @throws IOException if the file cannot be read
+     */
+    public Row get(long index) throws IOException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(String.format("%d is out of range for %d rows", index, size()));
+        }
+        final int segmentIndex = (int) (index / segmentRowCount);
+        final int offset = (int) (index % segmentRowCount) * rowSize;
+        return new Row(getSegment(segmentIndex, offset + rowSize), offset, variableCount, index);
+    }
+
+    /**
+     * {@return a copy of the given row as a solution}
+     *
+     * @param index the index of the row
+     * @throws IOException if the file cannot be read
+     */
+    public BooleanSolution getSolution(long index) throws IOException {
+        return get(index).toSolution();
+    }
+
+    /**
+     * {@return copies of the given range of rows as a solution list}
+     *
+     * @param start the index of the first row (inclusive)
+     * @param end the index of the last row (exclusive)
+     * @throws IOException if the file cannot be read
+     */
+    public BooleanSolutionList getSolutions(long start, long end) throws IOException {
+        final BooleanSolutionList solutionList = new BooleanSolutionList((int) Math.max(0, end - start));
+        for (long i = start; i < end; i++) {
+            solutionList.add(getSolution(i));
+        }
+        return solutionList;
+    }
+
+    /**
+     * Appends the given solution as a new row.
+     *
+     * @param solution the solution
+     * @return the index of the new row
+     * @throws IOException if the file cannot be written
+     */
+    public long add(BooleanSolution solution) throws IOException {
+        final int[] literals = solution.get();
+        if (literals.length > variableCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Solution with %d variables exceeds %d variables", literals.length, variableCount));
+        }
+        if (!isWritable) {
+            throw new IllegalStateException("Store is read-only");
+        }
+        final long index = size();
+        final int segmentIndex = (int) (index / segmentRowCount);
+        final int offset = (int) (index % segmentRowCount) * rowSize;
+        final ByteBuffer segment = getSegment(segmentIndex, offset + rowSize);
+        final int encodedSize = BooleanSolutionRowCodec.getRowSize(literals.length);
+        BooleanSolutionRowCodec.encode(literals, hasVariable, segment, offset);
+        for (int i = encodedSize; i < rowSize; i++) {
+            segment.put(offset + i, (byte) 0);
+        }
+        header.putLong(ROW_COUNT_POSITION, index + 1);
+        return index;
+    }
+
+    /**
+     * Appends the given solutions as new rows.
+     *
+     * @param solutions the solutions
+     * @throws IOException if the file cannot be written
+     */
+    public void addAll(Iterable<? extends BooleanSolution> solutions) throws IOException {
+        for (BooleanSolution solution : solutions) {
+            add(solution);
+        }
+    }
+
+    /**
+     * {@return the given segment, mapped such that it contains at least the given number of bytes}
+     * Writable segments are extended in steps of at most {@link #GROWTH_SIZE} bytes, which extends the file. Read-only
+     * segments are mapped up to the end of the file and mapped again when the file has grown.
+     */
+    private MappedByteBuffer getSegment(int segmentIndex, int minimumSize) throws IOException {
+        while (segments.size() <= segmentIndex) {
+            segments.add(null);
+        }
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        if (segment == null || segment.capacity() < minimumSize) {
+            final long position = dataOffset + (long) segmentIndex * segmentRowCount * rowSize;
+            final long segmentSize = (long) segmentRowCount * rowSize;
+            if (isWritable) {
+                final long size = ((long) minimumSize + GROWTH_SIZE - 1) / GROWTH_SIZE * GROWTH_SIZE;
+                segment = channel.map(MapMode.READ_WRITE, position, Math.min(segmentSize, size));
+            } else {
+                final long size = Math.min(segmentSize, channel.size() - position);
+                if (size < minimumSize) {
+                    throw new IOException("Unexpected end of file");
+                }
+                segment = channel.map(MapMode.READ_ONLY, position, size);
+            }
+            segments.set(segmentIndex, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    public void flush() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null && isWritable) {
+                segment.force();
+            }
+        }
+        if (isWritable) {
+            header.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isWritable) {
+            flush();
+        }
+        segments.clear();
+        channel.close();
+    }
+}
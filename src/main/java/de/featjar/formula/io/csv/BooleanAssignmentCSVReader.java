@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.csv;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Reads the rows of the CSV format of {@link BooleanAssignmentGroupsCSVFormat} one at a time.
+ * The header is read on creation. Afterwards, each call of {@link #next()} reads the next row into a buffer that is
+ * reused for all rows. Rows are tokenized directly on the bytes of the input without creating strings.
+ * Blank lines are skipped.
+ *
+ * <pre>{@code
+ * try (BooleanAssignmentCSVReader reader = new BooleanAssignmentCSVReader(inputStream)) {
+ *     while (reader.next()) {
+ *         process(reader.getGroupIndex(), reader.getLiterals());
+ *     }
+ * }
+ * }</pre>
+ */
+public class BooleanAssignmentCSVReader implements AutoCloseable {
+
+    private static final byte VALUE_SEPARATOR = (byte) BooleanAssignmentGroupsCSVFormat.VALUE_SEPARATOR.charAt(0);
+    private static final byte POSITIVE_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.POSITIVE_VALUE.charAt(0);
+    private static final byte NEGATIVE_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.NEGATIVE_VALUE.charAt(0);
+    private static final byte NULL_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.NULL_VALUE.charAt(0);
+    private static final int END_OF_INPUT = -1;
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+
+    /** Bytes of the current line, without line separator. */
+    private byte[] line = new byte[256];
+
+    private int lineLength;
+    private int lineNumber;
+
+    private final VariableMap variableMap = new VariableMap();
+    private final int columnCount;
+
+    /** Literals of the current row; element {@code i} holds the literal of variable {@code i + 1} or 0. */
+    private final int[] literals;
+
+    private int assignmentIndex;
+    private int groupIndex;
+
+    /**
+     * Reads the header from the given stream.
+     * The stream is closed by {@link #close()}.
+     *
+     * @param inputStream the stream to read from
+     * @throws IOException    if the stream cannot be read.
+     * @throws ParseException if the header is invalid
+     */
+    public BooleanAssignmentCSVReader(InputStream inputStream) throws IOException, ParseException {
+        this.inputStream = inputStream;
+        try {
+            columnCount = readHeader();
+        } catch (IOException | ParseException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+        literals = new int[columnCount - 2];
+    }
+
+    /**
+     * {@return the variables named in the header}
+     */
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return {@code true} if a row was read, {@code false} if all rows have been read
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the row is invalid
+     */
+    public boolean next() throws IOException, ParseException {
+        if (!readLine()) {
+            return false;
+        }
+        // trailing empty values are ignored, as by String#split
+        int end = lineLength;
+        while (end > 0 && line[end - 1] == VALUE_SEPARATOR) {
+            end--;
+        }
+        int valueCount = end == 0 ? 0 : 1;
+        for (int i = 0; i < end; i++) {
+            if (line[i] == VALUE_SEPARATOR) {
+                valueCount++;
+            }
+        }
+        if (valueCount != columnCount) {
+            throw new ParseException(
+                    String.format(
+                            "Number of values (%d) does not match number of columns (%d)", valueCount, columnCount),
+                    lineNumber);
+        }
+        int start = 0;
+        int separator = indexOfSeparator(start, end);
+        final long assignmentIndex = parseInteger(start, separator);
+        if (assignmentIndex == Long.MIN_VALUE) {
+            throw new ParseException(
+                    String.format("First value must be a number, but was %s", getString(start, separator)),
+                    lineNumber);
+        }
+        start = separator + 1;
+        separator = indexOfSeparator(start, end);
+        final long groupIndex = parseInteger(start, separator);
+        if (groupIndex == Long.MIN_VALUE) {
+            throw new ParseException(
+                    String.format("Second value must be a number, but was %s", getString(start, separator)),
+                    lineNumber);
+        }
+        if (groupIndex < 0) {
+            throw new ParseException(
+                    String.format("Second value must not be negative, but was %d", groupIndex), lineNumber);
+        }
+        for (int i = 0; i < literals.length; i++) {
+            start = separator + 1;
+            separator = indexOfSeparator(start, end);
+            if (separator - start != 1) {
+                throw new ParseException(String.format("Unknown value %s", getString(start, separator)), lineNumber);
+            }
+            final byte value = line[start];
+            if (value == POSITIVE_VALUE) {
+                literals[i] = i + 1;
+            } else if (value == NEGATIVE_VALUE) {
+                literals[i] = -(i + 1);
+            } else if (value == NULL_VALUE) {
+                literals[i] = 0;
+            } else {
+                throw new ParseException(String.format("Unknown value %s", getString(start, separator)), lineNumber);
+            }
+        }
+        this.assignmentIndex = (int) assignmentIndex;
+        this.groupIndex = (int) groupIndex;
+        return true;
+    }
+
+    /**
+     * {@return the ID of the current row}
+     */
+    public int getAssignmentIndex() {
+        return assignmentIndex;
+    }
+
+    /**
+     * {@return the group index of the current row}
+     */
+    public int getGroupIndex() {
+        return groupIndex;
+    }
+
+    /**
+     * {@return the buffer containing the literals of the current row}
+     * The returned array must not be modified and is overwritten by the next call of {@link #next()}.
+     */
+    public int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * {@return the current row as a solution}
+     */
+    public BooleanSolution toSolution() {
+        return new BooleanSolution(Arrays.copyOf(literals, literals.length), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private int readHeader() throws IOException, ParseException {
+        if (!readLine()) {
+            throw createMissingColumnsException();
+        }
+        int end = lineLength;
+        while (end > 0 && line[end - 1] == VALUE_SEPARATOR) {
+            end--;
+        }
+        final String[] columns = new String[lineLength + 1];
+        int columnCount = 0;
+        for (int start = 0; start <= end; ) {
+            final int separator = indexOfSeparator(start, end);
+            columns[columnCount++] = getString(start, separator);
+            start = separator + 1;
+        }
+        if (columnCount < 2) {
+            throw createMissingColumnsException();
+        }
+        if (!BooleanAssignmentGroupsCSVFormat.ASSIGNMENT_COLUMN_NAME.equals(columns[0])) {
+            throw new ParseException(
+                    "First column name must be " + BooleanAssignmentGroupsCSVFormat.ASSIGNMENT_COLUMN_NAME,
+                    lineNumber);
+        }
+        if (!BooleanAssignmentGroupsCSVFormat.GROUP_COLUMN_NAME.equals(columns[1])) {
+            throw new ParseException(
+                    "Second column name must be " + BooleanAssignmentGroupsCSVFormat.GROUP_COLUMN_NAME, lineNumber);
+        }
+        for (int i = 2; i < columnCount; i++) {
+            variableMap.add(columns[i]);
+        }
+        return columnCount;
+    }
+
+    private ParseException createMissingColumnsException() {
+        return new ParseException(
+                "Missing first two columns " + BooleanAssignmentGroupsCSVFormat.ASSIGNMENT_COLUMN_NAME + " and "
+                        + BooleanAssignmentGroupsCSVFormat.GROUP_COLUMN_NAME,
+                lineNumber);
+    }
+
+    private int indexOfSeparator(int start, int end) {
+        int i = start;
+        while (i < end && line[i] != VALUE_SEPARATOR) {
+            i++;
+        }
+        return i;
+    }
+
+    private String getString(int start, int end) {
+        return new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@return the integer in the given range of the current line, or {@link Long#MIN_VALUE} if it is not a number}
+     * Accepts the same numbers as {@link Integer#parseInt(String)} for ASCII digits.
+     */
+    private long parseInteger(int start, int end) {
+        int i = start;
+        final boolean isNegative = i < end && line[i] == '-';
+        if (i < end && (line[i] == '-' || line[i] == '+')) {
+            i++;
+        }
+        if (i == end) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > (isNegative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return isNegative ? -value : value;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = inputStream.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END_OF_INPUT;
+            }
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Reads the next line that is not blank into {@link #line}.
+     *
+     * @return {@code false} if the end of the input has been reached
+     */
+    private boolean readLine() throws IOException {
+        while (true) {
+            if (peek() == END_OF_INPUT) {
+                return false;
+            }
+            lineNumber++;
+            lineLength = 0;
+            boolean isBlank = true;
+            while (true) {
+                if (position == limit && peek() == END_OF_INPUT) {
+                    break;
+                }
+                // scan the buffered bytes for the end of the line and copy them at once
+                int end = position;
+                while (end < limit && buffer[end] != '\n' && buffer[end] != '\r') {
+                    end++;
+                }
+                final int length = end - position;
+                if (lineLength + length > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length << 1, lineLength + length));
+                }
+                for (int i = position; i < end && isBlank; i++) {
+                    isBlank = isWhitespace(buffer[i]);
+                }
+                System.arraycopy(buffer, position, line, lineLength, length);
+                lineLength += length;
+                position = end;
+                if (end < limit) {
+                    position++;
+                    if (buffer[end] == '\r' && peek() == '\n') {
+                        position++;
+                    }
+                    break;
+                }
+            }
+            if (!isBlank) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\f' || b == 0x0B || (b >= 0x1C && b <= 0x1F);
+    }
+}
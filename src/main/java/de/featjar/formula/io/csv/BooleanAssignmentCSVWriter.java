@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.csv;
+
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.io.ABufferedAsciiWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes assignments in the CSV format of {@link BooleanAssignmentGroupsCSVFormat} directly to an
+ * {@link OutputStream}.
+ * Each row contains a consecutive assignment ID, the index of the assignment's group, and one value per variable.
+ * Rows are written to a reusable buffer, so that arbitrarily many assignments can be written with constant memory.
+ * The given stream is not closed by this writer.
+ */
+public class BooleanAssignmentCSVWriter extends ABufferedAsciiWriter {
+
+    private static final byte VALUE_SEPARATOR = (byte) BooleanAssignmentGroupsCSVFormat.VALUE_SEPARATOR.charAt(0);
+    private static final byte LINE_SEPARATOR = (byte) BooleanAssignmentGroupsCSVFormat.LINE_SEPARATOR.charAt(0);
+    private static final byte POSITIVE_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.POSITIVE_VALUE.charAt(0);
+    private static final byte NEGATIVE_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.NEGATIVE_VALUE.charAt(0);
+    private static final byte NULL_VALUE = (byte) BooleanAssignmentGroupsCSVFormat.NULL_VALUE.charAt(0);
+
+    /** The variable of each column after the first two. */
+    private final int[] columnVariables;
+    /** The name of each column after the first two, or {@code null} if it has no header. */
+    private final String[] columnNames;
+
+    /** Values of the current assignment, indexed by variable. */
+    private final int[] values;
+
+    private int assignmentIndex;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param outputStream the output stream
+     * @param variableMap the variables, which determine the columns
+     */
+    public BooleanAssignmentCSVWriter(OutputStream outputStream, VariableMap variableMap) {
+        this(outputStream, variableMap, 0);
+    }
+
+    /**
+     * Creates a new writer that starts numbering assignments at the given ID
+     * (e.g., to write a range of rows independently of the preceding ones).
+     *
+     * @param outputStream the output stream
+     * @param variableMap the variables, which determine the columns
+     * @param assignmentIndex the ID of the first assignment
+     */
+    public BooleanAssignmentCSVWriter(OutputStream outputStream, VariableMap variableMap, int assignmentIndex) {
+        super(outputStream, 1 << 16);
+        this.assignmentIndex = assignmentIndex;
+        final List<Pair<Integer, String>> columns = variableMap.stream().collect(Collectors.toList());
+        columnVariables = columns.stream().mapToInt(Pair::getKey).toArray();
+        columnNames = columns.stream().map(Pair::getValue).toArray(String[]::new);
+        int maxVariable = 0;
+        for (int variable : columnVariables) {
+            maxVariable = Math.max(maxVariable, variable);
+        }
+        values = new int[maxVariable + 1];
+    }
+
+    /**
+     * Writes the header row.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeHeader() throws IOException {
+        writeBytes(BooleanAssignmentGroupsCSVFormat.ASSIGNMENT_COLUMN_NAME.getBytes(StandardCharsets.UTF_8));
+        writeByte(VALUE_SEPARATOR);
+        writeBytes(BooleanAssignmentGroupsCSVFormat.GROUP_COLUMN_NAME.getBytes(StandardCharsets.UTF_8));
+        for (String name : columnNames) {
+            if (name != null) {
+                writeByte(VALUE_SEPARATOR);
+                writeBytes(name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        writeByte(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes all assignments of the given groups, numbering the groups consecutively.
+     *
+     * @param groups the groups
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeGroups(List<? extends List<? extends ABooleanAssignment>> groups) throws IOException {
+        int groupIndex = 0;
+        for (List<? extends ABooleanAssignment> group : groups) {
+            for (ABooleanAssignment assignment : group) {
+                writeAssignment(groupIndex, assignment);
+            }
+            groupIndex++;
+        }
+    }
+
+    /**
+     * Writes a row for the given assignment.
+     *
+     * @param groupIndex the index of the assignment's group
+     * @param assignment the assignment
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeAssignment(int groupIndex, ABooleanAssignment assignment) throws IOException {
+        final int[] literals = assignment.get();
+        writeInteger(assignmentIndex++);
+        writeByte(VALUE_SEPARATOR);
+        writeInteger(groupIndex);
+        if (assignment instanceof BooleanSolution) {
+            for (int variable : columnVariables) {
+                writeByte(VALUE_SEPARATOR);
+                writeByte(variable > 0 && variable <= literals.length ? getValue(literals[variable - 1]) : NULL_VALUE);
+            }
+        } else {
+            // the first occurrence of a variable determines its value
+            for (int literal : literals) {
+                final int variable = Math.abs(literal);
+                if (variable < values.length && values[variable] == 0) {
+                    values[variable] = literal;
+                }
+            }
+            for (int variable : columnVariables) {
+                writeByte(VALUE_SEPARATOR);
+                writeByte(getValue(values[variable]));
+            }
+            for (int literal : literals) {
+                final int variable = Math.abs(literal);
+                if (variable < values.length) {
+                    values[variable] = 0;
+                }
+            }
+        }
+        writeByte(LINE_SEPARATOR);
+    }
+
+    private static byte getValue(int literal) {
+        return literal == 0 ? NULL_VALUE : literal > 0 ? POSITIVE_VALUE : NEGATIVE_VALUE;
+    }
+}
@@ -20,20 +20,27 @@
  */
 package de.featjar.formula.io.csv;
 
-import de.featjar.base.data.Pair;
 import de.featjar.base.data.Result;
-import de.featjar.base.io.NonEmptyLineIterator;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.format.ParseProblem;
 import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.output.AOutputMapper;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.ABooleanAssignment;
 import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
-import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.io.ParallelChunkWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Reads / Writes a list of configuration.
@@ -41,127 +48,134 @@ import java.util.stream.Collectors;
  * @author Sebastian Krieter
  */
 public class BooleanAssignmentGroupsCSVFormat implements IFormat<BooleanAssignmentGroups> {
-    private static final String ASSIGNMENT_COLUMN_NAME = "ID";
-    private static final String GROUP_COLUMN_NAME = "Group";
-    private static final String VALUE_SEPARATOR = ";";
-    private static final String LINE_SEPARATOR = "\n";
-    private static final String POSITIVE_VALUE = "+";
-    private static final String NEGATIVE_VALUE = "-";
-    private static final String NULL_VALUE = "0";
+    static final String ASSIGNMENT_COLUMN_NAME = "ID";
+    static final String GROUP_COLUMN_NAME = "Group";
+    static final String VALUE_SEPARATOR = ";";
+    static final String LINE_SEPARATOR = "\n";
+    static final String POSITIVE_VALUE = "+";
+    static final String NEGATIVE_VALUE = "-";
+    static final String NULL_VALUE = "0";
+
+    /** The number of rows per chunk when writing in parallel. */
+    private static final int CHUNK_SIZE = 4096;
+
+    private boolean writingInParallel = false;
+
+    /**
+     * <p>
+     * Sets the parallel writing flag. If true, {@link #write(BooleanAssignmentGroups, AOutputMapper)} and
+     * {@link #write(BooleanAssignmentGroups, Path)} encode chunks of rows concurrently and write them in order.
+     * The output is the same as when writing sequentially.
+     * Only {@link #write(BooleanAssignmentGroups, Path)} writes each batch of chunks with a single gathering write.
+     * The output mapper is written through {@link Channels#newChannel(OutputStream)}, which writes chunk by chunk.
+     * </p>
+     *
+     * <p>
+     * Defaults to false.
+     * </p>
+     *
+     * @param writingInParallel whether to write rows in parallel
+     */
+    public void setWritingInParallel(boolean writingInParallel) {
+        this.writingInParallel = writingInParallel;
+    }
 
     @Override
     public Result<String> serialize(BooleanAssignmentGroups assignmentSpace) {
-        final StringBuilder csv = new StringBuilder();
-        csv.append(ASSIGNMENT_COLUMN_NAME);
-        csv.append(VALUE_SEPARATOR);
-        csv.append(GROUP_COLUMN_NAME);
-        final VariableMap variableMap = assignmentSpace.getVariableMap();
-        final List<Pair<Integer, String>> namePairs = variableMap.stream().collect(Collectors.toList());
-        for (final Pair<Integer, String> namePair : namePairs) {
-            final String name = namePair.getValue();
-            if (name != null) {
-                csv.append(VALUE_SEPARATOR);
-                csv.append(name);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            writeCSV(assignmentSpace, outputStream);
+        } catch (final IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(BooleanAssignmentGroups assignmentSpace, AOutputMapper outputMapper) throws IOException {
+        final OutputStream outputStream = outputMapper.get().getOutputStream();
+        if (writingInParallel) {
+            writeCSVInParallel(assignmentSpace, Channels.newChannel(outputStream));
+            outputStream.flush();
+        } else {
+            writeCSV(assignmentSpace, outputStream);
+        }
+    }
+
+    /**
+     * Writes the given assignment groups to the given file, replacing any existing file.
+     *
+     * @param assignmentSpace the assignment groups
+     * @param path the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(BooleanAssignmentGroups assignmentSpace, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (writingInParallel) {
+                writeCSVInParallel(assignmentSpace, channel);
+            } else {
+                writeCSV(assignmentSpace, Channels.newOutputStream(channel));
             }
         }
-        csv.append(LINE_SEPARATOR);
-        int groupIndex = 0;
-        int assignmentIndex = 0;
+    }
+
+    private void writeCSV(BooleanAssignmentGroups assignmentSpace, OutputStream outputStream) throws IOException {
+        final BooleanAssignmentCSVWriter writer =
+                new BooleanAssignmentCSVWriter(outputStream, assignmentSpace.getVariableMap());
+        writer.writeHeader();
+        writer.writeGroups(assignmentSpace.getGroups());
+        writer.flush();
+    }
+
+    private void writeCSVInParallel(BooleanAssignmentGroups assignmentSpace, WritableByteChannel channel)
+            throws IOException {
         final List<? extends List<? extends ABooleanAssignment>> groups = assignmentSpace.getGroups();
-        for (List<? extends ABooleanAssignment> group : groups) {
-            for (final ABooleanAssignment configuration : group) {
-                csv.append(assignmentIndex++);
-                csv.append(VALUE_SEPARATOR);
-                csv.append(groupIndex);
-                for (final Pair<Integer, String> namePair : namePairs) {
-                    csv.append(VALUE_SEPARATOR);
-                    final Result<Boolean> value = configuration.getValue(namePair.getKey());
-                    if (value.isPresent()) {
-                        final boolean set = (boolean) value.get();
-                        if (set) {
-                            csv.append(POSITIVE_VALUE);
-                        } else {
-                            csv.append(NEGATIVE_VALUE);
-                        }
-                    } else {
-                        csv.append(NULL_VALUE);
-                    }
-                }
-                csv.append(LINE_SEPARATOR);
+        final VariableMap variableMap = assignmentSpace.getVariableMap();
+        // each chunk holds rows of a single group, starting at the given row of the group and assignment ID
+        final List<int[]> chunks = new ArrayList<>();
+        int assignmentIndex = 0;
+        for (int groupIndex = 0; groupIndex < groups.size(); groupIndex++) {
+            final int groupSize = groups.get(groupIndex).size();
+            for (int start = 0; start < groupSize; start += CHUNK_SIZE) {
+                chunks.add(new int[] {groupIndex, start, assignmentIndex + start});
             }
-            groupIndex++;
+            assignmentIndex += groupSize;
         }
-        return Result.of(csv.toString());
+        // the first chunk only contains the header
+        ParallelChunkWriter.write(channel, chunks.size() + 1, (chunkIndex, outputStream) -> {
+            if (chunkIndex == 0) {
+                final BooleanAssignmentCSVWriter writer = new BooleanAssignmentCSVWriter(outputStream, variableMap);
+                writer.writeHeader();
+                writer.flush();
+                return;
+            }
+            final int[] chunk = chunks.get(chunkIndex - 1);
+            final List<? extends ABooleanAssignment> group = groups.get(chunk[0]);
+            final BooleanAssignmentCSVWriter writer =
+                    new BooleanAssignmentCSVWriter(outputStream, variableMap, chunk[2]);
+            final int end = Math.min(group.size(), chunk[1] + CHUNK_SIZE);
+            for (int i = chunk[1]; i < end; i++) {
+                writer.writeAssignment(chunk[0], group.get(i));
+            }
+            writer.flush();
+        });
     }
 
     @Override
     public Result<BooleanAssignmentGroups> parse(AInputMapper inputMapper) {
         try {
-            final NonEmptyLineIterator lines = inputMapper.get().getNonEmptyLineIterator();
-            final String[] headerColumns = lines.get().split(VALUE_SEPARATOR);
-            if (headerColumns.length < 2) {
-                throw new ParseException(
-                        "Missing first two columns " + ASSIGNMENT_COLUMN_NAME + " and " + GROUP_COLUMN_NAME,
-                        lines.getLineCount());
-            }
-            if (!ASSIGNMENT_COLUMN_NAME.equals(headerColumns[0])) {
-                throw new ParseException("First column name must be " + ASSIGNMENT_COLUMN_NAME, lines.getLineCount());
-            }
-            if (!GROUP_COLUMN_NAME.equals(headerColumns[1])) {
-                throw new ParseException("Second column name must be " + GROUP_COLUMN_NAME, lines.getLineCount());
-            }
-            final VariableMap variableMap = new VariableMap();
-            for (int i = 2; i < headerColumns.length; i++) {
-                variableMap.add(headerColumns[i]);
-            }
+            final BooleanAssignmentCSVReader reader =
+                    new BooleanAssignmentCSVReader(inputMapper.get().getInputStream());
             final ArrayList<List<ABooleanAssignment>> groups = new ArrayList<>();
-            for (String line = lines.get(); line != null; line = lines.get()) {
-                final String[] values = line.split(VALUE_SEPARATOR);
-                if (headerColumns.length != values.length) {
-                    throw new ParseException(
-                            String.format(
-                                    "Number of values (%d) does not match number of columns (%d)",
-                                    values.length, headerColumns.length),
-                            lines.getLineCount());
-                }
-                try {
-                    Integer.parseInt(values[0]);
-                } catch (NumberFormatException e) {
-                    throw new ParseException(
-                            String.format("First value must be a number, but was %s", values[0]), lines.getLineCount());
-                }
-                final List<ABooleanAssignment> group;
-                try {
-                    final int groupIndex = Integer.parseInt(values[1]);
-                    for (int i = groups.size() - 1; i < groupIndex; i++) {
-                        groups.add(new ArrayList<>());
-                    }
-                    group = groups.get(groupIndex);
-                } catch (NumberFormatException e) {
-                    throw new ParseException(
-                            String.format("Second value must be a number, but was %s", values[0]),
-                            lines.getLineCount());
-                }
-                final int[] literals = new int[values.length - 2];
-                for (int i = 2; i < values.length; i++) {
-                    String value = values[i];
-                    switch (value) {
-                        case POSITIVE_VALUE:
-                            literals[i - 2] = i - 1;
-                            break;
-                        case NEGATIVE_VALUE:
-                            literals[i - 2] = -(i - 1);
-                            break;
-                        case NULL_VALUE:
-                            literals[i - 2] = 0;
-                            break;
-                        default:
-                            throw new ParseException(String.format("Unknown value %s", value), lines.getLineCount());
-                    }
+            while (reader.next()) {
+                final int groupIndex = reader.getGroupIndex();
+                for (int i = groups.size() - 1; i < groupIndex; i++) {
+                    groups.add(new ArrayList<>());
                 }
-                group.add(new BooleanSolution(literals, false));
+                groups.get(groupIndex).add(reader.toSolution());
             }
-            return Result.of(new BooleanAssignmentGroups(variableMap, groups));
+            return Result.of(new BooleanAssignmentGroups(reader.getVariableMap(), groups));
         } catch (final ParseException e) {
             return Result.empty(new ParseProblem(e, e.getErrorOffset()));
         } catch (final Exception e) {
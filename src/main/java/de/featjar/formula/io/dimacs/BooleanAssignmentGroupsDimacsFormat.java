@@ -24,9 +24,20 @@ import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.format.ParseProblem;
 import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.output.AOutputMapper;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.ABooleanAssignment;
 import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
+import de.featjar.formula.io.ParallelChunkWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Objects;
@@ -38,44 +49,108 @@ import java.util.Objects;
  */
 public class BooleanAssignmentGroupsDimacsFormat implements IFormat<BooleanAssignmentGroups> {
 
+    /** The number of clauses per chunk when writing in parallel. */
+    private static final int CHUNK_SIZE = 4096;
+
+    private boolean writingInParallel = false;
+
+    /**
+     * <p>
+     * Sets the parallel writing flag. If true, {@link #write(BooleanAssignmentGroups, AOutputMapper)} and
+     * {@link #write(BooleanAssignmentGroups, Path)} encode chunks of clauses concurrently and write them in order.
+     * The output is the same as when writing sequentially.
+     * Only {@link #write(BooleanAssignmentGroups, Path)} writes each batch of chunks with a single gathering write.
+     * The output mapper is written through {@link Channels#newChannel(OutputStream)}, which writes chunk by chunk.
+     * </p>
+     *
+     * <p>
+     * Defaults to false.
+     * </p>
+     *
+     * @param writingInParallel whether to write clauses in parallel
+     */
+    public void setWritingInParallel(boolean writingInParallel) {
+        this.writingInParallel = writingInParallel;
+    }
+
     @Override
     public Result<String> serialize(BooleanAssignmentGroups assignmentSpace) {
         Objects.requireNonNull(assignmentSpace);
 
-        final StringBuilder sb = new StringBuilder();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            writeDIMACS(assignmentSpace, outputStream);
+        } catch (final IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(BooleanAssignmentGroups assignmentSpace, AOutputMapper outputMapper) throws IOException {
+        Objects.requireNonNull(assignmentSpace);
+        final OutputStream outputStream = outputMapper.get().getOutputStream();
+        if (writingInParallel) {
+            writeDIMACSInParallel(assignmentSpace, Channels.newChannel(outputStream));
+            outputStream.flush();
+        } else {
+            writeDIMACS(assignmentSpace, outputStream);
+        }
+    }
+
+    /**
+     * Writes the given assignment groups to the given file, replacing any existing file.
+     *
+     * @param assignmentSpace the assignment groups
+     * @param path the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(BooleanAssignmentGroups assignmentSpace, Path path) throws IOException {
+        Objects.requireNonNull(assignmentSpace);
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (writingInParallel) {
+                writeDIMACSInParallel(assignmentSpace, channel);
+            } else {
+                writeDIMACS(assignmentSpace, Channels.newOutputStream(channel));
+            }
+        }
+    }
+
+    private void writeDIMACS(BooleanAssignmentGroups assignmentSpace, OutputStream outputStream) throws IOException {
+        final DimacsWriter writer = new DimacsWriter(outputStream);
         List<? extends ABooleanAssignment> cnf = assignmentSpace.getGroups().get(0);
         VariableMap variableMap = assignmentSpace.getVariableMap();
 
-        variableMap.stream().forEach(e -> {
-            if (e.getValue() != null) {
-                sb.append("c ");
-                sb.append(e.getKey());
-                sb.append(" ");
-                sb.append(e.getValue());
-                sb.append(System.lineSeparator());
-            }
-        });
+        writer.writeVariableDirectory(variableMap);
         // Problem
-        sb.append(DimacsConstants.PROBLEM);
-        sb.append(' ');
-        sb.append(DimacsConstants.CNF);
-        sb.append(' ');
-        sb.append(variableMap.getVariableCount());
-        sb.append(' ');
-        sb.append(cnf.size());
-        sb.append(System.lineSeparator());
+        writer.writeProblem(variableMap.getVariableCount(), cnf.size());
 
         // Clauses
         for (final ABooleanAssignment clause : cnf) {
-            for (final int l : clause.get()) {
-                sb.append(l);
-                sb.append(' ');
-            }
-            sb.append(DimacsConstants.CLAUSE_END);
-            sb.append(System.lineSeparator());
+            writer.writeClause(clause.get());
         }
 
-        return Result.of(sb.toString());
+        writer.flush();
+    }
+
+    private void writeDIMACSInParallel(BooleanAssignmentGroups assignmentSpace, WritableByteChannel channel)
+            throws IOException {
+        final List<? extends ABooleanAssignment> cnf = assignmentSpace.getGroups().get(0);
+        final VariableMap variableMap = assignmentSpace.getVariableMap();
+        final int chunkCount = Math.max(1, (cnf.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        ParallelChunkWriter.write(channel, chunkCount, (chunkIndex, outputStream) -> {
+            final DimacsWriter writer = new DimacsWriter(outputStream);
+            if (chunkIndex == 0) {
+                writer.writeVariableDirectory(variableMap);
+                writer.writeProblem(variableMap.getVariableCount(), cnf.size());
+            }
+            final int end = Math.min(cnf.size(), (chunkIndex + 1) * CHUNK_SIZE);
+            for (int i = chunkIndex * CHUNK_SIZE; i < end; i++) {
+                writer.writeClause(cnf.get(i).get());
+            }
+            writer.flush();
+        });
     }
 
     @Override
@@ -91,6 +166,26 @@ public class BooleanAssignmentGroupsDimacsFormat implements IFormat<BooleanAssig
         }
     }
 
+    /**
+     * Parses the given file, which is memory-mapped.
+     * The input mappers passed to {@link #parse(AInputMapper)} do not expose the underlying file, so they are read
+     * line by line instead.
+     *
+     * @param path the file
+     * @return the parsed assignment groups
+     */
+    public Result<BooleanAssignmentGroups> parse(Path path) {
+        final BooleanAssignmentGroupsDimacsParser r = new BooleanAssignmentGroupsDimacsParser();
+        r.setReadingVariableDirectory(true);
+        try {
+            return Result.of(r.parse(path));
+        } catch (final ParseException e) {
+            return Result.empty(new ParseProblem(e, e.getErrorOffset()));
+        } catch (final Exception e) {
+            return Result.empty(e);
+        }
+    }
+
     @Override
     public String getFileExtension() {
         return "dimacs";
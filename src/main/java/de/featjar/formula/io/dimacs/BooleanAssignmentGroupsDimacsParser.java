@@ -20,11 +20,19 @@
  */
 package de.featjar.formula.io.dimacs;
 
+import de.featjar.base.data.Pair;
 import de.featjar.base.io.NonEmptyLineIterator;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
 import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseArena;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,6 +40,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 public class BooleanAssignmentGroupsDimacsParser {
 
@@ -39,16 +48,15 @@ public class BooleanAssignmentGroupsDimacsParser {
     private static final Pattern problemPattern = Pattern.compile(
             "\\A\\s*" + DimacsConstants.PROBLEM + "\\s+" + DimacsConstants.CNF + "\\s+(\\d+)\\s+(\\d+)");
 
-    /** Maps indexes to variables. */
-    private final VariableMap indexVariables = new VariableMap();
+    /** Maximum number of bytes mapped at once by {@link #parseClauseArena(Path)}. */
+    private static final int MAPPING_SIZE = 1 << 30;
+
+    /** Minimum number of bytes per chunk when parsing clauses in parallel. */
+    private static final int MINIMUM_CHUNK_SIZE = 1 << 20;
+
+    /** The problem definition and variables of the input that is currently read. */
+    private DimacsProblem problem;
 
-    /**
-     * The amount of variables as declared in the problem definition. May differ
-     * from the actual amount of found variables.
-     */
-    private int variableCount;
-    /** The amount of clauses in the problem. */
-    private int clauseCount;
     /** True to read the variable directory for naming variables. */
     private boolean readVariableDirectory = false;
     /**
@@ -56,6 +64,8 @@ public class BooleanAssignmentGroupsDimacsParser {
      * and parsing variable names.
      */
     private boolean readingVariables;
+    /** True to parse clauses from a byte buffer in parallel. */
+    private boolean parsingInParallel = false;
 
     /**
      * <p>
@@ -74,6 +84,24 @@ public class BooleanAssignmentGroupsDimacsParser {
         this.readVariableDirectory = readVariableDirectory;
     }
 
+    /**
+     * <p>
+     * Sets the parallel parsing flag. If true, {@link #parseClauseArena(Path)} and
+     * {@link #parseClauseArena(ByteBuffer)} split the clauses into chunks at line
+     * ends, which are parsed concurrently on the common fork-join pool and
+     * concatenated in order. The result is the same as when parsing sequentially.
+     * </p>
+     *
+     * <p>
+     * Defaults to false.
+     * </p>
+     *
+     * @param parsingInParallel whether to parse clauses in parallel
+     */
+    public void setParsingInParallel(boolean parsingInParallel) {
+        this.parsingInParallel = parsingInParallel;
+    }
+
     /**
      * Reads the input.
      *
@@ -84,9 +112,44 @@ public class BooleanAssignmentGroupsDimacsParser {
      *                        format
      */
     public BooleanAssignmentGroups parse(NonEmptyLineIterator nonEmptyLineIterator) throws ParseException, IOException {
-        indexVariables.clear();
-        variableCount = -1;
-        clauseCount = -1;
+        return toAssignmentGroups(parseClauseArena(nonEmptyLineIterator));
+    }
+
+    /**
+     * Reads the given file, which is memory-mapped.
+     *
+     * @param path The file to read from.
+     * @return a CNF; not null
+     * @throws IOException    if the file cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     * @see #parseClauseArena(Path)
+     */
+    public BooleanAssignmentGroups parse(Path path) throws ParseException, IOException {
+        return toAssignmentGroups(parseClauseArena(path));
+    }
+
+    private static BooleanAssignmentGroups toAssignmentGroups(Pair<BooleanClauseArena, VariableMap> cnf) {
+        final BooleanClauseArena clauseArena = cnf.getKey();
+        final List<BooleanClause> clauses = new ArrayList<>(clauseArena.size());
+        for (BooleanClauseArena.ClauseView clause : clauseArena) {
+            clauses.add(clause.toClause());
+        }
+        return new BooleanAssignmentGroups(cnf.getValue(), List.of(clauses));
+    }
+
+    /**
+     * Reads the input into a {@link BooleanClauseArena}, without creating an object per clause.
+     *
+     * @param nonEmptyLineIterator The source to read from.
+     * @return the clauses and the variable map; not null
+     * @throws IOException    if the reader encounters a problem.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public Pair<BooleanClauseArena, VariableMap> parseClauseArena(NonEmptyLineIterator nonEmptyLineIterator)
+            throws ParseException, IOException {
+        problem = new DimacsProblem();
         readingVariables = readVariableDirectory;
         nonEmptyLineIterator.get();
 
@@ -94,38 +157,74 @@ public class BooleanAssignmentGroupsDimacsParser {
         readProblem(nonEmptyLineIterator);
         readComments(nonEmptyLineIterator);
         readingVariables = false;
-
         if (readVariableDirectory) {
-            for (int i = 1; i <= variableCount; i++) {
-                if (!indexVariables.has(i)) {
-                    indexVariables.add(i, getUniqueName(i));
-                }
-            }
+            problem.completeVariableDirectory();
         }
 
-        final List<BooleanClause> clauses = readClauses(nonEmptyLineIterator);
-        final int actualVariableCount = indexVariables.getVariableCount();
-        final int actualClauseCount = clauses.size();
-        if (variableCount != actualVariableCount) {
-            throw new ParseException(
-                    String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
+        final BooleanClauseArena clauses = readClauses(nonEmptyLineIterator);
+        return finishClauses(clauses);
+    }
+
+    /**
+     * Reads the given file into a {@link BooleanClauseArena}.
+     * In contrast to {@link #parseClauseArena(NonEmptyLineIterator)}, the file is memory-mapped and literals are
+     * read directly from its bytes without creating a string per line.
+     *
+     * @param path The file to read from.
+     * @return the clauses and the variable map; not null
+     * @throws IOException    if the file cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public Pair<BooleanClauseArena, VariableMap> parseClauseArena(Path path) throws ParseException, IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parseClauseArena(new MappedScanner(channel));
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of the given buffer into a {@link BooleanClauseArena}.
+     *
+     * @param buffer The bytes to read from.
+     * @return the clauses and the variable map; not null
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public Pair<BooleanClauseArena, VariableMap> parseClauseArena(ByteBuffer buffer) throws ParseException {
+        try {
+            return parseClauseArena(new DimacsScanner(buffer, buffer.position(), buffer.limit(), 1));
+        } catch (final IOException e) {
+            // a scanner over a single buffer does not read any further input
+            throw new UncheckedIOException(e);
         }
-        if (clauseCount != actualClauseCount) {
-            throw new ParseException(
-                    String.format("Found %d instead of %d clauses", actualClauseCount, clauseCount), 1);
+    }
+
+    private Pair<BooleanClauseArena, VariableMap> parseClauseArena(DimacsScanner scanner)
+            throws IOException, ParseException {
+        problem = new DimacsProblem();
+        scanner.readHeader(problem, readVariableDirectory);
+        final int clauseCount = problem.getClauseCount();
+        final BooleanClauseArena clauses =
+                new BooleanClauseArena(problem.getVariableCount(), clauseCount, clauseCount * 4);
+        if (parsingInParallel) {
+            readClausesInParallel(scanner, clauses);
+        } else {
+            readClauses(scanner, clauses);
         }
-        return new BooleanAssignmentGroups(indexVariables, List.of(clauses));
+        return finishClauses(clauses);
     }
 
-    private String getUniqueName(int i) {
-        String indexName = Integer.toString(i);
-        String name = indexName;
-        int suffix = 2;
-        while (indexVariables.has(name)) {
-            name = indexName + "_" + suffix;
-            suffix++;
+    private Pair<BooleanClauseArena, VariableMap> finishClauses(BooleanClauseArena clauses) throws ParseException {
+        if (clauses.getOpenClauseSize() > 0) {
+            problem.checkClauseIndex(clauses.size(), 1);
+            clauses.endClause();
         }
-        return name;
+        problem.addVariables(clauses.getLiterals(), 0, clauses.getLiteralCount());
+        problem.checkCounts(clauses.size());
+        final VariableMap variableMap = problem.getVariableMap();
+        clauses.setVariableCount(variableMap.getVariableCount());
+        problem = null;
+        return new Pair<>(clauses, variableMap);
     }
 
     private void readComments(final NonEmptyLineIterator nonemptyLineIterator) {
@@ -161,6 +260,7 @@ public class BooleanAssignmentGroupsDimacsParser {
             nonemptyLineIterator.setCurrentLine(trail);
         }
 
+        final int variableCount;
         try {
             variableCount = Integer.parseInt(matcher.group(1));
         } catch (final NumberFormatException e) {
@@ -170,6 +270,7 @@ public class BooleanAssignmentGroupsDimacsParser {
             throw new ParseException("Variable count is not positive", nonemptyLineIterator.getLineCount());
         }
 
+        final int clauseCount;
         try {
             clauseCount = Integer.parseInt(matcher.group(2));
         } catch (final NumberFormatException e) {
@@ -178,6 +279,7 @@ public class BooleanAssignmentGroupsDimacsParser {
         if (clauseCount < 0) {
             throw new ParseException("Clause count is not positive", nonemptyLineIterator.getLineCount());
         }
+        problem.setCounts(variableCount, clauseCount);
     }
 
     /**
@@ -187,10 +289,11 @@ public class BooleanAssignmentGroupsDimacsParser {
      * @throws ParseException if the input does not conform to the DIMACS CNF file
      *                        format
      */
-    private List<BooleanClause> readClauses(NonEmptyLineIterator nonemptyLineIterator) throws ParseException {
+    private BooleanClauseArena readClauses(NonEmptyLineIterator nonemptyLineIterator) throws ParseException {
         final LinkedList<String> literalQueue = new LinkedList<>();
-        final List<BooleanClause> clauses = new ArrayList<>(clauseCount);
-        int readClausesCount = 0;
+        final int clauseCount = problem.getClauseCount();
+        final BooleanClauseArena clauses =
+                new BooleanClauseArena(problem.getVariableCount(), clauseCount, clauseCount * 4);
         for (String line = nonemptyLineIterator.currentLine(); line != null; line = nonemptyLineIterator.get()) {
             if (commentPattern.matcher(line).matches()) {
                 continue;
@@ -206,12 +309,8 @@ public class BooleanAssignmentGroupsDimacsParser {
                 final int clauseSize = literalQueue.size() - (literalList.size() - clauseEndIndex);
                 if (clauseSize < 0) {
                     throw new ParseException("Invalid clause", nonemptyLineIterator.getLineCount());
-                } else if (clauseSize == 0) {
-                    clauses.add(new BooleanClause());
-                } else {
-                    clauses.add(parseClause(readClausesCount, clauseSize, literalQueue, nonemptyLineIterator));
                 }
-                readClausesCount++;
+                parseClause(clauseSize, literalQueue, nonemptyLineIterator, clauses);
 
                 if (!DimacsConstants.CLAUSE_END.equals(literalQueue.removeFirst())) {
                     throw new ParseException("Illegal clause end", nonemptyLineIterator.getLineCount());
@@ -220,26 +319,20 @@ public class BooleanAssignmentGroupsDimacsParser {
             } while (!literalQueue.isEmpty());
         }
         if (!literalQueue.isEmpty()) {
-            clauses.add(parseClause(readClausesCount, literalQueue.size(), literalQueue, nonemptyLineIterator));
-            readClausesCount++;
-        }
-        if (readClausesCount < clauseCount) {
-            throw new ParseException(String.format("Found %d instead of %d clauses", readClausesCount, clauseCount), 1);
+            parseClause(literalQueue.size(), literalQueue, nonemptyLineIterator, clauses);
         }
+        problem.checkClauseCount(clauses.size());
         return clauses;
     }
 
-    private BooleanClause parseClause(
-            int readClausesCount,
+    private void parseClause(
             int clauseSize,
             LinkedList<String> literalQueue,
-            NonEmptyLineIterator nonemptyLineIterator)
+            NonEmptyLineIterator nonemptyLineIterator,
+            BooleanClauseArena clauses)
             throws ParseException {
-        if (readClausesCount == clauseCount) {
-            throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
-        }
-        final int[] literals = new int[clauseSize];
-        for (int j = 0; j < literals.length; j++) {
+        problem.checkClauseIndex(clauses.size(), 1);
+        for (int j = 0; j < clauseSize; j++) {
             final String token = literalQueue.removeFirst();
             final int index;
             try {
@@ -250,13 +343,69 @@ public class BooleanAssignmentGroupsDimacsParser {
             if (index == 0) {
                 throw new ParseException("Illegal literal", nonemptyLineIterator.getLineCount());
             }
-            final int key = Math.abs(index);
-            if (!indexVariables.has(key)) {
-                indexVariables.add(key, getUniqueName(key));
+            clauses.addLiteral(index);
+        }
+        clauses.endClause();
+    }
+
+    /**
+     * Reads all remaining clauses of the given scanner.
+     *
+     * @param scanner the scanner to read from
+     * @param clauses the clauses to add to
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    private void readClauses(DimacsScanner scanner, BooleanClauseArena clauses) throws IOException, ParseException {
+        for (int literal = scanner.readLiteral();
+                literal != DimacsScanner.END_OF_CLAUSES;
+                literal = scanner.readLiteral()) {
+            if (literal == 0) {
+                problem.checkClauseIndex(clauses.size(), scanner.getLineNumber());
+                clauses.endClause();
+            } else {
+                clauses.addLiteral(literal);
+            }
+        }
+    }
+
+    /**
+     * Reads all remaining clauses of the given scanner, one buffer at a time.
+     * Each buffer is split into chunks at line ends, which are parsed in parallel.
+     * Clauses may continue in the next chunk.
+     *
+     * @param scanner the scanner to read from
+     * @param clauses the clauses to add to
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    private void readClausesInParallel(DimacsScanner scanner, BooleanClauseArena clauses)
+            throws IOException, ParseException {
+        while (scanner.hasRemaining()) {
+            final int chunkCount = Math.max(
+                    1,
+                    Math.min(Runtime.getRuntime().availableProcessors() * 4, scanner.remaining() / MINIMUM_CHUNK_SIZE));
+            final DimacsScanner[] chunkScanners = scanner.split(chunkCount);
+            final int variableCount = problem.getVariableCount();
+            final ClauseChunk[] chunks = IntStream.range(0, chunkCount)
+                    .parallel()
+                    .mapToObj(i -> new ClauseChunk(chunkScanners[i], variableCount))
+                    .toArray(ClauseChunk[]::new);
+            for (ClauseChunk chunk : chunks) {
+                if (chunk.parseException != null) {
+                    throw new ParseException(
+                            chunk.parseException.getMessage(),
+                            scanner.getLineNumber() + chunk.parseException.getErrorOffset());
+                }
+                clauses.addAll(chunk.clauses);
+                scanner.advanceLineNumber(chunk.lineCount);
+                if (clauses.size() > 0) {
+                    problem.checkClauseIndex(clauses.size() - 1, scanner.getLineNumber());
+                }
             }
-            literals[j] = index;
         }
-        return new BooleanClause(literals);
     }
 
     /**
@@ -290,9 +439,75 @@ public class BooleanAssignmentGroupsDimacsParser {
             return false;
         }
         final String variable = comment.substring(firstSeparator + 1);
-        if (!indexVariables.has(index)) {
-            indexVariables.add(index, variable);
-        }
+        problem.addVariable(index, variable);
         return true;
     }
+
+    /**
+     * The clauses of a chunk of the input, which is parsed independently of the other chunks.
+     * The clauses may include an open clause at the end, which is continued by the next chunk.
+     */
+    private static final class ClauseChunk {
+        private final BooleanClauseArena clauses;
+        /** The number of lines read. */
+        private final int lineCount;
+        /** The exception that occurred, if any; its error offset is relative to the start of the chunk. */
+        private final ParseException parseException;
+
+        private ClauseChunk(DimacsScanner scanner, int variableCount) {
+            clauses = new BooleanClauseArena(variableCount, 16, scanner.remaining() / 2);
+            ParseException parseException = null;
+            try {
+                for (int literal = scanner.readLiteral();
+                        literal != DimacsScanner.END_OF_CLAUSES;
+                        literal = scanner.readLiteral()) {
+                    if (literal == 0) {
+                        clauses.endClause();
+                    } else {
+                        clauses.addLiteral(literal);
+                    }
+                }
+            } catch (final ParseException e) {
+                parseException = e;
+            } catch (final IOException e) {
+                // a scanner over a single buffer does not read any further input
+                throw new UncheckedIOException(e);
+            }
+            this.parseException = parseException;
+            lineCount = scanner.getLineNumber();
+        }
+    }
+
+    /**
+     * Reads a memory-mapped file in windows of at most {@link #MAPPING_SIZE} bytes that end after a complete line.
+     */
+    private static final class MappedScanner extends DimacsScanner {
+        private final FileChannel channel;
+        private final long size;
+        private long offset;
+
+        private MappedScanner(FileChannel channel) throws IOException {
+            this.channel = channel;
+            size = channel.size();
+        }
+
+        @Override
+        protected boolean fill() throws IOException, ParseException {
+            offset += limit;
+            final long remaining = size - offset;
+            if (remaining <= 0) {
+                return false;
+            }
+            buffer = channel.map(MapMode.READ_ONLY, offset, Math.min(remaining, MAPPING_SIZE));
+            position = 0;
+            limit = buffer.limit();
+            if (remaining > MAPPING_SIZE) {
+                limit = getLastLineEnd(buffer, 0, limit);
+                if (limit == 0) {
+                    throw new ParseException("Line is too long", getLineNumber());
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -22,12 +22,17 @@ package de.featjar.formula.io.dimacs;
 
 import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
+import de.featjar.base.io.output.AOutputMapper;
 import de.featjar.formula.analysis.bool.BooleanClause;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
- * Serializes a {@link BooleanClauseList} to a String in DIMACS format.
+ * Serializes a {@link BooleanClauseList} to a String or stream in DIMACS format.
  *
  * @author Sebastian Krieter
  */
@@ -37,29 +42,33 @@ public class CnfDimacsFormat implements IFormat<BooleanClauseList> {
     public Result<String> serialize(BooleanClauseList cnf) {
         Objects.requireNonNull(cnf);
 
-        final StringBuilder sb = new StringBuilder();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            writeDIMACS(cnf, outputStream);
+        } catch (final IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(BooleanClauseList cnf, AOutputMapper outputMapper) throws IOException {
+        Objects.requireNonNull(cnf);
+        writeDIMACS(cnf, outputMapper.get().getOutputStream());
+    }
+
+    private void writeDIMACS(BooleanClauseList cnf, OutputStream outputStream) throws IOException {
+        final DimacsWriter writer = new DimacsWriter(outputStream);
 
         // Problem
-        sb.append(DimacsConstants.PROBLEM);
-        sb.append(' ');
-        sb.append(DimacsConstants.CNF);
-        sb.append(' ');
-        sb.append(cnf.getVariableCount());
-        sb.append(' ');
-        sb.append(cnf.size());
-        sb.append(System.lineSeparator());
+        writer.writeProblem(cnf.getVariableCount(), cnf.size());
 
         // Clauses
         for (final BooleanClause clause : cnf.getAll()) {
-            for (final int l : clause.get()) {
-                sb.append(l);
-                sb.append(' ');
-            }
-            sb.append(DimacsConstants.CLAUSE_END);
-            sb.append(System.lineSeparator());
+            writer.writeClause(clause.get());
         }
 
-        return Result.of(sb.toString());
+        writer.flush();
     }
 
     @Override
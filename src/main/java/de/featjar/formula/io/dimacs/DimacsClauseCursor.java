@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.dimacs;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.io.RuntimeParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the clauses of a DIMACS CNF one at a time, without keeping previous
+ * clauses in memory.
+ * The problem definition and the variable directory are read on creation.
+ * Afterwards, each call of {@link #next()} reads the next clause into a buffer
+ * that is reused for all clauses, so that CNFs larger than the available memory
+ * can be processed.
+ * The input is tokenized by a {@link DimacsScanner} and validated by a
+ * {@link DimacsProblem}, as by {@link BooleanAssignmentGroupsDimacsParser};
+ * the clause and variable counts are checked when the last clause has been read.
+ *
+ * <pre>{@code
+ * try (DimacsClauseCursor cursor = new DimacsClauseCursor(path)) {
+ *     while (cursor.next()) {
+ *         process(cursor.getLiterals(), cursor.size());
+ *     }
+ * }
+ * }</pre>
+ */
+public class DimacsClauseCursor implements AutoCloseable {
+
+    private final InputStream inputStream;
+    private final DimacsScanner scanner;
+    private final DimacsProblem problem = new DimacsProblem();
+
+    private boolean isExhausted;
+
+    /** Literals of the current clause; only the first {@link #size} elements are valid. */
+    private int[] literals = new int[16];
+
+    private int size;
+    private int clauseIndex = -1;
+
+    /**
+     * Opens the given file and reads its problem definition and variable directory.
+     *
+     * @param path the file to read from
+     * @throws IOException    if the file cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public DimacsClauseCursor(Path path) throws IOException, ParseException {
+        this(Files.newInputStream(path), true);
+    }
+
+    /**
+     * Reads the problem definition and, optionally, the variable directory from the given stream.
+     * The stream is closed by {@link #close()}.
+     *
+     * @param inputStream the stream to read from
+     * @param readVariableDirectory whether to read the variable directory
+     * @throws IOException    if the stream cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public DimacsClauseCursor(InputStream inputStream, boolean readVariableDirectory)
+            throws IOException, ParseException {
+        this.inputStream = inputStream;
+        scanner = new StreamScanner(inputStream);
+        try {
+            scanner.readHeader(problem, readVariableDirectory);
+        } catch (IOException | ParseException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * {@return the number of variables as declared in the problem definition}
+     */
+    public int getVariableCount() {
+        return problem.getVariableCount();
+    }
+
+    /**
+     * {@return the number of clauses as declared in the problem definition}
+     */
+    public int getClauseCount() {
+        return problem.getClauseCount();
+    }
+
+    /**
+     * {@return the variables read so far}
+     * Contains all variables once {@link #next()} has returned {@code false}.
+     */
+    public VariableMap getVariableMap() {
+        return problem.getVariableMap();
+    }
+
+    /**
+     * Reads the next clause.
+     *
+     * @return {@code true} if a clause was read, {@code false} if all clauses have been read
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public boolean next() throws IOException, ParseException {
+        if (isExhausted) {
+            return false;
+        }
+        size = 0;
+        while (true) {
+            final int literal = scanner.readLiteral();
+            if (literal == DimacsScanner.END_OF_CLAUSES) {
+                if (size > 0) {
+                    endClause();
+                    return true;
+                }
+                finish();
+                return false;
+            } else if (literal == 0) {
+                endClause();
+                return true;
+            } else {
+                if (size == literals.length) {
+                    literals = Arrays.copyOf(literals, size << 1);
+                }
+                literals[size++] = literal;
+            }
+        }
+    }
+
+    /**
+     * {@return the index of the current clause}
+     */
+    public int getIndex() {
+        return clauseIndex;
+    }
+
+    /**
+     * {@return the number of literals of the current clause}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the buffer containing the literals of the current clause in ascending order}
+     * Only the first {@link #size()} elements are valid. The returned array must not be
+     * modified and is overwritten by the next call of {@link #next()}.
+     */
+    public int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * {@return a copy of the literals of the current clause}
+     */
+    public int[] copyLiterals() {
+        return Arrays.copyOf(literals, size);
+    }
+
+    /**
+     * {@return the current clause}
+     */
+    public BooleanClause toClause() {
+        return new BooleanClause(copyLiterals(), false);
+    }
+
+    /**
+     * {@return a sequential stream of all remaining clauses}
+     * In contrast to {@link #next()}, a new clause is created for each element.
+     * Exceptions are rethrown as {@link UncheckedIOException} or, for parse errors,
+     * as {@link RuntimeParseException}. Closing the stream closes this cursor.
+     */
+    public Stream<BooleanClause> stream() {
+        return StreamSupport.stream(
+                        new Spliterators.AbstractSpliterator<BooleanClause>(
+                                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                            @Override
+                            public boolean tryAdvance(Consumer<? super BooleanClause> action) {
+                                try {
+                                    if (!next()) {
+                                        return false;
+                                    }
+                                } catch (final IOException e) {
+                                    throw new UncheckedIOException(e);
+                                } catch (final ParseException e) {
+                                    throw new RuntimeParseException(e);
+                                }
+                                action.accept(toClause());
+                                return true;
+                            }
+                        },
+                        false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private void endClause() throws ParseException {
+        problem.checkClauseIndex(clauseIndex + 1, scanner.getLineNumber());
+        clauseIndex++;
+        Arrays.sort(literals, 0, size);
+        problem.addVariables(literals, 0, size);
+    }
+
+    private void finish() throws ParseException {
+        isExhausted = true;
+        size = 0;
+        problem.checkCounts(clauseIndex + 1);
+    }
+
+    /**
+     * Reads an input stream through a reusable buffer.
+     */
+    private static final class StreamScanner extends DimacsScanner {
+        private final InputStream inputStream;
+        private final byte[] bytes = new byte[1 << 16];
+
+        private StreamScanner(InputStream inputStream) {
+            this.inputStream = inputStream;
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+        @Override
+        protected boolean fill() throws IOException {
+            final int count = inputStream.read(bytes, 0, bytes.length);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.dimacs;
+
+import de.featjar.formula.analysis.VariableMap;
+import java.text.ParseException;
+
+/**
+ * The problem definition of a DIMACS CNF and the variables found while reading it.
+ * Checks the clauses read against the declared counts, so that all DIMACS readers validate their input in the same
+ * way.
+ */
+public class DimacsProblem {
+
+    /** Maps indexes to variables. */
+    private final VariableMap variableMap = new VariableMap();
+
+    /**
+     * The amount of variables as declared in the problem definition. May differ
+     * from the actual amount of found variables.
+     */
+    private int variableCount = -1;
+
+    /** The amount of clauses as declared in the problem definition. */
+    private int clauseCount = -1;
+
+    /**
+     * {@return the variables found so far}
+     */
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    /**
+     * {@return the number of variables as declared in the problem definition}
+     */
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * {@return the number of clauses as declared in the problem definition}
+     */
+    public int getClauseCount() {
+        return clauseCount;
+    }
+
+    /**
+     * Sets the counts declared in the problem definition.
+     *
+     * @param variableCount the number of variables
+     * @param clauseCount the number of clauses
+     */
+    public void setCounts(int variableCount, int clauseCount) {
+        this.variableCount = variableCount;
+        this.clauseCount = clauseCount;
+    }
+
+    /**
+     * Names the variable with the given index, unless it already has a name.
+     *
+     * @param index the index of the variable
+     * @param name the name from the variable directory
+     */
+    public void addVariable(int index, String name) {
+        if (!variableMap.has(index)) {
+            variableMap.add(index, name);
+        }
+    }
+
+    /**
+     * Adds the variable with the given index under a unique name derived from its index, unless it already has a
+     * name.
+     *
+     * @param index the index of the variable
+     */
+    public void addVariable(int index) {
+        if (!variableMap.has(index)) {
+            variableMap.add(index, getUniqueName(index));
+        }
+    }
+
+    /**
+     * Adds the variables of the given literals.
+     *
+     * @param literals the literals
+     * @param start the index of the first literal (inclusive)
+     * @param end the index of the last literal (exclusive)
+     */
+    public void addVariables(int[] literals, int start, int end) {
+        for (int i = start; i < end; i++) {
+            addVariable(Math.abs(literals[i]));
+        }
+    }
+
+    /**
+     * Adds all declared variables that have not been named by the variable directory.
+     */
+    public void completeVariableDirectory() {
+        for (int i = 1; i <= variableCount; i++) {
+            addVariable(i);
+        }
+    }
+
+    /**
+     * Checks whether the clause with the given index may be added.
+     *
+     * @param clauseIndex the index of the clause
+     * @param lineNumber the current line number
+     * @throws ParseException if more clauses than declared have been read
+     */
+    public void checkClauseIndex(int clauseIndex, int lineNumber) throws ParseException {
+        if (clauseIndex >= clauseCount) {
+            throw new ParseException(String.format("Found more than %d clauses", clauseCount), lineNumber);
+        }
+    }
+
+    /**
+     * Checks whether the number of variables found matches the declared number.
+     *
+     * @throws ParseException if the numbers differ
+     */
+    public void checkVariableCount() throws ParseException {
+        final int actualVariableCount = variableMap.getVariableCount();
+        if (variableCount != actualVariableCount) {
+            throw new ParseException(
+                    String.format("Found %d instead of %d variables", actualVariableCount, variableCount), 1);
+        }
+    }
+
+    /**
+     * Checks whether the given number of clauses matches the declared number.
+     *
+     * @param actualClauseCount the number of clauses read
+     * @throws ParseException if the numbers differ
+     */
+    public void checkClauseCount(int actualClauseCount) throws ParseException {
+        if (clauseCount != actualClauseCount) {
+            throw new ParseException(
+                    String.format("Found %d instead of %d clauses", actualClauseCount, clauseCount), 1);
+        }
+    }
+
+    /**
+     * Checks whether the numbers of variables found and clauses read match the declared numbers.
+     *
+     * @param actualClauseCount the number of clauses read
+     * @throws ParseException if the numbers differ
+     */
+    public void checkCounts(int actualClauseCount) throws ParseException {
+        checkVariableCount();
+        checkClauseCount(actualClauseCount);
+    }
+
+    private String getUniqueName(int i) {
+        String indexName = Integer.toString(i);
+        String name = indexName;
+        int suffix = 2;
+        while (variableMap.has(name)) {
+            name = indexName + "_" + suffix;
+            suffix++;
+        }
+        return name;
+    }
+}
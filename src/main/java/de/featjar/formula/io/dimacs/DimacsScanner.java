@@ -0,0 +1,425 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.dimacs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Reads the tokens of a DIMACS CNF directly from bytes, without creating a string per line.
+ * The bytes are read from a buffer, which subclasses may refill in {@link #fill()} when it is exhausted, so that
+ * tokens may span several buffers.
+ * Validation against the problem definition is left to {@link DimacsProblem}.
+ */
+public class DimacsScanner {
+
+    /** Returned by {@link #readLiteral()} at the end of the input. */
+    public static final int END_OF_CLAUSES = Integer.MIN_VALUE;
+
+    private static final int COMMENT = DimacsConstants.COMMENT.charAt(0);
+    private static final int END_OF_INPUT = -1;
+
+    /** The bytes to read. */
+    protected ByteBuffer buffer;
+    /** The position of the next byte to read in {@link #buffer}. */
+    protected int position;
+    /** The end of the bytes to read in {@link #buffer}. */
+    protected int limit;
+
+    private int lineNumber;
+    private boolean atLineStart = true;
+
+    /** Buffer for a line of the variable directory. */
+    private byte[] lineBuffer = new byte[256];
+
+    /**
+     * Creates a scanner for the given range of the given buffer.
+     *
+     * @param buffer the bytes to read
+     * @param position the position of the first byte to read, which must be at the start of a line
+     * @param limit the end of the bytes to read
+     * @param lineNumber the number of the first line
+     */
+    public DimacsScanner(ByteBuffer buffer, int position, int limit, int lineNumber) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Creates a scanner with an empty buffer, which is filled by {@link #fill()}.
+     */
+    protected DimacsScanner() {
+        this(ByteBuffer.allocate(0), 0, 0, 1);
+    }
+
+    /**
+     * Replaces {@link #buffer}, {@link #position}, and {@link #limit} with the next bytes of the input.
+     * Does nothing by default, so that only the initial buffer is read.
+     *
+     * @return whether there are more bytes
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    protected boolean fill() throws IOException, ParseException {
+        return false;
+    }
+
+    /**
+     * {@return the number of the current line}
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * {@return the number of bytes remaining in the current buffer}
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * {@return whether there are more bytes to read}
+     * Fills the buffer if it is exhausted.
+     *
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public boolean hasRemaining() throws IOException, ParseException {
+        return peek() != END_OF_INPUT;
+    }
+
+    /**
+     * Advances the current line number by the given number of lines, which were read by other scanners.
+     *
+     * @param lineCount the number of lines
+     * @see #split(int)
+     */
+    public void advanceLineNumber(int lineCount) {
+        lineNumber += lineCount;
+    }
+
+    /**
+     * Splits the remaining bytes of the current buffer at line ends into the given number of scanners, which can
+     * read clauses independently of each other, and skips these bytes.
+     * The line numbers of the returned scanners start at 0, so that they count the lines they read.
+     * As buffers are assumed to end at a line end, this scanner continues at a line start.
+     *
+     * @param count the number of scanners
+     * @return the scanners, in order
+     */
+    public DimacsScanner[] split(int count) {
+        final DimacsScanner[] scanners = new DimacsScanner[count];
+        final int start = position;
+        int chunkStart = start;
+        for (int i = 0; i < count; i++) {
+            int chunkEnd = limit;
+            if (i < count - 1) {
+                // scanners start at a line start, so that comment lines are recognized
+                chunkEnd = Math.max(chunkStart, start + (int) ((long) (limit - start) * (i + 1) / count));
+                while (chunkEnd < limit && buffer.get(chunkEnd) != '\n') {
+                    chunkEnd++;
+                }
+                chunkEnd = Math.min(chunkEnd + 1, limit);
+            }
+            scanners[i] = new DimacsScanner(buffer.duplicate(), chunkStart, chunkEnd, 0);
+            chunkStart = chunkEnd;
+        }
+        scanners[0].atLineStart = atLineStart;
+        position = limit;
+        atLineStart = true;
+        return scanners;
+    }
+
+    /**
+     * Reads the comments, including the variable directory, and the problem definition.
+     * Declared variables that are not named by the variable directory are added to the problem afterwards.
+     *
+     * @param problem the problem to read into
+     * @param readVariableDirectory whether to read the variable directory
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public void readHeader(DimacsProblem problem, boolean readVariableDirectory) throws IOException, ParseException {
+        readComments(problem, readVariableDirectory);
+        readProblem(problem);
+        readComments(problem, readVariableDirectory);
+        if (readVariableDirectory) {
+            problem.completeVariableDirectory();
+        }
+    }
+
+    /**
+     * Reads the next literal, skipping whitespace, line ends, and comment lines.
+     *
+     * @return the literal, 0 at the end of a clause, or {@link #END_OF_CLAUSES} at the end of the input
+     * @throws IOException    if the input cannot be read.
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    public int readLiteral() throws IOException, ParseException {
+        while (true) {
+            final int b = read();
+            if (b == END_OF_INPUT) {
+                return END_OF_CLAUSES;
+            } else if (b == '\n') {
+                lineNumber++;
+                atLineStart = true;
+            } else if (atLineStart && b == COMMENT) {
+                skipLine();
+            } else {
+                atLineStart = false;
+                if (!isWhitespace(b)) {
+                    return readLiteral(b);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return the end of the last complete line in the given range of the given buffer, or the start of the range if
+     * there is none}
+     *
+     * @param buffer the buffer
+     * @param start the start of the range
+     * @param end the end of the range
+     */
+    public static int getLastLineEnd(ByteBuffer buffer, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+
+    private int peek() throws IOException, ParseException {
+        while (position == limit) {
+            if (!fill()) {
+                return END_OF_INPUT;
+            }
+        }
+        return buffer.get(position) & 0xFF;
+    }
+
+    private int read() throws IOException, ParseException {
+        final int b = peek();
+        if (b != END_OF_INPUT) {
+            position++;
+        }
+        return b;
+    }
+
+    private void skipLine() throws IOException, ParseException {
+        int b;
+        do {
+            b = read();
+        } while (b != '\n' && b != END_OF_INPUT);
+        if (b == '\n') {
+            lineNumber++;
+            atLineStart = true;
+        }
+    }
+
+    private int skipWhitespace() throws IOException, ParseException {
+        int count = 0;
+        while (isWhitespace(peek())) {
+            read();
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    /**
+     * Reads a literal starting with the given byte.
+     *
+     * @return the literal, or 0 if it terminates the current clause
+     */
+    private int readLiteral(int first) throws IOException, ParseException {
+        final boolean hasSign = first == '-' || first == '+';
+        int b = hasSign ? read() : first;
+        long value = 0;
+        int digits = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new ParseException("Illegal literal", lineNumber);
+            }
+            digits++;
+            b = read();
+        }
+        if (digits == 0 || (b != END_OF_INPUT && b != '\n' && !isWhitespace(b))) {
+            throw new ParseException("Illegal literal", lineNumber);
+        }
+        if (value == 0 && (hasSign || digits != 1)) {
+            throw new ParseException("Illegal literal", lineNumber);
+        }
+        if (b == '\n') {
+            lineNumber++;
+            atLineStart = true;
+        }
+        return first == '-' ? -(int) value : (int) value;
+    }
+
+    /**
+     * Reads comment lines, including the variable directory, until a line that is neither blank nor a comment is
+     * found. Leading whitespace of that line is skipped.
+     */
+    private void readComments(DimacsProblem problem, boolean readVariableDirectory)
+            throws IOException, ParseException {
+        while (atLineStart) {
+            final int b = peek();
+            if (b == COMMENT) {
+                read();
+                if (readVariableDirectory) {
+                    readVariableDirectoryEntry(problem);
+                } else {
+                    skipLine();
+                }
+            } else {
+                skipWhitespace();
+                final int next = peek();
+                if (next == END_OF_INPUT) {
+                    return;
+                }
+                if (next != '\n') {
+                    atLineStart = false;
+                    return;
+                }
+                read();
+                lineNumber++;
+            }
+        }
+    }
+
+    /**
+     * Reads an entry of the variable directory from the rest of the current line.
+     */
+    private void readVariableDirectoryEntry(DimacsProblem problem) throws IOException, ParseException {
+        skipWhitespace();
+        int length = 0;
+        int b;
+        for (b = read(); b != '\n' && b != END_OF_INPUT; b = read()) {
+            if (length == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, length << 1);
+            }
+            lineBuffer[length++] = (byte) b;
+        }
+        if (b == '\n') {
+            lineNumber++;
+        }
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        int separator = 0;
+        while (separator < length && lineBuffer[separator] != ' ') {
+            separator++;
+        }
+        if (separator == 0 || length < separator + 2) {
+            return;
+        }
+        long index = 0;
+        for (int i = 0; i < separator; i++) {
+            if (lineBuffer[i] < '0' || lineBuffer[i] > '9') {
+                return;
+            }
+            index = index * 10 + (lineBuffer[i] - '0');
+            if (index > Integer.MAX_VALUE) {
+                return;
+            }
+        }
+        if (index > 0) {
+            problem.addVariable(
+                    (int) index, new String(lineBuffer, separator + 1, length - separator - 1, StandardCharsets.UTF_8));
+        }
+    }
+
+    private boolean readToken(String token) throws IOException, ParseException {
+        for (int i = 0; i < token.length(); i++) {
+            if (read() != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a non-negative decimal integer.
+     *
+     * @return the integer, or -1 if there is no integer or it is too large
+     */
+    private long readUnsignedInteger() throws IOException, ParseException {
+        long value = 0;
+        int digits = 0;
+        for (int b = peek(); b >= '0' && b <= '9'; b = peek()) {
+            read();
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+            digits++;
+        }
+        return digits == 0 ? -1 : value;
+    }
+
+    /**
+     * Reads the problem definition.
+     *
+     * @throws ParseException if the input does not conform to the DIMACS CNF file
+     *                        format
+     */
+    private void readProblem(DimacsProblem problem) throws IOException, ParseException {
+        skipWhitespace();
+        if (!readToken(DimacsConstants.PROBLEM)
+                || skipWhitespace() == 0
+                || !readToken(DimacsConstants.CNF)
+                || skipWhitespace() == 0) {
+            throw new ParseException("Invalid problem format", lineNumber);
+        }
+        final long variableCount = readUnsignedInteger();
+        if (variableCount < 0 || skipWhitespace() == 0) {
+            throw new ParseException("Invalid problem format", lineNumber);
+        }
+        final long clauseCount = readUnsignedInteger();
+        if (clauseCount < 0) {
+            throw new ParseException("Invalid problem format", lineNumber);
+        }
+        problem.setCounts((int) variableCount, (int) clauseCount);
+        skipWhitespace();
+        atLineStart = peek() == '\n';
+        if (atLineStart) {
+            read();
+            lineNumber++;
+        }
+    }
+}
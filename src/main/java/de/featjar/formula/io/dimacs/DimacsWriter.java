@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.dimacs;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.io.ABufferedAsciiWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a CNF in DIMACS format directly to an {@link OutputStream}.
+ * The DIMACS formats use this writer both for serializing to a string
+ * and for writing to a stream, so both produce the same bytes.
+ * The variable directory only lists variables that have a name; indices
+ * without a name in the variable map are skipped.
+ * The given stream is not closed by this writer.
+ */
+public class DimacsWriter extends ABufferedAsciiWriter {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COMMENT_START = DimacsConstants.COMMENT_START.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PROBLEM_START = (DimacsConstants.PROBLEM + " " + DimacsConstants.CNF + " ")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLAUSE_END = DimacsConstants.CLAUSE_END.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Creates a new writer with a buffer of 64 KiB.
+     *
+     * @param outputStream the output stream
+     */
+    public DimacsWriter(OutputStream outputStream) {
+        this(outputStream, 1 << 16);
+    }
+
+    /**
+     * Creates a new writer.
+     *
+     * @param outputStream the output stream
+     * @param bufferSize the size of the buffer in bytes
+     */
+    public DimacsWriter(OutputStream outputStream, int bufferSize) {
+        super(outputStream, bufferSize);
+    }
+
+    /**
+     * Writes an entry of the variable directory for each named variable of the given variable map.
+     *
+     * @param variableMap the variable map
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeVariableDirectory(VariableMap variableMap) throws IOException {
+        final int maxIndex = variableMap.maxIndex();
+        for (int i = 1; i <= maxIndex; i++) {
+            final String name = variableMap.get(i).orElse(null);
+            if (name != null) {
+                writeVariableDirectoryEntry(i, name);
+            }
+        }
+    }
+
+    /**
+     * Writes an entry of the variable directory.
+     *
+     * @param index the index of the variable
+     * @param name the name of the variable
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeVariableDirectoryEntry(int index, String name) throws IOException {
+        writeBytes(COMMENT_START);
+        writeInteger(index);
+        writeByte((byte) ' ');
+        writeBytes(name.getBytes(StandardCharsets.UTF_8));
+        writeBytes(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the problem description.
+     *
+     * @param variableCount the number of variables
+     * @param clauseCount the number of clauses
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeProblem(int variableCount, int clauseCount) throws IOException {
+        writeBytes(PROBLEM_START);
+        writeInteger(variableCount);
+        writeByte((byte) ' ');
+        writeInteger(clauseCount);
+        writeBytes(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes a clause with the given literals.
+     *
+     * @param literals the literals
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeClause(int... literals) throws IOException {
+        writeClause(literals, 0, literals.length);
+    }
+
+    /**
+     * Writes a clause with the given literals.
+     *
+     * @param literals an array containing the literals of the clause
+     * @param start the index of the first literal (inclusive)
+     * @param end the index of the last literal (exclusive)
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeClause(int[] literals, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            writeLiteral(literals[i]);
+        }
+        endClause();
+    }
+
+    /**
+     * Writes a literal of the current clause.
+     * The clause is terminated by {@link #endClause()}.
+     *
+     * @param literal the literal
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeLiteral(int literal) throws IOException {
+        writeInteger(literal);
+        writeByte((byte) ' ');
+    }
+
+    /**
+     * Terminates the current clause.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void endClause() throws IOException {
+        writeBytes(CLAUSE_END);
+        writeBytes(LINE_SEPARATOR);
+    }
+}
@@ -20,17 +20,24 @@
  */
 package de.featjar.formula.io.dimacs;
 
+import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.base.io.format.ParseProblem;
 import de.featjar.base.io.input.AInputMapper;
+import de.featjar.base.io.output.AOutputMapper;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.structure.IExpression;
 import de.featjar.formula.structure.formula.IFormula;
 import de.featjar.formula.structure.formula.connective.Or;
 import de.featjar.formula.structure.formula.connective.Reference;
 import de.featjar.formula.structure.formula.predicate.Literal;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.stream.Collectors;
 
 /**
  * Reads and writes feature models in the DIMACS CNF format.
@@ -43,86 +50,68 @@ public class FormulaDimacsFormat implements IFormat<IFormula> {
     @Override
     public Result<String> serialize(IFormula formula) {
         VariableMap variableMap = VariableMap.of(formula);
-        return writeDIMACS(
-                (formula instanceof Reference) ? ((Reference) formula).getExpression() : formula, variableMap);
+        return getCNF(formula).flatMap(cnf -> {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                writeDIMACS(cnf, variableMap, outputStream);
+            } catch (final IOException e) {
+                return Result.empty(e);
+            }
+            return Result.of(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        });
     }
 
-    private Result<String> writeDIMACS(IFormula formula, VariableMap variableMap) {
+    @Override
+    public void write(IFormula formula, AOutputMapper outputMapper) throws IOException {
+        VariableMap variableMap = VariableMap.of(formula);
+        final IFormula cnf = getCNF(formula)
+                .orElseThrow(problems -> new IOException(
+                        problems.stream().map(Problem::getMessage).collect(Collectors.joining(", "))));
+        writeDIMACS(cnf, variableMap, outputMapper.get().getOutputStream());
+    }
+
+    private Result<IFormula> getCNF(IFormula formula) {
+        if (formula instanceof Reference) {
+            formula = ((Reference) formula).getExpression();
+        }
         if (!formula.isCNF()) {
             return Result.empty(new IllegalArgumentException("Formula is not in CNF"));
         }
-        final StringBuilder sb = new StringBuilder();
-        writeVariableDirectory(sb, variableMap);
-        writeProblem(sb, formula, variableMap);
-        writeClauses(sb, formula, variableMap);
-        return Result.of(sb.toString());
-    }
-
-    /**
-     * Writes the variable directory.
-     *
-     * @param sb the string builder that builds the document
-     */
-    private void writeVariableDirectory(StringBuilder sb, VariableMap variableMap) {
-        variableMap.stream().forEach(p -> writeVariableDirectoryEntry(sb, p.getKey(), p.getValue()));
-    }
-
-    /**
-     * Writes an entry of the variable directory.
-     *
-     * @param sb       the string builder that builds the document
-     * @param index    index of the variable
-     */
-    private void writeVariableDirectoryEntry(StringBuilder sb, int index, String name) {
-        sb.append(DimacsConstants.COMMENT_START);
-        sb.append(index);
-        sb.append(' ');
-        sb.append(name);
-        sb.append(System.lineSeparator());
+        return Result.of(formula);
     }
 
     /**
-     * Writes the problem description.
+     * Writes the variable directory, the problem description, and all clauses.
      *
-     * @param sb the string builder that builds the document
+     * @param formula the formula in CNF
+     * @param variableMap the variable map
+     * @param outputStream the output stream
+     * @throws IOException if the stream cannot be written
      */
-    private void writeProblem(StringBuilder sb, IFormula formula, VariableMap variableMap) {
-        sb.append(DimacsConstants.PROBLEM);
-        sb.append(' ');
-        sb.append(DimacsConstants.CNF);
-        sb.append(' ');
-        sb.append(variableMap.getVariableCount());
-        sb.append(' ');
-        sb.append(formula.getChildrenCount());
-        sb.append(System.lineSeparator());
+    private void writeDIMACS(IFormula formula, VariableMap variableMap, OutputStream outputStream)
+            throws IOException {
+        final DimacsWriter writer = new DimacsWriter(outputStream);
+        writer.writeVariableDirectory(variableMap);
+        writer.writeProblem(variableMap.getVariableCount(), formula.getChildrenCount());
+        for (final IExpression clause : formula.getChildren()) {
+            writeClause(writer, (Or) clause, variableMap);
+        }
+        writer.flush();
     }
 
     /**
      * Writes the given clause.
      *
-     * @param sb     the string builder that builds the document
+     * @param writer the writer
      * @param clause clause to transform; not null
      */
-    private void writeClause(StringBuilder sb, Or clause, VariableMap variableMap) {
+    private void writeClause(DimacsWriter writer, Or clause, VariableMap variableMap) throws IOException {
         for (final IExpression child : clause.getChildren()) {
             final Literal l = (Literal) child;
-            final Integer index = variableMap.get(l.getExpression().getName()).orElseThrow();
-            sb.append(l.isPositive() ? index : -index);
-            sb.append(' ');
-        }
-        sb.append(DimacsConstants.CLAUSE_END);
-        sb.append(System.lineSeparator());
-    }
-
-    /**
-     * Writes all clauses.
-     *
-     * @param sb the string builder that builds the document
-     */
-    private void writeClauses(StringBuilder sb, IFormula formula, VariableMap variableMap) {
-        for (final IExpression clause : formula.getChildren()) {
-            writeClause(sb, (Or) clause, variableMap);
+            final int index = variableMap.get(l.getExpression().getName()).orElseThrow();
+            writer.writeLiteral(l.isPositive() ? index : -index);
         }
+        writer.endClause();
     }
 
     @Override
@@ -52,7 +52,7 @@ import java.util.regex.Pattern;
  * @author Florian Proksch
  * @author Stefan Krueger
  * @author Sebastian Krieter
- * @deprecated does not work reliably at the moment
+ * @deprecated does not work reliably at the moment, use {@link InfixExpressionParser} instead
  */
 @Deprecated
 public class ExpressionParser {
@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io.textual;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.io.format.ParseException;
+import de.featjar.base.io.format.ParseProblem;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.BiImplies;
+import de.featjar.formula.structure.formula.connective.Implies;
+import de.featjar.formula.structure.formula.connective.Not;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parses propositional expressions in infix notation, as written by {@link ExpressionSerializer}.
+ * Supports {@link Not}, {@link And}, {@link Or}, {@link Implies}, and {@link BiImplies} with the symbols and
+ * priorities of the given {@link Symbols}, parentheses, and variable names, which may be enclosed in double quotes
+ * to contain whitespace, parentheses, or symbols.
+ * Symbols that start and end with a letter or digit (e.g., {@code and}) are only recognized as separate words,
+ * other symbols (e.g., {@code &}) also within words.
+ * Chains of {@link And} and {@link Or} are combined into a single expression, whereas {@link Implies} and
+ * {@link BiImplies} are right-associative.
+ * The input is read in a single pass without backtracking, and each parse error is reported with the offset in
+ * the input at which it occurs.
+ * In contrast to {@link ExpressionParser}, an instance can be used concurrently.
+ */
+public class InfixExpressionParser {
+
+    private static final List<Class<? extends IExpression>> OPERATORS =
+            List.of(Not.class, And.class, Or.class, Implies.class, BiImplies.class);
+
+    private static final char QUOTE = '"';
+    private static final char PARENTHESIS_OPEN = '(';
+    private static final char PARENTHESIS_CLOSE = ')';
+
+    private static final class Operator {
+        private final String symbol;
+        private final Class<? extends IExpression> type;
+        private final int priority;
+        private final boolean isWord;
+
+        private Operator(String symbol, Class<? extends IExpression> type, int priority) {
+            this.symbol = symbol;
+            this.type = type;
+            this.priority = priority;
+            isWord = isWordCharacter(symbol.charAt(0)) && isWordCharacter(symbol.charAt(symbol.length() - 1));
+        }
+    }
+
+    private Symbols symbols;
+
+    /** Supported operators, longest symbols first. */
+    private Operator[] operators;
+    /** The first characters of all operators that are not words. */
+    private String operatorStarts;
+
+    private Operator notOperator;
+
+    /**
+     * Creates a new parser using {@link ShortSymbols}.
+     */
+    public InfixExpressionParser() {
+        setSymbols(ShortSymbols.INSTANCE);
+    }
+
+    /**
+     * Creates a new parser.
+     *
+     * @param symbols the symbols of the operators
+     */
+    public InfixExpressionParser(Symbols symbols) {
+        setSymbols(symbols);
+    }
+
+    public Symbols getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Sets the symbols of the operators.
+     *
+     * @param symbols the symbols
+     */
+    public void setSymbols(Symbols symbols) {
+        this.symbols = Objects.requireNonNull(symbols);
+        final List<Operator> operatorList = new ArrayList<>(OPERATORS.size());
+        final StringBuilder starts = new StringBuilder();
+        Operator notOperator = null;
+        for (Class<? extends IExpression> type : OPERATORS) {
+            final String symbol = symbols.getSymbol(type).orElse(null);
+            if (symbol == null || symbol.isEmpty()) {
+                continue;
+            }
+            final Operator operator = new Operator(symbol, type, symbols.getPriority(type).orElse(0));
+            operatorList.add(operator);
+            if (!operator.isWord) {
+                starts.append(symbol.charAt(0));
+            }
+            if (type == Not.class) {
+                notOperator = operator;
+            }
+        }
+        operatorList.sort(Comparator.comparingInt((Operator o) -> o.symbol.length()).reversed());
+        operators = operatorList.toArray(new Operator[0]);
+        operatorStarts = starts.toString();
+        this.notOperator = notOperator;
+    }
+
+    /**
+     * {@return the parsed expression, or a problem with the offset of the first error}
+     *
+     * @param expression the expression
+     */
+    public Result<IExpression> parse(String expression) {
+        try {
+            return Result.of(parseFormula(expression));
+        } catch (final ParseException e) {
+            return Result.empty(new ParseProblem(e, e.getLineNumber()));
+        }
+    }
+
+    /**
+     * {@return the parsed expression}
+     *
+     * @param expression the expression
+     * @throws ParseException if the expression cannot be parsed, with the offset of the error as line number
+     */
+    public IFormula parseFormula(String expression) throws ParseException {
+        if (expression == null) {
+            throw new ParseException("Expression is null", 0);
+        }
+        return new Parser(expression).parse();
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private enum TokenType {
+        NAME,
+        OPERATOR,
+        PARENTHESIS_OPEN,
+        PARENTHESIS_CLOSE,
+        END
+    }
+
+    /**
+     * Holds the state of parsing a single expression.
+     * Tokens are read on demand, so that the input is only traversed once.
+     */
+    private final class Parser {
+        private final String input;
+        private final int length;
+        private int position;
+
+        private TokenType tokenType;
+        private int tokenStart;
+        private String tokenName;
+        private Operator tokenOperator;
+
+        private Parser(String input) {
+            this.input = input;
+            length = input.length();
+        }
+
+        private IFormula parse() throws ParseException {
+            nextToken();
+            if (tokenType == TokenType.END) {
+                throw new ParseException("Expression is empty", tokenStart);
+            }
+            final IFormula formula = parseExpression(Integer.MIN_VALUE);
+            if (tokenType == TokenType.PARENTHESIS_CLOSE) {
+                throw new ParseException("Too many closing parentheses", tokenStart);
+            }
+            if (tokenType != TokenType.END) {
+                throw new ParseException("Missing operator", tokenStart);
+            }
+            return formula;
+        }
+
+        /**
+         * Parses an operand followed by all binary operators with at least the given priority.
+         */
+        private IFormula parseExpression(int minimumPriority) throws ParseException {
+            IFormula left = parseOperand();
+            while (tokenType == TokenType.OPERATOR
+                    && tokenOperator != notOperator
+                    && tokenOperator.priority >= minimumPriority) {
+                final Operator operator = tokenOperator;
+                nextToken();
+                if (operator.type == And.class || operator.type == Or.class) {
+                    final List<IFormula> children = new ArrayList<>();
+                    children.add(left);
+                    children.add(parseExpression(operator.priority + 1));
+                    while (tokenType == TokenType.OPERATOR && tokenOperator == operator) {
+                        nextToken();
+                        children.add(parseExpression(operator.priority + 1));
+                    }
+                    left = operator.type == And.class ? new And(children) : new Or(children);
+                } else {
+                    final IFormula right = parseExpression(operator.priority);
+                    left = operator.type == Implies.class ? new Implies(left, right) : new BiImplies(left, right);
+                }
+            }
+            return left;
+        }
+
+        private IFormula parseOperand() throws ParseException {
+            switch (tokenType) {
+                case NAME:
+                    final Literal literal = new Literal(tokenName);
+                    nextToken();
+                    return literal;
+                case PARENTHESIS_OPEN:
+                    return parseParenthesizedExpression();
+                case OPERATOR:
+                    if (tokenOperator == notOperator) {
+                        nextToken();
+                        return new Not(parseExpression(notOperator.priority));
+                    }
+                    throw new ParseException(
+                            String.format("Missing feature name or expression before %s", tokenOperator.symbol),
+                            tokenStart);
+                case PARENTHESIS_CLOSE:
+                case END:
+                default:
+                    throw new ParseException("Missing feature name or expression", tokenStart);
+            }
+        }
+
+        private IFormula parseParenthesizedExpression() throws ParseException {
+            final int start = tokenStart;
+            nextToken();
+            if (tokenType == TokenType.PARENTHESIS_CLOSE) {
+                throw new ParseException("Expression in parentheses is empty", tokenStart);
+            }
+            final IFormula formula = parseExpression(Integer.MIN_VALUE);
+            if (tokenType == TokenType.END) {
+                throw new ParseException("Missing closing parenthesis", start);
+            }
+            if (tokenType != TokenType.PARENTHESIS_CLOSE) {
+                throw new ParseException("Missing operator", tokenStart);
+            }
+            nextToken();
+            return formula;
+        }
+
+        private void nextToken() throws ParseException {
+            while (position < length && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+            tokenStart = position;
+            tokenName = null;
+            tokenOperator = null;
+            if (position == length) {
+                tokenType = TokenType.END;
+                return;
+            }
+            final char c = input.charAt(position);
+            if (c == PARENTHESIS_OPEN) {
+                position++;
+                tokenType = TokenType.PARENTHESIS_OPEN;
+            } else if (c == PARENTHESIS_CLOSE) {
+                position++;
+                tokenType = TokenType.PARENTHESIS_CLOSE;
+            } else if (c == QUOTE) {
+                final int end = input.indexOf(QUOTE, position + 1);
+                if (end < 0) {
+                    throw new ParseException("Missing closing quotation mark", position);
+                }
+                tokenType = TokenType.NAME;
+                tokenName = input.substring(position + 1, end);
+                position = end + 1;
+            } else if ((tokenOperator = matchOperator()) != null) {
+                position += tokenOperator.symbol.length();
+                tokenType = TokenType.OPERATOR;
+            } else {
+                int end = position + 1;
+                while (end < length && !isNameEnd(end)) {
+                    end++;
+                }
+                tokenType = TokenType.NAME;
+                tokenName = input.substring(position, end);
+                position = end;
+            }
+        }
+
+        /**
+         * {@return the operator starting at the current position, if any}
+         * Word operators must be followed by a character that cannot be part of the same word.
+         */
+        private Operator matchOperator() {
+            for (Operator operator : operators) {
+                if (input.startsWith(operator.symbol, position)) {
+                    if (!operator.isWord) {
+                        return operator;
+                    }
+                    final int end = position + operator.symbol.length();
+                    if (end == length || isNameEnd(end)) {
+                        return operator;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean isNameEnd(int index) {
+            final char c = input.charAt(index);
+            return Character.isWhitespace(c)
+                    || c == PARENTHESIS_OPEN
+                    || c == PARENTHESIS_CLOSE
+                    || c == QUOTE
+                    || (operatorStarts.indexOf(c) >= 0 && startsWithSymbolOperator(index));
+        }
+
+        private boolean startsWithSymbolOperator(int index) {
+            for (Operator operator : operators) {
+                if (!operator.isWord && input.startsWith(operator.symbol, index)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
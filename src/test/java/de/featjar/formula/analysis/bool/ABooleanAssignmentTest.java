@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ABooleanAssignmentTest {
+
+    /** An assignment over variables 1 to n with alternating signs and each variable occurring twice. */
+    private static BooleanAssignment assignment(int n) {
+        return new BooleanAssignment(IntStream.rangeClosed(1, 2 * n)
+                .map(i -> (i + 1) / 2 * (i % 2 == 0 ? 1 : -1))
+                .toArray());
+    }
+
+    @Test
+    void smallAndLargeAssignmentsAgree() {
+        for (int n : new int[] {4, 40}) {
+            BooleanAssignment assignment = assignment(n);
+            assertEquals(4, assignment.indexOfVariable(3));
+            assertArrayEquals(new int[] {4, 5}, assignment.indicesOfVariable(3));
+            assertEquals(-1, assignment.indexOfVariable(n + 1));
+            assertArrayEquals(new int[0], assignment.indicesOfVariable(n + 1));
+            assertArrayEquals(new int[] {-1, 1, -3, 3}, assignment.retainAllVariables(3, 1, n + 1));
+            assertEquals(2 * n - 4, assignment.removeAllVariables(1, 3).length);
+            assertArrayEquals(
+                    new int[] {-1, 1, -3, 3},
+                    assignment.retainAllVariables(new BooleanAssignment(-3, 1)).get());
+            assertEquals(
+                    2 * n - 4,
+                    assignment.removeAllVariables(new BooleanAssignment(-3, 0, -1)).size());
+        }
+    }
+
+    @Test
+    void sparseAssignments() {
+        for (int n : new int[] {4, 40}) {
+            int[] literals = IntStream.of(assignment(n).get()).map(l -> l * 100_003).toArray();
+            literals[1] = 0;
+            BooleanAssignment assignment = new BooleanAssignment(literals);
+            assertEquals(4, assignment.indexOfVariable(3 * 100_003));
+            assertArrayEquals(new int[] {4, 5}, assignment.indicesOfVariable(3 * 100_003));
+            assertArrayEquals(new int[] {0}, assignment.indicesOfVariable(100_003));
+            assertEquals(-1, assignment.indexOfVariable(3));
+            assertEquals(-1, assignment.indexOfVariable(0));
+            assertArrayEquals(new int[0], assignment.indicesOfVariable(0));
+            assertArrayEquals(
+                    new int[] {-100_003, -300_009, 300_009},
+                    assignment.retainAllVariables(300_009, 100_003, 0, 3));
+            assertEquals(2 * n - 3, assignment.removeAllVariables(100_003, 300_009).length);
+        }
+    }
+
+    @Test
+    void negativeVariablesAreRejected() {
+        for (int n : new int[] {4, 40}) {
+            BooleanAssignment assignment = assignment(n);
+            assertThrows(IllegalArgumentException.class, () -> assignment.indexOfVariable(-1));
+            assertThrows(IllegalArgumentException.class, () -> assignment.indicesOfVariable(-1));
+            assertThrows(IllegalArgumentException.class, () -> assignment.retainAllVariables(1, -2));
+            assertThrows(IllegalArgumentException.class, () -> assignment.removeAllVariables(1, -2));
+        }
+    }
+
+    @Test
+    void solutionsWithUnassignedVariables() {
+        for (int n : new int[] {4, 40}) {
+            int[] literals = new int[n];
+            literals[0] = 1;
+            literals[2] = -3;
+            BooleanSolution solution = new BooleanSolution(literals, false);
+            assertEquals(-1, solution.indexOfVariable(0));
+            assertEquals(-1, solution.indexOfVariable(2));
+            assertEquals(2, solution.indexOfVariable(3));
+            assertArrayEquals(new int[] {1, -3}, solution.retainAllVariables(0, 1, 2, 3));
+            assertEquals(n - 2, solution.removeAllVariables(0, 1, 3).length);
+        }
+    }
+
+    @Test
+    void indexIsInvalidatedBySorting() {
+        int[] literals = IntStream.rangeClosed(1, 40).map(i -> -i).toArray();
+        BooleanClause clause = new BooleanClause(literals);
+        assertEquals(39, clause.indexOfVariable(1));
+        assertArrayEquals(new int[] {-40, -1}, clause.retainAllVariables(1, 40));
+    }
+}
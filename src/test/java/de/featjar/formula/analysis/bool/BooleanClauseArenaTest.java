@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static de.featjar.formula.structure.Expressions.and;
+import static de.featjar.formula.structure.Expressions.literal;
+import static de.featjar.formula.structure.Expressions.or;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.structure.formula.IFormula;
+import org.junit.jupiter.api.Test;
+
+public class BooleanClauseArenaTest {
+
+    @Test
+    void addAndView() {
+        BooleanClauseArena arena = new BooleanClauseArena(4, 1, 1);
+        arena.add(3, -1, 2);
+        arena.add();
+        arena.addLiteral(4);
+        arena.addLiteral(-2);
+        arena.endClause();
+
+        assertEquals(3, arena.size());
+        assertEquals(5, arena.getLiteralCount());
+        assertArrayEquals(new int[] {-1, 2, 3}, arena.getClause(0).copy());
+        assertEquals(0, arena.getClause(1).size());
+        assertArrayEquals(new int[] {-2, 4}, arena.getClause(2).copy());
+        assertTrue(arena.getClause(2).contains(4));
+        assertFalse(arena.getClause(2).contains(2));
+        assertEquals(3, arena.getStart(2));
+        assertEquals(5, arena.getEnd(2));
+
+        int[] sizes = new int[arena.size()];
+        arena.forEach((index, literals, start, end) -> sizes[index] = end - start);
+        assertArrayEquals(new int[] {3, 0, 2}, sizes);
+
+        assertThrows(IllegalArgumentException.class, () -> arena.add(1, 0));
+    }
+
+    @Test
+    void rejectedClauseLeavesArenaUsable() {
+        BooleanClauseArena arena = new BooleanClauseArena(3, 1, 1);
+        arena.add(1, -2);
+        assertThrows(IllegalArgumentException.class, () -> arena.add(3, 0, -1));
+        assertEquals(0, arena.getOpenClauseSize());
+        assertEquals(1, arena.size());
+        assertEquals(2, arena.getLiteralCount());
+        arena.add(3, -1);
+        assertArrayEquals(new int[] {-1, 3}, arena.getClause(1).copy());
+    }
+
+    @Test
+    void clauseListRoundTrip() {
+        BooleanClauseList clauseList = new BooleanClauseList(3);
+        clauseList.add(new BooleanClause(1, -2));
+        clauseList.add(new BooleanClause(3));
+        clauseList.add(new BooleanClause(-3, -1, 2));
+        BooleanClauseArena arena = new BooleanClauseArena(clauseList);
+        assertEquals(3, arena.getVariableCount());
+        assertEquals(clauseList, arena.toBooleanClauseList());
+        assertEquals(arena, new BooleanClauseArena(arena));
+    }
+
+    @Test
+    void fromFormula() {
+        IFormula cnf = and(or(literal("a"), literal(false, "b")), or(literal("c")), or(literal(false, "a"), literal("c")));
+        VariableMap variableMap = VariableMap.of(cnf);
+        BooleanClauseList clauseList = ComputeBooleanClauseList.toBooleanClauseList(cnf, variableMap)
+                .orElseThrow();
+        BooleanClauseArena arena = ComputeBooleanClauseList.toBooleanClauseArena(cnf, variableMap)
+                .orElseThrow();
+        assertEquals(clauseList, arena.toBooleanClauseList());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class BooleanClauseTest {
+
+    private static final BooleanClause EMPTY = new BooleanClause();
+
+    /** A random clause of the given size over variables 1 to n, which may contain duplicates. */
+    private static BooleanClause randomClause(Random random, int size, int n) {
+        int[] literals = new int[size];
+        for (int i = 0; i < size; i++) {
+            literals[i] = (random.nextInt(n) + 1) * (random.nextBoolean() ? 1 : -1);
+        }
+        return new BooleanClause(literals);
+    }
+
+    @Test
+    void setOperationsKeepDuplicates() {
+        BooleanClause clause1 = new BooleanClause(-2, -2, 1, 3, 3);
+        BooleanClause clause2 = new BooleanClause(-2, 3, 4, 4);
+        assertArrayEquals(new int[] {-2, -2, 1, 3, 3, 4, 4}, clause1.union(clause2).get());
+        assertArrayEquals(new int[] {-2, 1, 3, 4, 4}, clause2.union(clause1).get());
+        assertArrayEquals(new int[] {-2, -2, 3, 3}, clause1.intersection(clause2).get());
+        assertArrayEquals(new int[] {1}, clause1.difference(clause2).get());
+        assertArrayEquals(new int[] {4, 4}, clause2.difference(clause1).get());
+        assertTrue(clause1.containsAll(new BooleanClause(-2, 3, 3)));
+        assertFalse(clause1.containsAll(clause2));
+    }
+
+    @Test
+    void setOperationsOnEmptyClauses() {
+        BooleanClause clause = new BooleanClause(-1, 2);
+        assertArrayEquals(clause.get(), clause.union(EMPTY).get());
+        assertArrayEquals(clause.get(), EMPTY.union(clause).get());
+        assertEquals(0, clause.intersection(EMPTY).size());
+        assertEquals(0, EMPTY.intersection(clause).size());
+        assertArrayEquals(clause.get(), clause.difference(EMPTY).get());
+        assertEquals(0, EMPTY.difference(clause).size());
+        assertTrue(clause.containsAll(EMPTY));
+        assertFalse(EMPTY.containsAll(clause));
+        assertTrue(EMPTY.subsumes(clause));
+        assertFalse(EMPTY.isTautology());
+    }
+
+    @Test
+    void setOperationsAgreeWithGenericImplementations() {
+        Random random = new Random(1);
+        int[][] sizes = {{0, 5}, {5, 5}, {20, 20}, {3, 2000}, {2000, 3}, {1, 10000}};
+        for (int[] size : sizes) {
+            for (int k = 0; k < 20; k++) {
+                BooleanClause clause1 = randomClause(random, size[0], 50);
+                BooleanClause clause2 = randomClause(random, size[1], 50);
+                BooleanAssignment assignment2 = new BooleanAssignment(clause2.get());
+                assertEquals(clause1.addAll(assignment2), clause1.addAll(clause2));
+                assertEquals(clause1.retainAll(assignment2), clause1.retainAll(clause2));
+                assertEquals(clause1.removeAll(assignment2), clause1.removeAll(clause2));
+                assertEquals(clause1.containsAll(clause2.get()), clause1.containsAll(clause2));
+                assertEquals(clause2.containsAll(clause1.get()), clause1.subsumes(clause2));
+            }
+        }
+    }
+
+    @Test
+    void gallopingSkipsLongRuns() {
+        int[] literals = new int[100000];
+        for (int i = 0; i < literals.length; i++) {
+            literals[i] = i + 1;
+        }
+        BooleanClause large = new BooleanClause(literals, false);
+        BooleanClause small = new BooleanClause(-5, 1, 50000, 100000, 100001);
+        assertArrayEquals(new int[] {1, 50000, 100000}, small.intersection(large).get());
+        assertArrayEquals(new int[] {1, 50000, 100000}, large.intersection(small).get());
+        assertArrayEquals(new int[] {-5, 100001}, small.difference(large).get());
+        assertEquals(literals.length - 3, large.difference(small).size());
+        assertEquals(literals.length + 2, large.union(small).size());
+        assertTrue(large.containsAll(new BooleanClause(1, 2, 99999, 100000)));
+        assertFalse(large.containsAll(small));
+        assertTrue(new BooleanClause(2, 99999).subsumes(large));
+    }
+
+    @Test
+    void detectsTautologies() {
+        assertTrue(new BooleanClause(-3, 1, 3).isTautology());
+        assertTrue(new BooleanClause(-1, -1, 1).isTautology());
+        assertFalse(new BooleanClause(-3, -1, 2).isTautology());
+        assertFalse(new BooleanClause(1, 1, 2).isTautology());
+        assertFalse(new BooleanClause(-2, -1).isTautology());
+    }
+
+    @Test
+    void resolvesOnLiteral() {
+        BooleanClause clause1 = new BooleanClause(-2, 1, 3);
+        BooleanClause clause2 = new BooleanClause(-3, 1, 4);
+        assertArrayEquals(new int[] {-2, 1, 4}, clause1.resolve(clause2, 3).get().get());
+        assertArrayEquals(new int[] {-2, 1, 4}, clause2.resolve(clause1, -3).get().get());
+        assertTrue(clause1.resolve(new BooleanClause(-3, 2), 3).isEmpty());
+        assertArrayEquals(new int[0], new BooleanClause(1).resolve(new BooleanClause(-1), 1).get().get());
+        assertThrows(IllegalArgumentException.class, () -> clause1.resolve(clause2, 1));
+        assertThrows(IllegalArgumentException.class, () -> clause1.resolve(EMPTY, 3));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static de.featjar.formula.structure.Expressions.and;
+import static de.featjar.formula.structure.Expressions.literal;
+import static de.featjar.formula.structure.Expressions.or;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.formula.IFormula;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ComputeBooleanClauseListTest {
+
+    @Test
+    void parallelConversionKeepsOrder() {
+        Random random = new Random(1);
+        IFormula[] clauses = new IFormula[3 * 4096 + 17];
+        for (int i = 0; i < clauses.length; i++) {
+            IFormula[] literals = new IFormula[1 + random.nextInt(4)];
+            for (int j = 0; j < literals.length; j++) {
+                literals[j] = literal(random.nextBoolean(), "x" + random.nextInt(200));
+            }
+            if (i % 1000 == 0) {
+                literals[0] = Expressions.True;
+            }
+            clauses[i] = or(literals);
+        }
+        IFormula cnf = and(clauses);
+        VariableMap variableMap = VariableMap.of(cnf);
+        BooleanClauseList sequential = ComputeBooleanClauseList.toBooleanClauseList(cnf, variableMap, false)
+                .orElseThrow();
+        BooleanClauseList parallel = ComputeBooleanClauseList.toBooleanClauseList(cnf, variableMap, true)
+                .orElseThrow();
+        assertEquals(clauses.length - 13, sequential.size());
+        assertEquals(sequential, parallel);
+        assertEquals(
+                sequential,
+                ComputeBooleanClauseList.toBooleanClauseArena(cnf, variableMap)
+                        .orElseThrow()
+                        .toBooleanClauseList());
+    }
+
+    @Test
+    void convertSingleClauses() {
+        IFormula cnf = and(or(literal(true, "a"), literal(false, "b")), or(Expressions.True, literal("a")));
+        VariableMap variableMap = VariableMap.of(cnf);
+        assertEquals(
+                new BooleanClause(variableMap.get("a").orElseThrow(), -variableMap.get("b").orElseThrow()),
+                ComputeBooleanClauseList.getClause((IFormula) cnf.getChildren().get(0), variableMap));
+        assertNull(ComputeBooleanClauseList.getClause((IFormula) cnf.getChildren().get(1), variableMap));
+    }
+}
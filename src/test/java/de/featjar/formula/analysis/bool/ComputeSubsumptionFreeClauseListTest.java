@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.Common;
+import org.junit.jupiter.api.Test;
+
+public class ComputeSubsumptionFreeClauseListTest extends Common {
+
+    @Test
+    void removesSubsumedClauses() {
+        BooleanClauseList clauseList = clauses(
+                4, new int[] {1, 2, 3}, new int[] {1, 2}, new int[] {-4, 2, 1}, new int[] {3, 4}, new int[] {-1, 1});
+        assertEquals(
+                clauses(4, new int[] {1, 2}, new int[] {3, 4}),
+                ComputeSubsumptionFreeClauseList.reduce(clauseList, false));
+    }
+
+    @Test
+    void strengthensClauses() {
+        BooleanClauseList clauseList = clauses(3, new int[] {1, 2}, new int[] {-1, 2, 3}, new int[] {-2, 3});
+        assertEquals(clauseList, ComputeSubsumptionFreeClauseList.reduce(clauseList, false));
+        assertEquals(
+                clauses(3, new int[] {1, 2}, new int[] {3}),
+                ComputeSubsumptionFreeClauseList.reduce(clauseList, true));
+    }
+
+    @Test
+    void removesDuplicateLiterals() {
+        BooleanClauseList clauseList = clauses(3, new int[] {1, 1, 2}, new int[] {-2, 3});
+        assertEquals(
+                clauses(3, new int[] {1, 2}, new int[] {-2, 3}),
+                ComputeSubsumptionFreeClauseList.reduce(clauseList, false));
+        assertEquals(
+                clauses(3, new int[] {1, 2}, new int[] {-2, 3}),
+                ComputeSubsumptionFreeClauseList.reduce(clauseList, true));
+    }
+}
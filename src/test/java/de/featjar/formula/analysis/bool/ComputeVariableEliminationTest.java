@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.Common;
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.VariableMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ComputeVariableEliminationTest extends Common {
+
+    private static VariableMap variables(String... names) {
+        VariableMap variableMap = VariableMap.empty();
+        for (String name : names) {
+            variableMap.add(name);
+        }
+        return variableMap;
+    }
+
+    @Test
+    void eliminatesVariables() {
+        VariableMap variableMap = variables("a", "x", "b", "c");
+        BooleanClauseList clauseList = clauses(4, new int[] {-1, 2}, new int[] {-2, 3}, new int[] {-2, 4});
+        Pair<BooleanClauseList, VariableMap> result = ComputeVariableElimination.eliminate(
+                clauseList, variableMap, new int[] {2}, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(List.of("a", "b", "c"), result.getValue().getVariableNames());
+        assertEquals(clauses(3, new int[] {-1, 2}, new int[] {-1, 3}), result.getKey());
+    }
+
+    @Test
+    void respectsClauseGrowth() {
+        VariableMap variableMap = variables("a", "b", "x", "c", "d", "e");
+        BooleanClauseList clauseList = clauses(
+                6, new int[] {1, 3}, new int[] {2, 3}, new int[] {-3, 4}, new int[] {-3, 5}, new int[] {-3, 6});
+        Pair<BooleanClauseList, VariableMap> result = ComputeVariableElimination.eliminate(
+                clauseList,
+                variableMap,
+                new int[] {3},
+                ComputeVariableElimination.DEFAULT_MAXIMUM_OCCURRENCES,
+                ComputeVariableElimination.DEFAULT_MAXIMUM_CLAUSE_GROWTH);
+        assertEquals(variableMap.getVariableNames(), result.getValue().getVariableNames());
+        assertEquals(clauseList, result.getKey());
+    }
+
+    @Test
+    void dropsDuplicateResolvents() {
+        VariableMap variableMap = variables("a", "b", "x", "c", "d");
+        BooleanClauseList clauseList = clauses(
+                5, new int[] {1, 3}, new int[] {2, 3}, new int[] {-3, 4}, new int[] {-3, 5}, new int[] {-3, 1, 2});
+        Pair<BooleanClauseList, VariableMap> result =
+                ComputeVariableElimination.eliminate(clauseList, variableMap, new int[] {3}, Integer.MAX_VALUE, 0);
+        assertEquals(List.of("a", "b", "c", "d"), result.getValue().getVariableNames());
+        assertEquals(5, result.getKey().size());
+    }
+
+    @Test
+    void dropsSubsumedResolvents() {
+        VariableMap variableMap = variables("a", "b", "c", "x");
+        BooleanClauseList clauseList =
+                clauses(4, new int[] {1, 3}, new int[] {2, 3}, new int[] {1, 4}, new int[] {2, 4}, new int[] {-4, 3});
+        Pair<BooleanClauseList, VariableMap> result =
+                ComputeVariableElimination.eliminate(clauseList, variableMap, new int[] {4}, Integer.MAX_VALUE, -3);
+        assertEquals(List.of("a", "b", "c"), result.getValue().getVariableNames());
+        assertEquals(clauses(3, new int[] {1, 3}, new int[] {2, 3}), result.getKey());
+    }
+
+    @Test
+    void rejectsRemainingUnnamedVariables() {
+        VariableMap variableMap = variables("a", "x");
+        BooleanClauseList clauseList = clauses(3, new int[] {1, 2}, new int[] {-2, 3});
+        assertEquals(
+                clauses(1),
+                ComputeVariableElimination.eliminate(clauseList, variableMap, new int[] {2, 3}, 1, 0)
+                        .getKey());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ComputeVariableElimination.eliminate(clauseList, variableMap, new int[] {2}, 1, 0));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ContiguousBooleanSolutionListTest {
+
+    private static ContiguousBooleanSolutionList solutions() {
+        return new ContiguousBooleanSolutionList(
+                3,
+                List.of(
+                        new BooleanSolution(new int[] {1, -2, 3}, false),
+                        new BooleanSolution(new int[] {-1, 0, 3}, false)));
+    }
+
+    @Test
+    void rowsAndColumns() {
+        ContiguousBooleanSolutionList list = solutions();
+        assertEquals(2, list.size());
+        assertEquals(3, list.getVariableCount());
+        assertEquals(-2, list.get(0, 2));
+        assertEquals(0, list.get(1, 2));
+        assertArrayEquals(new int[] {-1, 0, 3}, list.getRow(1).copy());
+        assertEquals(1, list.getRow(1).countPositives());
+        assertEquals(1, list.getRow(1).countNegatives());
+        assertArrayEquals(new int[] {1, -1}, list.getColumn(1));
+        assertArrayEquals(new int[] {3, 3}, list.getColumn(3));
+        assertEquals(2, list.countOccurrences(3));
+        assertEquals(0, list.countOccurrences(-3));
+        assertEquals(3, list.getOffset(1));
+        assertThrows(IllegalArgumentException.class, () -> list.getColumn(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getRow(2));
+        assertThrows(IllegalArgumentException.class, () -> list.get(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> list.get(1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> list.getRow(0).get(4));
+        assertThrows(IllegalArgumentException.class, () -> list.getRow(1).get(0));
+    }
+
+    @Test
+    void addAndRemove() {
+        ContiguousBooleanSolutionList list = new ContiguousBooleanSolutionList(2, 1);
+        assertTrue(list.isEmpty());
+        list.add(0, 1, 2);
+        list.add(0, -1, -2);
+        list.add(1, 1, -2);
+        assertArrayEquals(new int[] {-1, -2}, list.getRow(0).copy());
+        assertArrayEquals(new int[] {1, -2}, list.getRow(1).copy());
+        assertArrayEquals(new int[] {1, 2}, list.getRow(2).copy());
+        assertArrayEquals(new int[] {1, -2}, list.remove(1).get().get());
+        assertEquals(2, list.size());
+        assertArrayEquals(new int[] {1, 2}, list.getAll().get(1).get());
+        assertThrows(IllegalArgumentException.class, () -> list.add(3, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> list.add(0, 1));
+        assertTrue(list.get(2).isEmpty());
+    }
+
+    @Test
+    void copies() {
+        ContiguousBooleanSolutionList list = solutions();
+        ContiguousBooleanSolutionList copy = new ContiguousBooleanSolutionList(list);
+        assertEquals(list, copy);
+        assertEquals(list.hashCode(), copy.hashCode());
+        assertEquals(list, new ContiguousBooleanSolutionList(list.toSolutionList()));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PackedBooleanSolutionTest {
+
+    private static int[] randomSolution(Random random, int variableCount) {
+        int[] literals = new int[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            int value = random.nextInt(3);
+            literals[i] = value == 0 ? 0 : value == 1 ? i + 1 : -(i + 1);
+        }
+        return literals;
+    }
+
+    @Test
+    void getAndSet() {
+        PackedBooleanSolution solution = new PackedBooleanSolution(70, 1, -3, 65, -70);
+        assertEquals(1, solution.get(1));
+        assertEquals(0, solution.get(2));
+        assertEquals(-3, solution.get(3));
+        assertEquals(65, solution.get(65));
+        assertEquals(-70, solution.get(70));
+        assertEquals(0, solution.get(71));
+        solution.set(3);
+        solution.unset(65);
+        assertEquals(3, solution.get(3));
+        assertEquals(0, solution.get(65));
+        assertEquals(3, solution.countNonZero());
+        assertEquals(2, solution.countPositives());
+        assertEquals(1, solution.countNegatives());
+    }
+
+    @Test
+    void roundTrip() {
+        int[] literals = {1, 0, -3, 0, 5};
+        PackedBooleanSolution solution = new PackedBooleanSolution(new BooleanSolution(literals, false));
+        assertArrayEquals(literals, solution.copy());
+        assertArrayEquals(new int[] {1, -3, 5}, solution.getNonZeroValues());
+        assertEquals(new BooleanSolution(literals, false), solution.toSolution());
+    }
+
+    @Test
+    void agreesWithBooleanSolution() {
+        Random random = new Random(1);
+        for (int round = 0; round < 100; round++) {
+            int variableCount = 1 + random.nextInt(200);
+            int[] a = randomSolution(random, variableCount);
+            int[] b = randomSolution(random, variableCount);
+            BooleanSolution solutionA = new BooleanSolution(a, false);
+            PackedBooleanSolution packedA = new PackedBooleanSolution(solutionA);
+            PackedBooleanSolution packedB = new PackedBooleanSolution(new BooleanSolution(b, false));
+            int[] nonZeroB = new BooleanSolution(b, false).getNonZeroValues();
+
+            assertEquals(solutionA.countConflicts(nonZeroB), packedA.countConflicts(packedB));
+            assertEquals(solutionA.conflictsWith(nonZeroB), packedA.conflictsWith(packedB));
+            assertEquals(solutionA.containsAll(nonZeroB), packedA.containsAll(packedB));
+            assertArrayEquals(BooleanSolution.removeConflicts(a, b), packedA.removeConflicts(packedB).copy());
+            assertArrayEquals(solutionA.inverse().get(), packedA.inverse().copy());
+        }
+    }
+
+    @Test
+    void containsAll() {
+        PackedBooleanSolution solution = new PackedBooleanSolution(100, 1, -2, 64, 99);
+        assertTrue(solution.containsAll(new PackedBooleanSolution(100, -2, 99)));
+        assertFalse(solution.containsAll(new PackedBooleanSolution(100, 2, 99)));
+        assertFalse(solution.containsAll(new PackedBooleanSolution(100, 3)));
+        assertTrue(solution.containsAll(1, 64));
+        assertFalse(solution.containsAll(1, -64));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.Common;
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.RuntimeContradictionException;
+import org.junit.jupiter.api.Test;
+
+public class UnitPropagationTest extends Common {
+
+    @Test
+    void propagatesImplicationChains() {
+        int n = 1000;
+        BooleanClauseList clauseList = new BooleanClauseList(n + 1);
+        // listed in reverse, so that each implication only becomes unit after the previous one
+        for (int i = n; i >= 1; i--) {
+            clauseList.add(new BooleanClause(-i, i + 1));
+        }
+        clauseList.add(new BooleanClause(-(n + 1), 1, 2));
+        Pair<BooleanClauseList, BooleanAssignment> result =
+                new UnitPropagation().propagate(clauseList, new BooleanAssignment(1));
+        assertEquals(0, result.getKey().size());
+        assertEquals(n, result.getValue().size());
+        assertEquals(n + 1, result.getValue().get(n - 1));
+    }
+
+    @Test
+    void removesSatisfiedClausesAndFalseLiterals() {
+        UnitPropagation propagation = new UnitPropagation();
+        Pair<BooleanClauseList, BooleanAssignment> result = propagation.propagate(
+                clauses(
+                        8,
+                        new int[] {1, 2},
+                        new int[] {-1, 3, 4, 5},
+                        new int[] {-3, -2},
+                        new int[] {-4, 5},
+                        new int[] {6, 7, 8},
+                        new int[] {-6, -7, 5}),
+                new BooleanAssignment(1, -5));
+        assertArrayEquals(new int[] {-4, 3, -2}, result.getValue().get());
+        assertEquals(2, result.getKey().size());
+        assertEquals(new BooleanClause(6, 7, 8), result.getKey().getAll().get(0));
+        assertEquals(new BooleanClause(-6, -7), result.getKey().getAll().get(1));
+
+        // buffers are reset between calls
+        result = propagation.propagate(clauses(2, new int[] {1, 2}), new BooleanAssignment(-1));
+        assertArrayEquals(new int[] {2}, result.getValue().get());
+    }
+
+    @Test
+    void detectsContradictions() {
+        UnitPropagation propagation = new UnitPropagation();
+        assertThrows(
+                RuntimeContradictionException.class,
+                () -> propagation.propagate(
+                        clauses(3, new int[] {-1, 2}, new int[] {-2, 3}, new int[] {-3, -1}),
+                        new BooleanAssignment(1)));
+        assertThrows(
+                RuntimeContradictionException.class,
+                () -> propagation.propagate(clauses(1), new BooleanAssignment(1, -1)));
+        assertEquals(
+                0,
+                propagation
+                        .propagate(clauses(2, new int[] {1, 2}), new BooleanAssignment())
+                        .getValue()
+                        .size());
+    }
+
+    @Test
+    void simplifyKeepsZeroLikeBooleanAssignment() {
+        UnitPropagation propagation = new UnitPropagation();
+        int[][] inputs = {{1, 0, -2, 1, 0, 3}, {1, 2, -1}, {}, {0}, {4, 4, -3}};
+        for (int[] input : inputs) {
+            assertArrayEquals(ABooleanAssignment.simplify(input), propagation.simplify(input));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.analysis.bool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.Common;
+import org.junit.jupiter.api.Test;
+
+public class WatchedLiteralPropagatorTest extends Common {
+
+    @Test
+    void propagatesUnitClauses() {
+        WatchedLiteralPropagator propagator =
+                new WatchedLiteralPropagator(clauses(4, new int[] {1}, new int[] {-1, 2}, new int[] {-2, 3, 4}));
+        assertFalse(propagator.isUnsatisfiable());
+        assertArrayEquals(new int[] {1, 2}, propagator.getAssignedLiterals());
+        assertEquals(0, propagator.get(3));
+    }
+
+    @Test
+    void pushAndPop() {
+        WatchedLiteralPropagator propagator = new WatchedLiteralPropagator(
+                clauses(4, new int[] {-1, 2}, new int[] {-2, 3}, new int[] {-3, -4}, new int[] {1, 4}));
+        propagator.push();
+        assertTrue(propagator.assign(1));
+        assertArrayEquals(new int[] {1, 2, 3, -4}, propagator.getLevelLiterals());
+        assertEquals(new BooleanSolution(new int[] {1, 2, 3, -4}, false), propagator.toSolution());
+        propagator.pop();
+        assertEquals(0, propagator.getLevel());
+        assertArrayEquals(new int[0], propagator.getAssignedLiterals());
+
+        assertTrue(propagator.propagate(new BooleanAssignment(-1)));
+        assertArrayEquals(new int[] {-1, 4, -3, -2}, propagator.getLevelLiterals());
+        propagator.pop();
+    }
+
+    @Test
+    void conflict() {
+        WatchedLiteralPropagator propagator =
+                new WatchedLiteralPropagator(clauses(3, new int[] {-1, 2}, new int[] {-1, 3}, new int[] {-2, -3}));
+        propagator.push();
+        assertFalse(propagator.assign(1));
+        assertTrue(propagator.isConflict());
+        assertFalse(propagator.assign(-2));
+        propagator.pop();
+        assertNull(propagator.getConflict());
+        assertTrue(propagator.assign(-1));
+        assertFalse(propagator.isUnsatisfiable());
+
+        assertTrue(new WatchedLiteralPropagator(clauses(1, new int[] {1}, new int[] {-1})).isUnsatisfiable());
+    }
+
+    @Test
+    void conflictOnLevelZero() {
+        WatchedLiteralPropagator propagator =
+                new WatchedLiteralPropagator(clauses(3, new int[] {-1, 2}, new int[] {-1, 3}, new int[] {-2, -3}));
+        assertFalse(propagator.isUnsatisfiable());
+        assertFalse(propagator.assign(1));
+        assertTrue(propagator.isConflict());
+        assertTrue(propagator.isUnsatisfiable());
+        assertThrows(IllegalStateException.class, propagator::pop);
+    }
+
+    @Test
+    void variableRange() {
+        WatchedLiteralPropagator propagator = new WatchedLiteralPropagator(clauses(2, new int[] {-1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> propagator.get(0));
+        assertThrows(IllegalArgumentException.class, () -> propagator.get(3));
+        assertThrows(IllegalArgumentException.class, () -> propagator.assign(-3));
+    }
+}
@@ -20,16 +20,36 @@
  */
 package de.featjar.formula.io;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
 import de.featjar.Common;
 import de.featjar.FormatTest;
 import de.featjar.base.computation.Computations;
+import de.featjar.base.io.IO;
+import de.featjar.base.io.binary.ABinaryFormat;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
 import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
 import de.featjar.formula.analysis.bool.BooleanAssignmentSpaceComputation;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanSolution;
 import de.featjar.formula.analysis.bool.ComputeBooleanRepresentation;
 import de.featjar.formula.io.binary.BooleanAssignmentGroupsBinaryFormat;
+import de.featjar.formula.io.binary.BooleanAssignmentGroupsCompressedBinaryFormat;
 import de.featjar.formula.io.textual.ExpressionFormat;
 import de.featjar.formula.transformer.ComputeCNFFormula;
 import de.featjar.formula.transformer.ComputeNNFFormula;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -54,6 +74,82 @@ public class BinaryFormatTest extends Common {
         test("nAB");
     }
 
+    @Test
+    public void binaryMatchesReferenceEncoding() throws IOException {
+        final VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= 9; i++) {
+            if (i != 4) {
+                variableMap.add(i, "x" + i);
+            }
+        }
+        final int[] longClause = IntStream.rangeClosed(1, 16_500).map(l -> (l & 1) == 0 ? l : -l).sorted().toArray();
+        final List<List<ABooleanAssignment>> groups = List.of(
+                List.of(
+                        new BooleanSolution(new int[] {1, -2, 3, 0, -5, 6, -7, 8, 9}, false),
+                        new BooleanSolution(new int[] {1, -2, 0, 0, 0, 0, 0, 0, 0}, false),
+                        new BooleanSolution(new int[] {0, 0, 0, 0, 0, 0, 0, 0, 0}, false),
+                        new BooleanSolution(new int[] {-1, 2, 0}, false)),
+                List.of(new BooleanClause(longClause, false), new BooleanClause(-3, 1, 2)),
+                List.of(),
+                List.of(new BooleanAssignment(-9, 2, 4)));
+        final BooleanAssignmentGroups assignmentGroups = new BooleanAssignmentGroups(variableMap, groups);
+        final BooleanAssignmentGroupsBinaryFormat format = new BooleanAssignmentGroupsBinaryFormat();
+
+        final byte[] bytes = save(assignmentGroups, format);
+        try (InputStream inputStream =
+                ClassLoader.getSystemResourceAsStream("formats/BooleanAssignmentBinary/groups_01.bin")) {
+            assertArrayEquals(inputStream.readAllBytes(), bytes, "encoding");
+        }
+
+        final List<? extends List<? extends ABooleanAssignment>> parsedGroups =
+                IO.load(new ByteArrayInputStream(bytes), format).get().getGroups();
+        assertEquals(groups.size(), parsedGroups.size());
+        assertArrayEquals(new int[] {1, -2, 0, 0, 0, 0, 0, 0, 0}, parsedGroups.get(0).get(1).get());
+        assertArrayEquals(new int[] {-1, 2, 0, 0, 0, 0, 0, 0, 0}, parsedGroups.get(0).get(3).get());
+        assertArrayEquals(longClause, parsedGroups.get(1).get(0).get());
+        assertEquals(groups.get(1).get(1), parsedGroups.get(1).get(1));
+        assertEquals(List.of(), parsedGroups.get(2));
+    }
+
+    private static byte[] save(BooleanAssignmentGroups assignmentGroups, ABinaryFormat<BooleanAssignmentGroups> format)
+            throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        IO.save(assignmentGroups, outputStream, format);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void compressedSolutionRows() throws IOException {
+        testCompressed(new BooleanAssignmentGroupsCompressedBinaryFormat());
+        testCompressed(new BooleanAssignmentGroupsCompressedBinaryFormat(false));
+    }
+
+    private static void testCompressed(BooleanAssignmentGroupsCompressedBinaryFormat format) throws IOException {
+        final List<List<ABooleanAssignment>> groups = List.of(
+                List.of(
+                        new BooleanSolution(new int[] {1, -2, 3, 0, -5}, false),
+                        new BooleanSolution(new int[] {-1, 2}, false),
+                        new BooleanSolution(new int[0], false)),
+                List.of(new BooleanClause(-5, 1, 3), new BooleanAssignment(2, -4)),
+                List.of());
+        final BooleanAssignmentGroups assignmentGroups = new BooleanAssignmentGroups(variables(5), groups);
+        final Path path = Files.createTempFile("groups", "." + format.getFileExtension());
+        try {
+            IO.save(assignmentGroups, path, format);
+            assertEquals(groups, IO.load(path, format).get().getGroups());
+            for (int i = 0; i < groups.size(); i++) {
+                final BooleanAssignmentGroups group = format.parseGroup(path, i).get();
+                assertEquals(List.of(groups.get(i)), group.getGroups());
+                assertEquals(
+                        assignmentGroups.getVariableMap().getVariableNames(),
+                        group.getVariableMap().getVariableNames());
+            }
+            assertFalse(format.parseGroup(path, groups.size()).isPresent());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
     private static void test(String name) {
         final BooleanAssignmentGroups assignmentSpace = Computations.of(getFormula(name))
                 .map(ComputeNNFFormula::new)
@@ -63,5 +159,7 @@ public class BinaryFormatTest extends Common {
                 .compute();
 
         FormatTest.testSaveAndLoad(assignmentSpace, name, new BooleanAssignmentGroupsBinaryFormat());
+        FormatTest.testSaveAndLoad(assignmentSpace, name, new BooleanAssignmentGroupsCompressedBinaryFormat());
+        FormatTest.testSaveAndLoad(assignmentSpace, name, new BooleanAssignmentGroupsCompressedBinaryFormat(false));
     }
 }
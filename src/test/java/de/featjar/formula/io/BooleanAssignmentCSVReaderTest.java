@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.io.csv.BooleanAssignmentCSVReader;
+import de.featjar.formula.io.csv.BooleanAssignmentCSVWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class BooleanAssignmentCSVReaderTest {
+
+    private static BooleanAssignmentCSVReader open(String csv) throws IOException, ParseException {
+        return new BooleanAssignmentCSVReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException, ParseException {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add("a");
+        variableMap.add("b");
+        variableMap.add("c");
+        List<List<ABooleanAssignment>> groups = List.of(
+                List.of(new BooleanSolution(new int[] {1, -2, 0}, false)),
+                List.of(new BooleanAssignment(3, -1), new BooleanSolution(new int[] {-1, 2, 3}, false)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BooleanAssignmentCSVWriter writer = new BooleanAssignmentCSVWriter(outputStream, variableMap);
+        writer.writeHeader();
+        writer.writeGroups(groups);
+        writer.flush();
+        String csv = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals("ID;Group;a;b;c\n0;0;+;-;0\n1;1;-;0;+\n2;1;-;+;+\n", csv);
+
+        try (BooleanAssignmentCSVReader reader = open(csv.replace("\n1;", "\r\n  \n1;"))) {
+            assertEquals(List.of("a", "b", "c"), reader.getVariableMap().getVariableNames());
+            assertTrue(reader.next());
+            assertEquals(0, reader.getGroupIndex());
+            assertArrayEquals(new int[] {1, -2, 0}, reader.getLiterals());
+            assertTrue(reader.next());
+            assertEquals(1, reader.getAssignmentIndex());
+            assertEquals(new BooleanSolution(new int[] {-1, 0, 3}, false), reader.toSolution());
+            assertTrue(reader.next());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void readInvalidRows() throws IOException, ParseException {
+        assertThrows(ParseException.class, () -> open("ID;a;b\n"));
+        try (BooleanAssignmentCSVReader reader = open("ID;Group;a\n0;0;+;-\n")) {
+            assertThrows(ParseException.class, reader::next);
+        }
+        try (BooleanAssignmentCSVReader reader = open("ID;Group;a\n0;x;+\n")) {
+            assertThrows(ParseException.class, reader::next);
+        }
+        try (BooleanAssignmentCSVReader reader = open("ID;Group;a\n0;0;1\n")) {
+            assertThrows(ParseException.class, reader::next);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseArena;
+import de.featjar.formula.io.dimacs.BooleanAssignmentGroupsDimacsFormat;
+import de.featjar.formula.io.dimacs.BooleanAssignmentGroupsDimacsParser;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class BooleanAssignmentGroupsDimacsParserTest {
+
+    private static final String CNF = "c 1 a\nc 2 b\r\nc 3 c\np cnf 3 3\n1 -2 0\n3 0 c comment\n-1\n 2 -3 0\n";
+
+    private static Pair<BooleanClauseArena, VariableMap> parse(String cnf) throws ParseException {
+        BooleanAssignmentGroupsDimacsParser parser = new BooleanAssignmentGroupsDimacsParser();
+        parser.setReadingVariableDirectory(true);
+        return parser.parseClauseArena(ByteBuffer.wrap(cnf.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void parseBytes() throws ParseException {
+        Pair<BooleanClauseArena, VariableMap> cnf = parse(CNF.replace(" c comment", ""));
+        BooleanClauseArena expected = new BooleanClauseArena(3);
+        expected.add(-2, 1);
+        expected.add(3);
+        expected.add(-3, -1, 2);
+        assertEquals(expected, cnf.getKey());
+        assertEquals(List.of("a", "b", "c"), cnf.getValue().getVariableNames());
+    }
+
+    @Test
+    public void parseFile() throws IOException, ParseException {
+        Path file = Files.createTempFile("cnf", ".dimacs");
+        try {
+            Files.write(file, CNF.replace(" c comment", "").getBytes(StandardCharsets.UTF_8));
+            BooleanAssignmentGroupsDimacsParser parser = new BooleanAssignmentGroupsDimacsParser();
+            parser.setReadingVariableDirectory(true);
+            assertEquals(parse(CNF.replace(" c comment", "")).getKey(), parser.parseClauseArena(file).getKey());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void parseFileWithFormat() throws IOException, ParseException {
+        Path file = Files.createTempFile("cnf", ".dimacs");
+        try {
+            Files.write(file, CNF.replace(" c comment", "").getBytes(StandardCharsets.UTF_8));
+            BooleanAssignmentGroups groups = new BooleanAssignmentGroupsDimacsFormat().parse(file).orElseThrow();
+            assertEquals(List.of("a", "b", "c"), groups.getVariableMap().getVariableNames());
+            assertEquals(
+                    List.of(new BooleanClause(1, -2), new BooleanClause(3), new BooleanClause(-1, 2, -3)),
+                    groups.getGroups().get(0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void parseBytesInParallel() throws ParseException {
+        StringBuilder cnf = new StringBuilder("p cnf 1000 400000\n");
+        for (int i = 0; i < 400000; i++) {
+            cnf.append(i % 1000 + 1).append(i % 3 == 0 ? "\n" : " ");
+            cnf.append(-((i * 7) % 1000 + 1)).append(" 0\n");
+        }
+        BooleanAssignmentGroupsDimacsParser parser = new BooleanAssignmentGroupsDimacsParser();
+        parser.setParsingInParallel(true);
+        Pair<BooleanClauseArena, VariableMap> parallelCnf =
+                parser.parseClauseArena(ByteBuffer.wrap(cnf.toString().getBytes(StandardCharsets.UTF_8)));
+        Pair<BooleanClauseArena, VariableMap> sequentialCnf =
+                new BooleanAssignmentGroupsDimacsParser()
+                        .parseClauseArena(ByteBuffer.wrap(cnf.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(sequentialCnf.getKey(), parallelCnf.getKey());
+        assertEquals(400000, parallelCnf.getKey().size());
+        assertEquals(1000, parallelCnf.getValue().getVariableCount());
+    }
+
+    @Test
+    public void parseInvalidBytes() {
+        assertThrows(ParseException.class, () -> parse(CNF));
+        assertThrows(ParseException.class, () -> parse("p cnf 1 2\n1 0\n"));
+        assertThrows(ParseException.class, () -> parse("p cnf 1 1\n1 0 -1 0\n"));
+        assertThrows(ParseException.class, () -> parse("p cnf 1 1\n-0\n"));
+    }
+}
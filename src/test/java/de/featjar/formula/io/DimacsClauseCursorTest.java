@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.io.dimacs.DimacsClauseCursor;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class DimacsClauseCursorTest {
+
+    private static final String CNF = "c 1 a\nc 2 b\nc 3 c\np cnf 3 3\n1 -2 0\nc comment\n3 0\n-1\n 2 -3 0\n";
+
+    private static DimacsClauseCursor open(String cnf) throws IOException, ParseException {
+        return new DimacsClauseCursor(new ByteArrayInputStream(cnf.getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    @Test
+    public void readClauses() throws IOException, ParseException {
+        try (DimacsClauseCursor cursor = open(CNF)) {
+            assertEquals(3, cursor.getVariableCount());
+            assertEquals(3, cursor.getClauseCount());
+            assertTrue(cursor.next());
+            assertArrayEquals(new int[] {-2, 1}, cursor.copyLiterals());
+            assertTrue(cursor.next());
+            assertEquals(1, cursor.size());
+            assertEquals(3, cursor.getLiterals()[0]);
+            assertTrue(cursor.next());
+            assertEquals(2, cursor.getIndex());
+            assertEquals(new BooleanClause(-3, -1, 2), cursor.toClause());
+            assertFalse(cursor.next());
+            assertEquals(List.of("a", "b", "c"), cursor.getVariableMap().getVariableNames());
+        }
+    }
+
+    @Test
+    public void streamClauses() throws IOException, ParseException {
+        try (DimacsClauseCursor cursor = open(CNF)) {
+            assertEquals(
+                    List.of(new BooleanClause(-2, 1), new BooleanClause(3), new BooleanClause(-3, -1, 2)),
+                    cursor.stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void readInvalidClauses() throws IOException, ParseException {
+        try (DimacsClauseCursor cursor = open("p cnf 2 1\n1 0\n2 0\n")) {
+            assertTrue(cursor.next());
+            assertThrows(ParseException.class, cursor::next);
+        }
+        assertThrows(ParseException.class, () -> open("p cnf x 1\n"));
+    }
+
+    @Test
+    public void streamInvalidClauses() throws IOException, ParseException {
+        try (DimacsClauseCursor cursor = open("p cnf 2 1\n1 0\n2 0\n")) {
+            RuntimeParseException exception = assertThrows(
+                    RuntimeParseException.class, () -> cursor.stream().count());
+            assertEquals("Found more than 1 clauses", exception.getCause().getMessage());
+        }
+    }
+}
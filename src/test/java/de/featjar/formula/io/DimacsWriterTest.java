@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.Common;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.IO;
+import de.featjar.base.io.format.IFormat;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.io.dimacs.BooleanAssignmentGroupsDimacsFormat;
+import de.featjar.formula.io.dimacs.CnfDimacsFormat;
+import de.featjar.formula.io.dimacs.DimacsWriter;
+import de.featjar.formula.io.dimacs.FormulaDimacsFormat;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.formula.IFormula;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class DimacsWriterTest extends Common {
+
+    /** Serializes the given clauses with a string builder, as the DIMACS formats did before using the writer. */
+    private static String serialize(VariableMap variableMap, int variableCount, List<int[]> clauses) {
+        final StringBuilder sb = new StringBuilder();
+        variableMap.stream().forEach(e -> {
+            if (e.getValue() != null) {
+                sb.append("c ");
+                sb.append(e.getKey());
+                sb.append(" ");
+                sb.append(e.getValue());
+                sb.append(System.lineSeparator());
+            }
+        });
+        sb.append("p cnf ");
+        sb.append(variableCount);
+        sb.append(' ');
+        sb.append(clauses.size());
+        sb.append(System.lineSeparator());
+        for (final int[] clause : clauses) {
+            for (final int l : clause) {
+                sb.append(l);
+                sb.append(' ');
+            }
+            sb.append('0');
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private static byte[] write(VariableMap variableMap, int variableCount, List<int[]> clauses, int bufferSize)
+            throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final DimacsWriter writer = new DimacsWriter(outputStream, bufferSize);
+        writer.writeVariableDirectory(variableMap);
+        writer.writeProblem(variableCount, clauses.size());
+        for (int[] clause : clauses) {
+            writer.writeClause(clause);
+        }
+        writer.flush();
+        return outputStream.toByteArray();
+    }
+
+    private static <T> byte[] save(T object, IFormat<T> format) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        IO.save(object, outputStream, format);
+        return outputStream.toByteArray();
+    }
+
+    private static List<Path> getDimacsFiles() throws IOException, URISyntaxException {
+        final Path directory = Paths.get(ClassLoader.getSystemResource("formats/DIMACS").toURI());
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".dimacs"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void writeExtremeIntegers() throws IOException {
+        VariableMap variableMap = new VariableMap();
+        variableMap.add(1, "a");
+        variableMap.add(3, "c");
+        List<int[]> clauses = List.of(
+                new int[] {Integer.MIN_VALUE, -1000000000, -10, -9, -1, 1, 9, 10, 1000000000, Integer.MAX_VALUE},
+                new int[0],
+                new int[] {-3, 1});
+        byte[] expected = serialize(variableMap, Integer.MAX_VALUE, clauses).getBytes(StandardCharsets.UTF_8);
+        for (int bufferSize : new int[] {1, 13, 64, 1 << 16}) {
+            assertArrayEquals(expected, write(variableMap, Integer.MAX_VALUE, clauses, bufferSize));
+        }
+    }
+
+    @Test
+    public void writeFixtures() throws IOException, URISyntaxException {
+        List<Path> files = getDimacsFiles();
+        assertFalse(files.isEmpty());
+        BooleanAssignmentGroupsDimacsFormat format = new BooleanAssignmentGroupsDimacsFormat();
+        for (Path file : files) {
+            Result<BooleanAssignmentGroups> groups = format.parse(file);
+            if (groups.isEmpty()) {
+                continue;
+            }
+            VariableMap variableMap = groups.get().getVariableMap();
+            List<int[]> clauses = new ArrayList<>();
+            for (ABooleanAssignment clause : groups.get().getGroups().get(0)) {
+                clauses.add(clause.get());
+            }
+            byte[] expected = serialize(variableMap, variableMap.getVariableCount(), clauses)
+                    .getBytes(StandardCharsets.UTF_8);
+            String message = file.toString();
+            assertArrayEquals(expected, write(variableMap, variableMap.getVariableCount(), clauses, 16), message);
+            assertArrayEquals(
+                    expected, format.serialize(groups.get()).orElseThrow().getBytes(StandardCharsets.UTF_8), message);
+            assertArrayEquals(expected, save(groups.get(), format), message);
+        }
+    }
+
+    @Test
+    public void writeCnf() throws IOException {
+        BooleanClauseList cnf = clauses(3, new int[] {1, -2}, new int[] {-3}, new int[] {-1, 2, 3});
+        List<int[]> clauses = cnf.getAll().stream().map(BooleanClause::get).collect(Collectors.toList());
+        CnfDimacsFormat format = new CnfDimacsFormat();
+        byte[] expected = serialize(new VariableMap(), 3, clauses).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, format.serialize(cnf).orElseThrow().getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected, save(cnf, format));
+    }
+
+    @Test
+    public void writeFormula() throws IOException {
+        FormulaDimacsFormat format = new FormulaDimacsFormat();
+        for (String name : new String[] {"123-n1n2n3", "empty", "void"}) {
+            String expected = format.serialize(getFormula(name)).orElseThrow();
+            assertEquals(expected, new String(save(getFormula(name), format), StandardCharsets.UTF_8));
+        }
+        assertEquals(
+                String.join(
+                        System.lineSeparator(), "c 1 1", "c 2 2", "c 3 3", "p cnf 3 2", "1 2 3 0", "-1 -2 -3 0", ""),
+                format.serialize(getFormula("123-n1n2n3")).orElseThrow());
+    }
+
+    @Test
+    public void writeNonCnfFormula() {
+        FormulaDimacsFormat format = new FormulaDimacsFormat();
+        IFormula formula = Expressions.implies(Expressions.literal("a"), Expressions.literal("b"));
+        assertFalse(format.serialize(formula).isPresent());
+        assertThrows(IOException.class, () -> save(formula, format));
+    }
+}
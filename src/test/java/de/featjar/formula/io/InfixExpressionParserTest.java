@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.io.format.ParseException;
+import de.featjar.formula.io.textual.InfixExpressionParser;
+import de.featjar.formula.io.textual.JavaSymbols;
+import de.featjar.formula.io.textual.LogicalSymbols;
+import de.featjar.formula.io.textual.PropositionalModelSymbols;
+import de.featjar.formula.io.textual.ShortSymbols;
+import de.featjar.formula.io.textual.TextualSymbols;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.BiImplies;
+import de.featjar.formula.structure.formula.connective.Implies;
+import de.featjar.formula.structure.formula.connective.Not;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import org.junit.jupiter.api.Test;
+
+public class InfixExpressionParserTest {
+
+    private static final Literal A = new Literal("A");
+    private static final Literal B = new Literal("B");
+    private static final Literal C = new Literal("C");
+
+    @Test
+    public void parsePriorities() throws ParseException {
+        InfixExpressionParser parser = new InfixExpressionParser(ShortSymbols.INSTANCE);
+        assertEquals(new Or(new And(new Not(A), B), C), parser.parseFormula("-A & B | C"));
+        assertEquals(new And(A, B, C), parser.parseFormula("A & B & C"));
+        assertEquals(new And(A, new Or(B, C)), parser.parseFormula("A&(B|C)"));
+        assertEquals(new Implies(A, new Implies(B, C)), parser.parseFormula("A => B => C"));
+        assertEquals(new BiImplies(new Implies(A, B), C), parser.parseFormula("A => B <=> C"));
+        assertEquals(new And(new Literal("A B"), new Literal("-")), parser.parseFormula("\"A B\" & \"-\""));
+    }
+
+    @Test
+    public void parseSymbols() throws ParseException {
+        assertEquals(
+                new And(new Literal("notA"), new Not(B)),
+                new InfixExpressionParser(TextualSymbols.INSTANCE).parseFormula("notA and not(B)"));
+        assertEquals(
+                new BiImplies(new Or(new And(new Not(A), B), C), A),
+                new InfixExpressionParser(JavaSymbols.INSTANCE).parseFormula("!A && B || C == A"));
+    }
+
+    @Test
+    public void parsePropositionalModelSymbols() throws ParseException {
+        InfixExpressionParser parser = new InfixExpressionParser(PropositionalModelSymbols.INSTANCE);
+        assertEquals(new BiImplies(new Or(new And(new Not(A), B), C), A), parser.parseFormula("!A & B | C == A"));
+        assertEquals(new BiImplies(new Implies(A, B), new Not(C)), parser.parseFormula("A=>B==!C"));
+        assertEquals(new Not(new Not(A)), parser.parseFormula("!!A"));
+        assertEquals(
+                new And(new Or(A, new And(B, C)), new Not(new Literal("CONFIG_X_y"))),
+                parser.parseFormula("(A|(B&C))&!CONFIG_X_y"));
+    }
+
+    @Test
+    public void parseLogicalSymbols() throws ParseException {
+        InfixExpressionParser parser = new InfixExpressionParser(LogicalSymbols.INSTANCE);
+        assertEquals(
+                new BiImplies(new Implies(new Or(new And(new Not(A), B), C), A), B),
+                parser.parseFormula("\u00ACA \u2227 B \u2228 C \u21D2 A \u21D4 B"));
+        assertEquals(new And(new Not(A), new Or(B, C)), parser.parseFormula("\u00ACA\u2227(B\u2228C)"));
+    }
+
+    @Test
+    public void reportOffsets() {
+        InfixExpressionParser parser = new InfixExpressionParser();
+        assertEquals(4, assertThrows(ParseException.class, () -> parser.parseFormula("A & (B"))
+                .getLineNumber());
+        assertEquals(2, assertThrows(ParseException.class, () -> parser.parseFormula("A B")).getLineNumber());
+        assertEquals(1, assertThrows(ParseException.class, () -> parser.parseFormula("A)")).getLineNumber());
+        assertTrue(parser.parse("A &").isEmpty());
+    }
+}
@@ -20,6 +20,20 @@
  */
 package de.featjar.formula.io;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.io.IO;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.Not;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
 /**
  * Tests {@link KConfigReaderFormat KConfigReader} format.
  *
@@ -27,6 +41,20 @@ package de.featjar.formula.io;
  */
 public class KConfigReaderFormatTest {
 
+    @Test
+    public void parseLines() {
+        final String model = "# comment\n(def(A)|(def(B)&def(C)))\n\n!def(A)|def(CONFIG_X=y)\ndef(A)&\n";
+        final Result<IExpression> result = IO.load(
+                new ByteArrayInputStream(model.getBytes(StandardCharsets.UTF_8)), new KConfigReaderFormat());
+        final Literal a = new Literal("A");
+        assertEquals(
+                new And(
+                        new Or(a, new And(new Literal("B"), new Literal("C"))),
+                        new Or(new Not(a), new Literal("CONFIG_X_y"))),
+                result.get());
+        assertFalse(result.getProblems().isEmpty());
+    }
+
     /*
      * @Test public void KConfigReader_ABC_nAnBnC() { test("ABC-nAnBnC"); }
      *
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.Common;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.io.binary.MappedBooleanSolutionStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class MappedBooleanSolutionStoreTest extends Common {
+
+    @Test
+    public void addAndGet() throws IOException {
+        Path path = Files.createTempFile("samples", ".fjss");
+        try {
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.create(path, variables(5))) {
+                assertEquals(0, store.add(new BooleanSolution(new int[] {1, -2, 3, 0, -5}, false)));
+                assertEquals(1, store.add(new BooleanSolution(new int[] {-1, 2, 0, 4, 5}, false)));
+                assertEquals(2, store.size());
+                assertEquals(-2, store.get(0).get(2));
+                assertEquals(0, store.get(1).get(3));
+            }
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.open(path, false)) {
+                assertEquals(2, store.size());
+                assertEquals(List.of("x1", "x2", "x3", "x4", "x5"), store.getVariableMap().getVariableNames());
+                assertArrayEquals(new int[] {-1, 2, 0, 4, 5}, store.get(1).copyTo(new int[5]));
+                assertEquals(new BooleanSolution(new int[] {1, -2, 3, 0, -5}, false), store.getSolution(0));
+                assertEquals(2, store.getSolutions(0, 2).size());
+                assertThrows(IndexOutOfBoundsException.class, () -> store.get(2));
+                assertThrows(IllegalStateException.class, () -> store.add(new BooleanSolution(new int[] {1}, false)));
+            }
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.open(path, true)) {
+                assertEquals(2, store.add(new BooleanSolution(new int[] {1, 2, 3, 4, 5}, false)));
+                assertEquals(5, store.get(2).get(5));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void growFileInSteps() throws IOException {
+        Path path = Files.createTempFile("samples", ".fjss");
+        try {
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.create(path, variables(5))) {
+                store.add(new BooleanSolution(new int[] {1, -2, 3, 0, -5}, false));
+            }
+            assertTrue(Files.size(path) <= (1 << 21));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void crossSegmentBoundaries() throws IOException {
+        Path path = Files.createTempFile("samples", ".fjss");
+        try {
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.create(path, variables(5), 8)) {
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(i, store.add(solution(i)));
+                }
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(solution(i), store.getSolution(i));
+                }
+            }
+            try (MappedBooleanSolutionStore store = MappedBooleanSolutionStore.open(path, false, 8)) {
+                assertEquals(10, store.size());
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(solution(i), store.getSolution(i));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void readWhileAppending() throws IOException {
+        Path path = Files.createTempFile("samples", ".fjss");
+        try (MappedBooleanSolutionStore writer = MappedBooleanSolutionStore.create(path, variables(5), 8);
+                MappedBooleanSolutionStore reader = MappedBooleanSolutionStore.open(path, false, 8)) {
+            assertEquals(0, reader.size());
+            for (int i = 0; i < 10; i++) {
+                writer.add(solution(i));
+                assertEquals(i + 1, reader.size());
+                assertEquals(solution(i), reader.getSolution(i));
+                assertEquals(solution(0), reader.getSolution(0));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static BooleanSolution solution(int seed) {
+        final int[] literals = new int[5];
+        for (int i = 0; i < literals.length; i++) {
+            final int bits = (seed >>> i) & 0b11;
+            literals[i] = bits == 0 ? 0 : bits == 1 ? -(i + 1) : i + 1;
+        }
+        return new BooleanSolution(literals, false);
+    }
+}
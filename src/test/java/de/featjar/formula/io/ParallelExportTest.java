@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.Common;
+import de.featjar.formula.analysis.bool.ABooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanAssignmentGroups;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.io.csv.BooleanAssignmentGroupsCSVFormat;
+import de.featjar.formula.io.dimacs.BooleanAssignmentGroupsDimacsFormat;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ParallelExportTest extends Common {
+
+    private static final int VARIABLE_COUNT = 20;
+
+    private static String writeInParallel(
+            BooleanAssignmentGroups assignmentGroups, BooleanAssignmentGroupsDimacsFormat format) throws IOException {
+        Path path = Files.createTempFile("export", ".dimacs");
+        try {
+            format.setWritingInParallel(true);
+            format.write(assignmentGroups, path);
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static String writeInParallel(
+            BooleanAssignmentGroups assignmentGroups, BooleanAssignmentGroupsCSVFormat format) throws IOException {
+        Path path = Files.createTempFile("export", ".csv");
+        try {
+            format.setWritingInParallel(true);
+            format.write(assignmentGroups, path);
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void writeDimacsInParallel() throws IOException {
+        Random random = new Random(1);
+        List<ABooleanAssignment> clauses = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            clauses.add(new BooleanClause(random.nextInt(VARIABLE_COUNT) + 1, -(random.nextInt(VARIABLE_COUNT) + 1)));
+        }
+        BooleanAssignmentGroups assignmentGroups =
+                new BooleanAssignmentGroups(variables(VARIABLE_COUNT), List.of(clauses));
+        assertEquals(
+                new BooleanAssignmentGroupsDimacsFormat().serialize(assignmentGroups).orElseThrow(),
+                writeInParallel(assignmentGroups, new BooleanAssignmentGroupsDimacsFormat()));
+    }
+
+    @Test
+    public void writeCSVInParallel() throws IOException {
+        Random random = new Random(2);
+        List<List<ABooleanAssignment>> groups = new ArrayList<>();
+        for (int size : new int[] {5000, 0, 9000}) {
+            List<ABooleanAssignment> group = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int[] literals = new int[VARIABLE_COUNT];
+                for (int j = 0; j < literals.length; j++) {
+                    literals[j] = random.nextBoolean() ? j + 1 : -(j + 1);
+                }
+                group.add(new BooleanSolution(literals, false));
+            }
+            groups.add(group);
+        }
+        BooleanAssignmentGroups assignmentGroups = new BooleanAssignmentGroups(variables(VARIABLE_COUNT), groups);
+        assertEquals(
+                new BooleanAssignmentGroupsCSVFormat().serialize(assignmentGroups).orElseThrow(),
+                writeInParallel(assignmentGroups, new BooleanAssignmentGroupsCSVFormat()));
+        BooleanAssignmentGroups empty = new BooleanAssignmentGroups(variables(VARIABLE_COUNT), List.of());
+        assertEquals(
+                new BooleanAssignmentGroupsCSVFormat().serialize(empty).orElseThrow(),
+                writeInParallel(empty, new BooleanAssignmentGroupsCSVFormat()));
+    }
+}
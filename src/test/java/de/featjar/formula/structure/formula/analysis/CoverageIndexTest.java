@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.structure.formula.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.combinations.CoverageIndex;
+import de.featjar.formula.analysis.combinations.LiteralInteractionIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class CoverageIndexTest {
+
+    @Test
+    void coverage() {
+        CoverageIndex index = new CoverageIndex(List.of(
+                new BooleanSolution(new int[] {1, 2, -3}, false), new BooleanSolution(new int[] {1, -2, -3}, false)));
+        assertEquals(2, index.size());
+        assertTrue(index.isCovered());
+        assertTrue(index.isCovered(1, -3));
+        assertFalse(index.isCovered(2, -2));
+        assertFalse(index.isCovered(3));
+        assertFalse(index.isCovered(4));
+        assertEquals(2, index.countCovering(1, -3));
+        assertEquals(1, index.countCovering(-2));
+        assertEquals(1, index.getFirstCovering(-2, 1));
+        assertEquals(-1, index.getFirstCovering(-1));
+        assertEquals(2, index.add(-1, 0, 3));
+        assertEquals(2, index.getFirstCovering(-1));
+    }
+
+    @Test
+    void countsMatchContainsAll() {
+        Random random = new Random(1);
+        int variableCount = 12;
+        List<BooleanSolution> solutions = new ArrayList<>();
+        CoverageIndex index = new CoverageIndex();
+        for (int i = 0; i < 200; i++) {
+            int[] literals = new int[variableCount];
+            for (int v = 1; v <= variableCount; v++) {
+                literals[v - 1] = random.nextInt(4) == 0 ? 0 : random.nextBoolean() ? v : -v;
+            }
+            BooleanSolution solution = new BooleanSolution(literals, false);
+            solutions.add(solution);
+            assertEquals(i, index.add(solution));
+        }
+        int[] variables = new int[variableCount];
+        for (int v = 1; v <= variableCount; v++) {
+            variables[v - 1] = v;
+        }
+        LiteralInteractionIterator.stream(3, variables).forEach(interaction -> {
+            int count = 0;
+            int first = -1;
+            for (int i = 0; i < solutions.size(); i++) {
+                if (solutions.get(i).containsAll(interaction.literals)) {
+                    count++;
+                    first = first < 0 ? i : first;
+                }
+            }
+            assertEquals(count, index.countCovering(interaction.literals));
+            assertEquals(count > 0, index.isCovered(interaction.literals));
+            assertEquals(first, index.getFirstCovering(interaction.literals));
+        });
+    }
+}
@@ -20,7 +20,9 @@
  */
 package de.featjar.formula.structure.formula.analysis;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.featjar.formula.analysis.combinations.BinomialCalculator;
@@ -47,6 +49,43 @@ public class LexicographicIteratorTest {
         streamParallel(3, 20);
     }
 
+    @Test
+    void combinationMatchesIndex() {
+        BinomialCalculator calculator = new BinomialCalculator(3, 20);
+        LexicographicIterator.stream(3, 20).forEach(c -> {
+            assertArrayEquals(c.elementIndices, calculator.combination(c.combinationIndex));
+            assertEquals(c.combinationIndex, calculator.index(c.elementIndices));
+        });
+    }
+
+    @Test
+    void combinationIsExactForLargeIndices() {
+        BinomialCalculator calculator = new BinomialCalculator(5, 5000);
+        long last = calculator.binomial() - 1;
+        assertArrayEquals(new int[] {4995, 4996, 4997, 4998, 4999}, calculator.combination(last));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4999}, calculator.combination(calculator.binomial(4999, 5)));
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            long index = (long) (random.nextDouble() * last);
+            assertEquals(index, calculator.index(calculator.combination(index)));
+        }
+        assertEquals(4166416671249975000L, BinomialCalculator.computeBinomial(100000, 4));
+    }
+
+    @Test
+    void precomputedBinomialsSaturate() {
+        BinomialCalculator calculator = new BinomialCalculator(40, 100);
+        for (int n = 0; n <= 60; n++) {
+            for (int k = 0; k <= 40; k++) {
+                assertEquals(BinomialCalculator.computeBinomial(n, k), calculator.binomial(n, k));
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> calculator.binomial(100, 40));
+        assertEquals(Long.MAX_VALUE, calculator.factorial(21));
+        long index = Long.MAX_VALUE - 1;
+        assertEquals(index, calculator.index(calculator.combination(index)));
+    }
+
     private void streamParallel(int k, int n) {
         int size = (int) BinomialCalculator.computeBinomial(n, k);
         int[] counts = new int[size];
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.structure.formula.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.combinations.BinomialCalculator;
+import de.featjar.formula.analysis.combinations.LexicographicIterator;
+import de.featjar.formula.analysis.combinations.LiteralInteractionIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class LiteralInteractionIteratorTest {
+
+    private static final int[] VARIABLES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+    @Test
+    void sequentialStreamContainsAllInteractions() {
+        for (int t = 1; t <= 3; t++) {
+            List<String> expected = new ArrayList<>();
+            final int t2 = t;
+            LexicographicIterator.stream(t, VARIABLES.length).forEach(combo -> {
+                for (int polarity = 0; polarity < 1 << t2; polarity++) {
+                    int[] literals = combo.select(VARIABLES);
+                    for (int k = 0; k < t2; k++) {
+                        literals[k] = (polarity >> k & 1) == 0 ? literals[k] : -literals[k];
+                    }
+                    expected.add(Arrays.toString(literals));
+                }
+            });
+            List<String> actual = LiteralInteractionIterator.stream(t, VARIABLES)
+                    .map(interaction -> Arrays.toString(interaction.literals))
+                    .collect(Collectors.toList());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void parallelStreamContainsAllInteractions() {
+        int t = 3;
+        int size = (int) BinomialCalculator.computeBinomial(VARIABLES.length, t) << t;
+        int[] counts = new int[size];
+        BinomialCalculator calculator = new BinomialCalculator(t, VARIABLES.length);
+        LiteralInteractionIterator.parallelStream(t, VARIABLES).forEach(interaction -> {
+            int index = Math.toIntExact(interaction.interactionIndex);
+            assertArrayEquals(calculator.combination(index >>> t), interaction.elementIndices);
+            for (int k = 0; k < t; k++) {
+                assertEquals((index >> k & 1) == 0, interaction.literals[k] > 0);
+            }
+            synchronized (counts) {
+                counts[index]++;
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals(1, counts[i], i);
+        }
+    }
+
+    @Test
+    void skipsInteractionsContradictingFixedLiterals() {
+        BooleanAssignment fixedLiterals = new BooleanAssignment(3, -11, 29, -4);
+        Set<String> expected = LiteralInteractionIterator.stream(2, VARIABLES)
+                .filter(interaction -> Arrays.stream(interaction.literals).noneMatch(l -> fixedLiterals.contains(-l)))
+                .map(interaction -> Arrays.toString(interaction.literals))
+                .collect(Collectors.toSet());
+        List<String> actual = LiteralInteractionIterator.parallelStream(2, VARIABLES, fixedLiterals, c -> null)
+                .map(interaction -> Arrays.toString(interaction.literals))
+                .collect(Collectors.toList());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, new HashSet<>(actual));
+        assertTrue(actual.contains("[3, 5]"));
+        assertTrue(actual.contains("[5, -11]"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-formula.
+ *
+ * formula is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * formula is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with formula. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-formula> for further information.
+ */
+package de.featjar.formula.structure.formula.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.formula.analysis.combinations.BinomialCalculator;
+import de.featjar.formula.analysis.combinations.RevolvingDoorIterator;
+import de.featjar.formula.analysis.combinations.RevolvingDoorIterator.Combination;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class RevolvingDoorIteratorTest {
+
+    @Test
+    void consecutiveCombinationsDifferInOneElement() {
+        for (int t = 1; t <= 5; t++) {
+            for (int n = t; n <= 9; n++) {
+                streamSequential(t, n);
+            }
+        }
+    }
+
+    @Test
+    void parallelStreamContainsAllCombinations() {
+        streamParallel(1, 20);
+        streamParallel(2, 20);
+        streamParallel(3, 20);
+        streamParallel(4, 30);
+    }
+
+    private void streamSequential(int t, int n) {
+        BinomialCalculator calculator = new BinomialCalculator(t, n);
+        int[][] previous = new int[1][];
+        Set<String> combinations = new HashSet<>();
+        RevolvingDoorIterator.stream(t, n).forEach(c -> {
+            assertEquals(previous[0] != null, c.isIncremental());
+            if (previous[0] != null) {
+                assertArrayEquals(update(previous[0], c), c.elementIndices);
+            }
+            assertEquals(c.combinationIndex, calculator.revolvingDoorIndex(c.elementIndices));
+            assertArrayEquals(
+                    c.elementIndices, calculator.revolvingDoorCombination(c.combinationIndex, new int[t]));
+            assertTrue(combinations.add(Arrays.toString(c.elementIndices)));
+            previous[0] = c.elementIndices.clone();
+        });
+        assertEquals(calculator.binomial(), combinations.size());
+    }
+
+    private void streamParallel(int t, int n) {
+        int size = (int) BinomialCalculator.computeBinomial(n, t);
+        int[] counts = new int[size];
+        RevolvingDoorIterator.<int[][]>parallelStream(t, n, c -> new int[1][]).forEach(c -> {
+            int[][] previous = c.environment;
+            if (c.isIncremental()) {
+                assertNotNull(previous[0]);
+                assertArrayEquals(update(previous[0], c), c.elementIndices);
+            }
+            previous[0] = c.elementIndices.clone();
+            synchronized (counts) {
+                counts[Math.toIntExact(c.combinationIndex)]++;
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals(1, counts[i], i);
+        }
+    }
+
+    private static int[] update(int[] previous, Combination<?> c) {
+        int[] elements = Arrays.stream(previous)
+                .map(e -> e == c.removedElementIndex ? c.addedElementIndex : e)
+                .sorted()
+                .toArray();
+        assertFalse(Arrays.stream(previous).anyMatch(e -> e == c.addedElementIndex));
+        assertTrue(Arrays.stream(previous).anyMatch(e -> e == c.removedElementIndex));
+        return elements;
+    }
+}
@@ -37,6 +37,9 @@ import de.featjar.base.io.format.IFormatSupplier;
 import de.featjar.base.log.CallerFormatter;
 import de.featjar.base.log.Log;
 import de.featjar.base.log.TimeStampFormatter;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
 import de.featjar.formula.io.FormulaFormats;
 import de.featjar.formula.structure.formula.IFormula;
 import java.net.URL;
@@ -107,4 +110,20 @@ public class Common {
                 return null;
         }
     }
+
+    public static BooleanClauseList clauses(int variableCount, int[]... clauses) {
+        BooleanClauseList clauseList = new BooleanClauseList(variableCount);
+        for (int[] clause : clauses) {
+            clauseList.add(new BooleanClause(clause));
+        }
+        return clauseList;
+    }
+
+    public static VariableMap variables(int variableCount) {
+        VariableMap variableMap = new VariableMap();
+        for (int i = 1; i <= variableCount; i++) {
+            variableMap.add("x" + i);
+        }
+        return variableMap;
+    }
 }